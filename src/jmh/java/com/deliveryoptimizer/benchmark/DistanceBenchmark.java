@@ -0,0 +1,88 @@
+package com.deliveryoptimizer.benchmark;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.DistanceMode;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.PreparedPoint;
+import com.deliveryoptimizer.util.TourUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw distance cost, with and without prepared points, and a full closed-tour length, for each distance
+ * mode. The per-call benchmarks walk consecutive stops so every call sees different coordinates and
+ * cannot be constant-folded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    @Param({"HAVERSINE", "EQUIRECTANGULAR"})
+    private DistanceMode mode;
+
+    private DistanceCalculator distanceCalculator;
+    private Warehouse warehouse;
+    private List<Delivery> deliveries;
+    private double[] latitudes;
+    private double[] longitudes;
+    private PreparedPoint[] points;
+    private int cursor;
+
+    @Setup
+    public void setUp(){
+        distanceCalculator = new DistanceCalculator(mode);
+        Tour tour = TourFixtures.randomTour(size);
+        warehouse = tour.getWarehouse();
+        deliveries = tour.getDeliveries();
+        latitudes = new double[size];
+        longitudes = new double[size];
+        points = new PreparedPoint[size];
+        for (int i = 0; i < size; i++){
+            latitudes[i] = deliveries.get(i).getAltitude();
+            longitudes[i] = deliveries.get(i).getLongitude();
+            points[i] = PreparedPoint.of(latitudes[i], longitudes[i]);
+        }
+    }
+
+    @Benchmark
+    public double distance(){
+        int i = cursor;
+        int j = i + 1 == size ? 0 : i + 1;
+        cursor = j;
+        return distanceCalculator.distance(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+
+    @Benchmark
+    public double preparedDistance(){
+        int i = cursor;
+        int j = i + 1 == size ? 0 : i + 1;
+        cursor = j;
+        return distanceCalculator.distance(points[i], points[j]);
+    }
+
+    @Benchmark
+    public double calculateTotalDistance(){
+        return TourUtils.calculateTotalDistance(warehouse, deliveries, distanceCalculator);
+    }
+}
@@ -0,0 +1,55 @@
+package com.deliveryoptimizer.benchmark;
+
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full distance matrix fill, once with the scalar row kernel and once in a JVM that has the Vector API
+ * module, which is the only difference between the two benchmarks. The vector kernel only exists when
+ * the {@code vector} profile is active too; otherwise both measure the scalar code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DistanceMatrixBenchmark {
+
+    @Param({"100", "1000", "2000"})
+    private int size;
+
+    private Tour tour;
+    private DistanceCalculator distanceCalculator;
+
+    @Setup
+    public void setUp(){
+        tour = TourFixtures.randomTour(size);
+        distanceCalculator = new DistanceCalculator();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+    public DistanceMatrix fillScalar(){
+        return DistanceMatrix.of(tour, distanceCalculator).fill();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "--add-modules=jdk.incubator.vector"})
+    public DistanceMatrix fillVector(){
+        return DistanceMatrix.of(tour, distanceCalculator).fill();
+    }
+}
@@ -0,0 +1,59 @@
+package com.deliveryoptimizer.benchmark;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.impl.ClarkeWrightOptimizer;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of one optimization, distance matrix included, as the service pays it.
+ * Clarke &amp; Wright at 10k stops sorts ~50M savings and needs a few GB of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OptimizerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private Tour tour;
+    private NearestNeighborOptimizer nearestNeighborOptimizer;
+    private ClarkeWrightOptimizer clarkeWrightOptimizer;
+
+    @Setup
+    public void setUp(){
+        DistanceCalculator distanceCalculator = new DistanceCalculator();
+        tour = TourFixtures.randomTour(size);
+        nearestNeighborOptimizer = new NearestNeighborOptimizer(distanceCalculator);
+        clarkeWrightOptimizer = new ClarkeWrightOptimizer(distanceCalculator);
+    }
+
+    @Benchmark
+    public List<Delivery> nearestNeighbor(){
+        return nearestNeighborOptimizer.optimizerTour(tour);
+    }
+
+    @Benchmark
+    public List<Delivery> clarkeWright(){
+        return clarkeWrightOptimizer.optimizerTour(tour);
+    }
+}
@@ -0,0 +1,42 @@
+package com.deliveryoptimizer.benchmark;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Seeded synthetic tours: a warehouse in Casablanca and deliveries spread over a 0.4° square around it. */
+final class TourFixtures {
+    static final long SEED = 20251024L;
+
+    private TourFixtures(){}
+
+    static Tour randomTour(int size){
+        Random random = new Random(SEED + size);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setAltitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        List<Delivery> deliveries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++){
+            Delivery delivery = new Delivery();
+            delivery.setId(id);
+            delivery.setAltitude(33.4 + random.nextDouble() * 0.4);
+            delivery.setLongitude(-7.8 + random.nextDouble() * 0.4);
+            delivery.setMaxWeight(1 + random.nextDouble() * 20);
+            delivery.setMaxVolume(0.01 + random.nextDouble() * 0.2);
+            deliveries.add(delivery);
+        }
+
+        Tour tour = new Tour();
+        tour.setId(1L);
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(deliveries);
+        return tour;
+    }
+}
@@ -1,6 +1,7 @@
 package com.deliveryoptimizer.controller;
 
 import com.deliveryoptimizer.dto.DeliveryDTO;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
 import com.deliveryoptimizer.service.interfaces.DeliveryService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -24,8 +25,8 @@ public class DeliveryController {
     }
 
     @GetMapping
-    public List<DeliveryDTO> getAllDeliveries(){
-        return deliveryService.getAllDeliveries();
+    public List<DeliveryDTO> getAllDeliveries(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, @RequestParam(required = false) DeliveryStatus status, @RequestParam(required = false) Long tourId){
+        return deliveryService.getAllDeliveries(after, limit, status, tourId);
     }
 
     @GetMapping("/{id}")
@@ -1,12 +1,23 @@
 package com.deliveryoptimizer.controller;
 
+import com.deliveryoptimizer.dto.AutoPlanResultDTO;
+import com.deliveryoptimizer.dto.BatchOptimizationResultDTO;
+import com.deliveryoptimizer.dto.InsertionResultDTO;
+import com.deliveryoptimizer.dto.OptimizationCacheStatsDTO;
+import com.deliveryoptimizer.dto.OptimizationJobDTO;
+import com.deliveryoptimizer.dto.OptimizerComparisonDTO;
 import com.deliveryoptimizer.dto.TourDTO;
-import com.deliveryoptimizer.model.enums.OptimizationMethod;
+import com.deliveryoptimizer.dto.TourScheduleDTO;
+import com.deliveryoptimizer.model.enums.TourStatus;
+import com.deliveryoptimizer.model.enums.VehicleType;
+import com.deliveryoptimizer.service.interfaces.OptimizationJobService;
 import com.deliveryoptimizer.service.interfaces.TourService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -14,9 +25,11 @@ import java.util.Map;
 @RequestMapping("/api/tours")
 public class TourController {
     private final TourService tourService;
+    private final OptimizationJobService optimizationJobService;
 
-    public TourController(TourService tourService){
+    public TourController(TourService tourService, OptimizationJobService optimizationJobService){
         this.tourService = tourService;
+        this.optimizationJobService = optimizationJobService;
     }
 
     @PostMapping
@@ -26,8 +39,8 @@ public class TourController {
     }
 
     @GetMapping
-    public List<TourDTO> getAllTours(){
-        return tourService.getAllTours();
+    public List<TourDTO> getAllTours(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @RequestParam(required = false) Long warehouseId, @RequestParam(required = false) TourStatus status){
+        return tourService.getAllTours(after, limit, date, warehouseId, status);
     }
 
     @GetMapping("/{id}")
@@ -52,14 +65,68 @@ public class TourController {
         return tourService.addDeliveriesToTour(id, deliveryIds);
     }
 
-    @GetMapping("/{id}/optimize/nn")
-    public List<Long> optimizeTour(@PathVariable Long id){
-        return tourService.optimizeTour(id, OptimizationMethod.NN);
+    @PostMapping("/{id}/deliveries/insert")
+    public InsertionResultDTO insertDeliveriesIntoTour(@PathVariable Long id, @RequestBody List<Long> deliveryIds){
+        return tourService.insertDeliveriesIntoTour(id, deliveryIds);
     }
 
-    @GetMapping("/{id}/optimize/cw")
-    public List<Long> OptimizeTour(@PathVariable Long id) { return tourService.optimizeTour(id, OptimizationMethod.CW); }
+    @GetMapping("/{id}/optimize")
+    public List<Long> optimizeTourWithinBudget(@PathVariable Long id, @RequestParam long budgetMs, @RequestParam(defaultValue = "nn") String start){
+        return tourService.optimizeTour(id, start, budgetMs);
+    }
+
+    @GetMapping("/{id}/optimize/compare")
+    public List<OptimizerComparisonDTO> compareOptimizers(@PathVariable Long id){
+        return tourService.compareOptimizers(id);
+    }
+
+    @GetMapping("/{id}/optimize/{method}")
+    public List<Long> optimizeTour(@PathVariable Long id, @PathVariable String method){
+        return tourService.optimizeTour(id, method);
+    }
+
+    @PostMapping("/optimize-batch")
+    public BatchOptimizationResultDTO optimizeTours(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @RequestParam(defaultValue = "auto") String method, @RequestBody(required = false) List<Long> tourIds){
+        return tourService.optimizeTours(date, tourIds, method);
+    }
+
+    @PostMapping("/{id}/optimize-jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OptimizationJobDTO submitOptimizationJob(@PathVariable Long id, @RequestParam(defaultValue = "nn") String method, @RequestParam(required = false) Long budgetMs){
+        return optimizationJobService.submit(id, method, budgetMs);
+    }
+
+    @GetMapping("/{id}/optimize-jobs/{jobId}")
+    public OptimizationJobDTO getOptimizationJob(@PathVariable Long id, @PathVariable String jobId){
+        return optimizationJobService.getJob(id, jobId);
+    }
+
+    @DeleteMapping("/{id}/optimize-jobs/{jobId}")
+    public OptimizationJobDTO cancelOptimizationJob(@PathVariable Long id, @PathVariable String jobId){
+        return optimizationJobService.cancel(id, jobId);
+    }
+
+    @GetMapping("/optimization-cache")
+    public OptimizationCacheStatsDTO getOptimizationCacheStats(){
+        return tourService.getOptimizationCacheStats();
+    }
 
     @GetMapping("/{id}/distances")
     public Map<String, String> getTotalDistances(@PathVariable Long id){ return tourService.getTourDistances(id); }
+
+    @GetMapping("/{id}/schedule")
+    public TourScheduleDTO getTourSchedule(@PathVariable Long id){
+        return tourService.getTourSchedule(id);
+    }
+
+    @PostMapping("/plan")
+    public List<List<Long>> planRoutes(@RequestParam Long warehouseId, @RequestParam VehicleType vehicleType, @RequestBody List<Long> deliveryIds){
+        return tourService.planRoutes(warehouseId, vehicleType, deliveryIds);
+    }
+
+    @PostMapping("/auto-plan")
+    @ResponseStatus(HttpStatus.CREATED)
+    public AutoPlanResultDTO autoPlanTours(@RequestParam Long warehouseId, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @RequestParam(defaultValue = "auto") String method){
+        return tourService.autoPlanTours(warehouseId, date, method);
+    }
 }
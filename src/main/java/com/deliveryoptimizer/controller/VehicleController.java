@@ -1,6 +1,7 @@
 package com.deliveryoptimizer.controller;
 
 import com.deliveryoptimizer.dto.VehicleDTO;
+import com.deliveryoptimizer.model.enums.VehicleType;
 import com.deliveryoptimizer.service.interfaces.VehicleService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -24,8 +25,8 @@ public class VehicleController {
     }
 
     @GetMapping
-    public List<VehicleDTO> getAllVehicles(){
-        return vehicleService.getAllVehicles();
+    public List<VehicleDTO> getAllVehicles(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, @RequestParam(required = false) VehicleType type){
+        return vehicleService.getAllVehicles(after, limit, type);
     }
 
     @GetMapping("/{id}")
@@ -24,8 +24,8 @@ public class WarehouseController {
     }
 
     @GetMapping
-    public List<WarehouseDTO> getAllWarehouses(){
-        return warehouseService.getAllWarehouses();
+    public List<WarehouseDTO> getAllWarehouses(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit){
+        return warehouseService.getAllWarehouses(after, limit);
     }
 
     @GetMapping("/{id}")
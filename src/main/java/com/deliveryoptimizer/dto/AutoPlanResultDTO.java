@@ -0,0 +1,24 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutoPlanResultDTO {
+    private Long warehouseId;
+    private LocalDate date;
+    private String method;
+    private int plannedDeliveryCount;
+    private List<Long> unassignedDeliveryIds;
+    private List<Long> skippedDeliveryIds;
+    private double elapsedMs;
+    private List<TourDTO> tours;
+}
@@ -0,0 +1,23 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOptimizationResultDTO {
+    private String method;
+    private LocalDate date;
+    private int tourCount;
+    private int optimizedCount;
+    private int failedCount;
+    private double elapsedMs;
+    private List<TourOptimizationResultDTO> results;
+}
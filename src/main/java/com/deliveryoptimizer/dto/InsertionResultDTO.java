@@ -0,0 +1,20 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InsertionResultDTO {
+    private Long tourId;
+    private List<Long> deliveryIds;
+    private double previousDistance;
+    private double totalDistance;
+    private double distanceDelta;
+}
@@ -0,0 +1,19 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OptimizationCacheStatsDTO {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private int maxEntries;
+    private long ttlSeconds;
+}
@@ -0,0 +1,28 @@
+package com.deliveryoptimizer.dto;
+
+import com.deliveryoptimizer.model.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OptimizationJobDTO {
+    private String jobId;
+    private Long tourId;
+    private String method;
+    private Long budgetMs;
+    private JobStatus status;
+    private double progress;
+    private List<Long> result;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OptimizerComparisonDTO {
+    private String method;
+    private String label;
+    private double totalDistance;
+    private String formattedDistance;
+    private double wallTimeMs;
+    private Double lowerBound;
+    private Double optimalityGapPercent;
+    private List<Long> deliveryIds;
+}
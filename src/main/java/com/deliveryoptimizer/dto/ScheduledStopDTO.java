@@ -0,0 +1,23 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledStopDTO {
+    private Long deliveryId;
+    private String timeSlot;
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+    private LocalTime arrival;
+    private LocalTime serviceStart;
+    private double lateMinutes;
+    private boolean feasible;
+}
@@ -0,0 +1,21 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TourOptimizationResultDTO {
+    private Long tourId;
+    private List<Long> deliveryIds;
+    private double totalDistance;
+    private double wallTimeMs;
+    private boolean cached;
+    private String error;
+}
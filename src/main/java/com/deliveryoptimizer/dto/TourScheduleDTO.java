@@ -0,0 +1,23 @@
+package com.deliveryoptimizer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TourScheduleDTO {
+    private Long tourId;
+    private LocalTime departure;
+    private LocalTime returnTime;
+    private double returnLateMinutes;
+    private boolean feasible;
+    private List<Long> infeasibleDeliveryIds;
+    private List<ScheduledStopDTO> stops;
+}
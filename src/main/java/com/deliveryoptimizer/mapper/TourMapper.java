@@ -3,6 +3,9 @@ package com.deliveryoptimizer.mapper;
 import com.deliveryoptimizer.dto.TourDTO;
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.repository.TourSummary;
+
+import java.util.List;
 
 public class TourMapper {
     public static TourDTO toDTO(Tour tour){
@@ -21,6 +24,19 @@ public class TourMapper {
                 .build();
     }
 
+    public static TourDTO toDTO(TourSummary summary, List<Long> deliveryIds){
+        if(summary == null) return null;
+        return TourDTO.builder()
+                .id(summary.getId())
+                .date(summary.getDate())
+                .totalDistance(summary.getTotalDistance())
+                .status(summary.getStatus())
+                .vehicleId(summary.getVehicleId())
+                .deliveryIds(deliveryIds)
+                .warehouseId(summary.getWarehouseId())
+                .build();
+    }
+
     public static Tour toEntity(TourDTO dto){
         if(dto == null) return null;
         return Tour.builder()
@@ -7,7 +7,10 @@ import jakarta.validation.constraints.Min;
 import lombok.*;
 
 @Entity
-@Table(name = "deliveries")
+@Table(name = "deliveries", indexes = {
+        @Index(name = "idx_deliveries_status_id", columnList = "status, id"),
+        @Index(name = "idx_deliveries_tour_id", columnList = "tour_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,6 +37,8 @@ public class Delivery {
 
     private String timeSlot;
 
+    private Integer stopSequence;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tour_id")
     @JsonIgnore
@@ -9,7 +9,11 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "tours")
+@Table(name = "tours", indexes = {
+        @Index(name = "idx_tours_date_id", columnList = "date, id"),
+        @Index(name = "idx_tours_status_id", columnList = "status, id"),
+        @Index(name = "idx_tours_warehouse_id", columnList = "warehouse_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,20 +25,24 @@ public class Tour {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Min(1)
+    @Min(0)
     private double totalDistance;
 
+    // Digest of the optimizer run that produced the saved stop order, null for a route edited by hand.
+    private Long routeFingerprint;
+
     private LocalDate date;
 
     @Enumerated(EnumType.STRING)
     private TourStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     Vehicle vehicle;
 
-    @OneToMany(mappedBy = "tour",cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "tour",cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("stopSequence ASC, id ASC")
     List<Delivery> deliveries;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     Warehouse warehouse;
 }
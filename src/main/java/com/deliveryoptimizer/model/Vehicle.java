@@ -9,7 +9,7 @@ import lombok.*;
 import java.util.List;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = @Index(name = "idx_vehicles_type_id", columnList = "type, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,6 @@
+package com.deliveryoptimizer.model.enums;
+
+public enum DistanceMode {
+    HAVERSINE,
+    EQUIRECTANGULAR
+}
@@ -0,0 +1,9 @@
+package com.deliveryoptimizer.model.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -1,6 +0,0 @@
-package com.deliveryoptimizer.model.enums;
-
-public enum OptimizationMethod {
-    NN,
-    CW
-}
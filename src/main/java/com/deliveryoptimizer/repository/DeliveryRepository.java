@@ -1,10 +1,35 @@
 package com.deliveryoptimizer.repository;
 
 import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     public List<Delivery> findAllByTourIsNull();
+
+    /** One keyset query per combination of filters, so each only carries the predicates that are set. */
+    default List<Delivery> findPage(long after, DeliveryStatus status, Long tourId, Limit limit){
+        if(status != null && tourId != null) return findByStatusAndTourIdAndIdGreaterThanOrderByIdAsc(status, tourId, after, limit);
+        if(status != null) return findByStatusAndIdGreaterThanOrderByIdAsc(status, after, limit);
+        if(tourId != null) return findByTourIdAndIdGreaterThanOrderByIdAsc(tourId, after, limit);
+        return findByIdGreaterThanOrderByIdAsc(after, limit);
+    }
+
+    List<Delivery> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+    List<Delivery> findByStatusAndIdGreaterThanOrderByIdAsc(DeliveryStatus status, long after, Limit limit);
+
+    @Query("select d from Delivery d where d.tour.id = :tourId and d.id > :after order by d.id")
+    List<Delivery> findByTourIdAndIdGreaterThanOrderByIdAsc(Long tourId, long after, Limit limit);
+
+    @Query("select d from Delivery d where d.status = :status and d.tour.id = :tourId and d.id > :after order by d.id")
+    List<Delivery> findByStatusAndTourIdAndIdGreaterThanOrderByIdAsc(DeliveryStatus status, Long tourId, long after, Limit limit);
+
+    @Query("select d.tour.id as tourId, d.id as deliveryId from Delivery d where d.tour.id in :tourIds "
+            + "order by d.tour.id, d.stopSequence, d.id")
+    List<TourDeliveryId> findDeliveryIdsByTourIdIn(Collection<Long> tourIds);
 }
@@ -0,0 +1,6 @@
+package com.deliveryoptimizer.repository;
+
+public interface TourDeliveryId {
+    Long getTourId();
+    Long getDeliveryId();
+}
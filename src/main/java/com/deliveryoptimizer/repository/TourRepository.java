@@ -1,9 +1,74 @@
 package com.deliveryoptimizer.repository;
 
 import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.enums.TourStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TourRepository extends JpaRepository<Tour, Long> {
-    boolean existsByVehicleId(Long vehicleId);
-    boolean existsByWarehouseId(Long warehouseId);
+    // The vehicle and warehouse ids are read from the tour's own foreign keys, so no join is needed and a
+    // tour without a vehicle is still listed.
+    String SUMMARY = "select t.id as id, t.vehicle.id as vehicleId, t.warehouse.id as warehouseId, t.date as date, "
+            + "t.totalDistance as totalDistance, t.status as status from Tour t ";
+
+    boolean existsByVehicleIdAndDate(Long vehicleId, LocalDate date);
+    boolean existsByVehicleIdAndDateAndIdNot(Long vehicleId, LocalDate date, Long id);
+
+    @EntityGraph(attributePaths = {"deliveries", "warehouse", "vehicle"})
+    Optional<Tour> findWithDeliveriesById(Long id);
+
+    /** One keyset query per combination of filters, so each only carries the predicates that are set. */
+    default List<TourSummary> findSummaryPage(long after, LocalDate date, Long warehouseId, TourStatus status, Limit limit){
+        int filters = (date != null ? 1 : 0) | (warehouseId != null ? 2 : 0) | (status != null ? 4 : 0);
+        return switch (filters){
+            case 1 -> findSummaryByDateAndIdGreaterThanOrderByIdAsc(date, after, limit);
+            case 2 -> findSummaryByWarehouseIdAndIdGreaterThanOrderByIdAsc(warehouseId, after, limit);
+            case 3 -> findSummaryByDateAndWarehouseIdAndIdGreaterThanOrderByIdAsc(date, warehouseId, after, limit);
+            case 4 -> findSummaryByStatusAndIdGreaterThanOrderByIdAsc(status, after, limit);
+            case 5 -> findSummaryByDateAndStatusAndIdGreaterThanOrderByIdAsc(date, status, after, limit);
+            case 6 -> findSummaryByWarehouseIdAndStatusAndIdGreaterThanOrderByIdAsc(warehouseId, status, after, limit);
+            case 7 -> findSummaryByDateAndWarehouseIdAndStatusAndIdGreaterThanOrderByIdAsc(date, warehouseId, status, after, limit);
+            default -> findSummaryByIdGreaterThanOrderByIdAsc(after, limit);
+        };
+    }
+
+    @Query(SUMMARY + "where t.id > :after order by t.id")
+    List<TourSummary> findSummaryByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    @Query(SUMMARY + "where t.date = :date and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByDateAndIdGreaterThanOrderByIdAsc(LocalDate date, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.warehouse.id = :warehouseId and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByWarehouseIdAndIdGreaterThanOrderByIdAsc(Long warehouseId, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.date = :date and t.warehouse.id = :warehouseId and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByDateAndWarehouseIdAndIdGreaterThanOrderByIdAsc(LocalDate date, Long warehouseId, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.status = :status and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByStatusAndIdGreaterThanOrderByIdAsc(TourStatus status, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.date = :date and t.status = :status and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByDateAndStatusAndIdGreaterThanOrderByIdAsc(LocalDate date, TourStatus status, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.warehouse.id = :warehouseId and t.status = :status and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByWarehouseIdAndStatusAndIdGreaterThanOrderByIdAsc(Long warehouseId, TourStatus status, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.date = :date and t.warehouse.id = :warehouseId and t.status = :status and t.id > :after order by t.id")
+    List<TourSummary> findSummaryByDateAndWarehouseIdAndStatusAndIdGreaterThanOrderByIdAsc(LocalDate date, Long warehouseId, TourStatus status, long after, Limit limit);
+
+    @Query(SUMMARY + "where t.id = :id")
+    Optional<TourSummary> findSummaryById(Long id);
+
+    @EntityGraph(attributePaths = {"deliveries", "warehouse", "vehicle"})
+    List<Tour> findAllByDate(LocalDate date);
+
+    @EntityGraph(attributePaths = {"deliveries", "warehouse", "vehicle"})
+    List<Tour> findAllByIdIn(Collection<Long> ids);
 }
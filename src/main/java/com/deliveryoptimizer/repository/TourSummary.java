@@ -0,0 +1,14 @@
+package com.deliveryoptimizer.repository;
+
+import com.deliveryoptimizer.model.enums.TourStatus;
+
+import java.time.LocalDate;
+
+public interface TourSummary {
+    Long getId();
+    Long getVehicleId();
+    Long getWarehouseId();
+    LocalDate getDate();
+    double getTotalDistance();
+    TourStatus getStatus();
+}
@@ -1,7 +1,22 @@
 package com.deliveryoptimizer.repository;
 
 import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.enums.VehicleType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+    @Query("select v from Vehicle v where not exists (select t.id from Tour t where t.vehicle = v and t.date = :date) order by v.id")
+    List<Vehicle> findAllFreeOn(LocalDate date);
+
+    default List<Vehicle> findPage(long after, VehicleType type, Limit limit){
+        return type != null ? findByTypeAndIdGreaterThanOrderByIdAsc(type, after, limit) : findByIdGreaterThanOrderByIdAsc(after, limit);
+    }
+
+    List<Vehicle> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+    List<Vehicle> findByTypeAndIdGreaterThanOrderByIdAsc(VehicleType type, long after, Limit limit);
 }
@@ -1,7 +1,11 @@
 package com.deliveryoptimizer.repository;
 
 import com.deliveryoptimizer.model.Warehouse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+    List<Warehouse> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
 }
@@ -0,0 +1,339 @@
+package com.deliveryoptimizer.routing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Query side of a contraction hierarchy: every node has a rank, and the graph is split into an upward
+ * graph (edges towards higher ranks, searched forward from sources) and a downward graph stored reversed
+ * (edges coming from higher ranks, searched backward from targets). Any shortest path has a highest-ranked
+ * node where both searches meet, so two small upward searches replace a search of the whole network.
+ * <p>
+ * {@link #distances} answers many sources against many targets with buckets: one backward search per
+ * target leaves (target, distance) entries at every node it settles, then one forward search per source
+ * scans the buckets of the nodes it settles. The cost is one search per point instead of one per pair.
+ * <p>
+ * The arrays live behind NIO buffers so the same code reads a freshly built hierarchy and one memory-mapped
+ * from the file written by {@link #write}; {@link #map} only maps the file, the operating system pages it in
+ * on demand. Queries are thread-safe: each borrows its search state from a pool holding at most one idle
+ * state per processor, so the node-sized arrays are bounded by the queries running at once, not by every
+ * thread that ever asked.
+ */
+public class ContractionHierarchy {
+    private static final int MAGIC = 0x44434831;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int MAX_IDLE_SEARCHES = Runtime.getRuntime().availableProcessors();
+
+    private final int nodeCount;
+    private final DoubleBuffer latitudes;
+    private final DoubleBuffer longitudes;
+    private final IntBuffer upFirst;
+    private final IntBuffer upTargets;
+    private final DoubleBuffer upWeights;
+    private final IntBuffer downFirst;
+    private final IntBuffer downTargets;
+    private final DoubleBuffer downWeights;
+    private final BlockingQueue<Search> idleSearches = new ArrayBlockingQueue<>(MAX_IDLE_SEARCHES);
+
+    ContractionHierarchy(int nodeCount, DoubleBuffer latitudes, DoubleBuffer longitudes,
+                         IntBuffer upFirst, IntBuffer upTargets, DoubleBuffer upWeights,
+                         IntBuffer downFirst, IntBuffer downTargets, DoubleBuffer downWeights){
+        this.nodeCount = nodeCount;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.upFirst = upFirst;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.downFirst = downFirst;
+        this.downTargets = downTargets;
+        this.downWeights = downWeights;
+    }
+
+    public int nodeCount(){
+        return nodeCount;
+    }
+
+    public double latitude(int node){
+        return latitudes.get(node);
+    }
+
+    public double longitude(int node){
+        return longitudes.get(node);
+    }
+
+    /** Edges of both search graphs, original edges and shortcuts. */
+    public int edgeCount(){
+        return upTargets.limit() + downTargets.limit();
+    }
+
+    /** Shortest path length between two nodes, {@link Double#POSITIVE_INFINITY} when there is none. */
+    public double distance(int source, int target){
+        return distances(new int[]{source}, new int[]{target})[0];
+    }
+
+    /** Row-major {@code sources.length * targets.length} shortest path lengths, infinite where there is no path. */
+    public double[] distances(int[] sources, int[] targets){
+        double[] result = new double[sources.length * targets.length];
+        distances(sources, targets, (source, row) -> System.arraycopy(row, 0, result, source * targets.length, targets.length));
+        return result;
+    }
+
+    /**
+     * Hands the shortest path lengths from each source to every target to {@code rows}, one source at a time
+     * and in order, so a caller can keep what it needs without holding the whole product. The row array is
+     * reused between calls.
+     */
+    public void distances(int[] sources, int[] targets, RowConsumer rows){
+        Search search = borrowSearch();
+        try {
+            search(search, sources, targets, rows);
+        } finally {
+            releaseSearch(search);
+        }
+    }
+
+    private void search(Search search, int[] sources, int[] targets, RowConsumer rows){
+        long[] order = new long[16];
+        int[] entryTargets = new int[16];
+        double[] entryDistances = new double[16];
+        int entries = 0;
+        for (int t = 0; t < targets.length; t++){
+            search.run(targets[t], downFirst, downTargets, downWeights, upFirst, upTargets, upWeights);
+            for (int k = 0; k < search.settledCount; k++){
+                if(entries == order.length){
+                    order = Arrays.copyOf(order, entries * 2);
+                    entryTargets = Arrays.copyOf(entryTargets, entries * 2);
+                    entryDistances = Arrays.copyOf(entryDistances, entries * 2);
+                }
+                // Node in the high half and entry number in the low half, so sorting groups entries by node.
+                order[entries] = ((long) search.settled[k] << 32) | entries;
+                entryTargets[entries] = t;
+                entryDistances[entries] = search.dist[search.settled[k]];
+                entries++;
+            }
+        }
+        Arrays.sort(order, 0, entries);
+        int[] bucketNodes = new int[entries];
+        int[] bucketTargets = new int[entries];
+        double[] bucketDistances = new double[entries];
+        for (int k = 0; k < entries; k++){
+            int entry = (int) order[k];
+            bucketNodes[k] = (int) (order[k] >>> 32);
+            bucketTargets[k] = entryTargets[entry];
+            bucketDistances[k] = entryDistances[entry];
+        }
+
+        double[] row = new double[targets.length];
+        for (int s = 0; s < sources.length; s++){
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            search.run(sources[s], upFirst, upTargets, upWeights, downFirst, downTargets, downWeights);
+            for (int k = 0; k < search.settledCount; k++){
+                int node = search.settled[k];
+                double toNode = search.dist[node];
+                for (int b = lowerBound(bucketNodes, entries, node); b < entries && bucketNodes[b] == node; b++){
+                    double through = toNode + bucketDistances[b];
+                    if(through < row[bucketTargets[b]]) row[bucketTargets[b]] = through;
+                }
+            }
+            rows.accept(s, row);
+        }
+    }
+
+    private Search borrowSearch(){
+        Search search = idleSearches.poll();
+        return search != null ? search : new Search(nodeCount);
+    }
+
+    // A state returned while the pool is full is left to the garbage collector.
+    private void releaseSearch(Search search){
+        search.reset();
+        idleSearches.offer(search);
+    }
+
+    private static int lowerBound(int[] values, int length, int key){
+        int low = 0;
+        int high = length;
+        while (low < high){
+            int mid = (low + high) >>> 1;
+            if(values[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /** Writes the hierarchy in the layout {@link #map} reads, through a temporary file moved into place. */
+    public void write(Path file) throws IOException {
+        int up = upTargets.limit();
+        int down = downTargets.limit();
+        long size = HEADER_BYTES + 8L * (2L * nodeCount + up + down) + 4L * (2L * (nodeCount + 1) + up + down);
+        if(size > Integer.MAX_VALUE){
+            throw new IOException("Contraction hierarchy of " + size + " bytes is too large for a single mapping");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = parent.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(up).putInt(down).putInt(0);
+            putAll(buffer, latitudes, nodeCount);
+            putAll(buffer, longitudes, nodeCount);
+            putAll(buffer, upWeights, up);
+            putAll(buffer, downWeights, down);
+            putAll(buffer, upFirst, nodeCount + 1);
+            putAll(buffer, upTargets, up);
+            putAll(buffer, downFirst, nodeCount + 1);
+            putAll(buffer, downTargets, down);
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Maps a file written by {@link #write} read-only; nothing is copied onto the heap. */
+    public static ContractionHierarchy map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            if(size < HEADER_BYTES || size > Integer.MAX_VALUE){
+                throw new IOException(file + " is not a contraction hierarchy file");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+                throw new IOException(file + " is not a contraction hierarchy file of version " + VERSION);
+            }
+            int nodeCount = buffer.getInt(8);
+            int up = buffer.getInt(12);
+            int down = buffer.getInt(16);
+            long expected = HEADER_BYTES + 8L * (2L * nodeCount + up + down) + 4L * (2L * (nodeCount + 1) + up + down);
+            if(nodeCount < 0 || up < 0 || down < 0 || expected != size){
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            int offset = HEADER_BYTES;
+            DoubleBuffer latitudes = doubles(buffer, offset, nodeCount);
+            offset += 8 * nodeCount;
+            DoubleBuffer longitudes = doubles(buffer, offset, nodeCount);
+            offset += 8 * nodeCount;
+            DoubleBuffer upWeights = doubles(buffer, offset, up);
+            offset += 8 * up;
+            DoubleBuffer downWeights = doubles(buffer, offset, down);
+            offset += 8 * down;
+            IntBuffer upFirst = ints(buffer, offset, nodeCount + 1);
+            offset += 4 * (nodeCount + 1);
+            IntBuffer upTargets = ints(buffer, offset, up);
+            offset += 4 * up;
+            IntBuffer downFirst = ints(buffer, offset, nodeCount + 1);
+            offset += 4 * (nodeCount + 1);
+            IntBuffer downTargets = ints(buffer, offset, down);
+
+            return new ContractionHierarchy(nodeCount, latitudes, longitudes, upFirst, upTargets, upWeights, downFirst, downTargets, downWeights);
+        }
+    }
+
+    private static DoubleBuffer doubles(ByteBuffer buffer, int offset, int count){
+        return buffer.slice(offset, 8 * count).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int offset, int count){
+        return buffer.slice(offset, 4 * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static void putAll(ByteBuffer buffer, DoubleBuffer values, int count){
+        for (int i = 0; i < count; i++){
+            buffer.putDouble(values.get(i));
+        }
+    }
+
+    private static void putAll(ByteBuffer buffer, IntBuffer values, int count){
+        for (int i = 0; i < count; i++){
+            buffer.putInt(values.get(i));
+        }
+    }
+
+    /** Receives the distances from the source at index {@code source} to every target. */
+    public interface RowConsumer {
+        void accept(int source, double[] distances);
+    }
+
+    // Dijkstra state over one of the two search graphs, used by one query at a time. Distances are reset through the settled list.
+    private static final class Search {
+        private final double[] dist;
+        private final MinHeap heap = new MinHeap();
+        private int[] settled = new int[64];
+        private int settledCount;
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        Search(int nodeCount){
+            this.dist = new double[nodeCount];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        // Settles every node reachable upward from origin; the search spaces of a hierarchy are small, so there is no stopping rule.
+        // A node that a higher-ranked settled node reaches more cheaply through the opposite graph is not on a shortest
+        // path (stall-on-demand): it is neither expanded nor reported as settled.
+        void run(int origin, IntBuffer first, IntBuffer targets, DoubleBuffer weights,
+                 IntBuffer stallFirst, IntBuffer stallTargets, DoubleBuffer stallWeights){
+            reset();
+            heap.clear();
+            dist[origin] = 0;
+            touch(origin);
+            heap.push(0, origin);
+            while (!heap.isEmpty()){
+                double d = heap.peekKey();
+                int node = heap.peekNode();
+                heap.pop();
+                if(d > dist[node]) continue;
+                if(isStalled(node, d, stallFirst, stallTargets, stallWeights)) continue;
+
+                if(settledCount == settled.length) settled = Arrays.copyOf(settled, settledCount * 2);
+                settled[settledCount++] = node;
+
+                for (int e = first.get(node), end = first.get(node + 1); e < end; e++){
+                    int next = targets.get(e);
+                    double candidate = d + weights.get(e);
+                    if(candidate < dist[next]){
+                        if(dist[next] == Double.POSITIVE_INFINITY) touch(next);
+                        dist[next] = candidate;
+                        heap.push(candidate, next);
+                    }
+                }
+            }
+        }
+
+        private boolean isStalled(int node, double d, IntBuffer first, IntBuffer targets, DoubleBuffer weights){
+            for (int e = first.get(node), end = first.get(node + 1); e < end; e++){
+                if(dist[targets.get(e)] + weights.get(e) < d) return true;
+            }
+            return false;
+        }
+
+        void reset(){
+            for (int i = 0; i < touchedCount; i++){
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            settledCount = 0;
+        }
+
+        private void touch(int node){
+            if(touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+            touched[touchedCount++] = node;
+        }
+    }
+}
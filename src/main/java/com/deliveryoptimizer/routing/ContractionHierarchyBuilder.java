@@ -0,0 +1,296 @@
+package com.deliveryoptimizer.routing;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Preprocesses a {@link RoadGraph} into a {@link ContractionHierarchy}. Nodes are contracted one at a time,
+ * least important first: removing a node adds a shortcut {@code u -> w} for each path {@code u -> v -> w}
+ * through it unless a witness search finds a path at least as short around it.
+ * <p>
+ * Importance is the edge difference (shortcuts added minus edges removed) plus the number of neighbours
+ * already contracted, which spreads contraction evenly over the map. Priorities are refreshed lazily: the
+ * cheapest node is re-evaluated when popped and contracted only if it is still the cheapest.
+ * <p>
+ * A contracted node leaves the remaining graph at once: its edges all lead to nodes contracted later, so
+ * they go straight into the upward or downward search graph. Witness searches stop once every target is
+ * settled or after a fixed number of settled nodes, and follow only a few edges when merely estimating a
+ * priority; a search cut short only costs a superfluous shortcut, never a wrong distance.
+ */
+public class ContractionHierarchyBuilder {
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+    private static final int SIMULATION_HOP_LIMIT = 4;
+    private static final int CONTRACTION_SETTLE_LIMIT = 500;
+    private static final int CONTRACTION_HOP_LIMIT = Integer.MAX_VALUE;
+
+    private final int nodeCount;
+    private final RoadGraph.IntList[] outTargets;
+    private final RoadGraph.DoubleList[] outWeights;
+    private final RoadGraph.IntList[] inSources;
+    private final RoadGraph.DoubleList[] inWeights;
+    private final int[] contractedNeighbours;
+    private final RoadGraph.IntList upSources = new RoadGraph.IntList();
+    private final RoadGraph.IntList upTargets = new RoadGraph.IntList();
+    private final RoadGraph.DoubleList upWeights = new RoadGraph.DoubleList();
+    private final RoadGraph.IntList downSources = new RoadGraph.IntList();
+    private final RoadGraph.IntList downTargets = new RoadGraph.IntList();
+    private final RoadGraph.DoubleList downWeights = new RoadGraph.DoubleList();
+
+    private final double[] witnessDist;
+    private final int[] witnessTouched;
+    private final int[] witnessHops;
+    private int witnessTouchedCount;
+    private final int[] targetStamp;
+    private int stamp;
+    private final MinHeap witnessHeap = new MinHeap();
+
+    private ContractionHierarchyBuilder(RoadGraph graph){
+        this.nodeCount = graph.nodeCount();
+        this.outTargets = new RoadGraph.IntList[nodeCount];
+        this.outWeights = new RoadGraph.DoubleList[nodeCount];
+        this.inSources = new RoadGraph.IntList[nodeCount];
+        this.inWeights = new RoadGraph.DoubleList[nodeCount];
+        for (int v = 0; v < nodeCount; v++){
+            outTargets[v] = new RoadGraph.IntList();
+            outWeights[v] = new RoadGraph.DoubleList();
+            inSources[v] = new RoadGraph.IntList();
+            inWeights[v] = new RoadGraph.DoubleList();
+        }
+        this.contractedNeighbours = new int[nodeCount];
+        this.witnessDist = new double[nodeCount];
+        this.witnessTouched = new int[nodeCount];
+        this.witnessHops = new int[nodeCount];
+        this.targetStamp = new int[nodeCount];
+        Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+
+        for (int v = 0; v < nodeCount; v++){
+            for (int e = graph.firstEdge(v), end = graph.firstEdge(v + 1); e < end; e++){
+                addEdge(v, graph.edgeTarget(e), graph.edgeLength(e));
+            }
+        }
+    }
+
+    public static ContractionHierarchy build(RoadGraph graph){
+        return new ContractionHierarchyBuilder(graph).contract(graph);
+    }
+
+    private ContractionHierarchy contract(RoadGraph graph){
+        int[] priority = new int[nodeCount];
+        MinHeap queue = new MinHeap();
+        for (int v = 0; v < nodeCount; v++){
+            priority[v] = priority(v);
+            queue.push(priority[v], v);
+        }
+
+        while (!queue.isEmpty()){
+            int v = queue.peekNode();
+            int queued = (int) queue.peekKey();
+            queue.pop();
+            if(outTargets[v] == null || queued != priority[v]) continue;
+
+            priority[v] = priority(v);
+            if(!queue.isEmpty() && priority[v] > queue.peekKey()){
+                queue.push(priority[v], v);
+                continue;
+            }
+
+            contractNode(v, false);
+            RoadGraph.IntList neighbours = detach(v);
+            for (int i = 0; i < neighbours.size(); i++){
+                contractedNeighbours[neighbours.get(i)]++;
+            }
+        }
+        return searchGraphs(graph);
+    }
+
+    // Moves the edges of a contracted node, all of them to higher-ranked nodes, into the search graphs and out of the remaining graph.
+    private RoadGraph.IntList detach(int v){
+        RoadGraph.IntList neighbours = new RoadGraph.IntList();
+        for (int i = 0; i < outTargets[v].size(); i++){
+            int w = outTargets[v].get(i);
+            upSources.add(v);
+            upTargets.add(w);
+            upWeights.add(outWeights[v].get(i));
+            remove(inSources[w], inWeights[w], v);
+            neighbours.add(w);
+        }
+        for (int i = 0; i < inSources[v].size(); i++){
+            int u = inSources[v].get(i);
+            downSources.add(v);
+            downTargets.add(u);
+            downWeights.add(inWeights[v].get(i));
+            remove(outTargets[u], outWeights[u], v);
+            if(!outTargets[v].contains(u)) neighbours.add(u);
+        }
+        outTargets[v] = null;
+        outWeights[v] = null;
+        inSources[v] = null;
+        inWeights[v] = null;
+        return neighbours;
+    }
+
+    private static void remove(RoadGraph.IntList nodes, RoadGraph.DoubleList weights, int node){
+        int last = nodes.size() - 1;
+        for (int i = 0; i <= last; i++){
+            if(nodes.get(i) != node) continue;
+            nodes.set(i, nodes.get(last));
+            weights.set(i, weights.get(last));
+            nodes.removeLast();
+            weights.removeLast();
+            return;
+        }
+    }
+
+    private int priority(int v){
+        int removed = outTargets[v].size() + inSources[v].size();
+        return contractNode(v, true) - removed + contractedNeighbours[v];
+    }
+
+    // Counts, and unless simulating adds, the shortcuts needed to remove v from the remaining graph.
+    private int contractNode(int v, boolean simulate){
+        int shortcuts = 0;
+        int settleLimit = simulate ? SIMULATION_SETTLE_LIMIT : CONTRACTION_SETTLE_LIMIT;
+        int hopLimit = simulate ? SIMULATION_HOP_LIMIT : CONTRACTION_HOP_LIMIT;
+        RoadGraph.IntList sources = inSources[v];
+        RoadGraph.IntList targets = outTargets[v];
+        for (int i = 0; i < sources.size(); i++){
+            int u = sources.get(i);
+            double toV = inWeights[v].get(i);
+
+            stamp++;
+            int targetCount = 0;
+            double maxPath = -1;
+            for (int j = 0; j < targets.size(); j++){
+                int w = targets.get(j);
+                if(w == u) continue;
+                targetStamp[w] = stamp;
+                targetCount++;
+                maxPath = Math.max(maxPath, toV + outWeights[v].get(j));
+            }
+            if(targetCount == 0) continue;
+
+            witnessSearch(u, v, maxPath, settleLimit, hopLimit, targetCount);
+            for (int j = 0; j < targets.size(); j++){
+                int w = targets.get(j);
+                if(w == u) continue;
+                double through = toV + outWeights[v].get(j);
+                if(witnessDist[w] <= through) continue;
+                shortcuts++;
+                if(!simulate) addEdge(u, w, through);
+            }
+            resetWitness();
+        }
+        return shortcuts;
+    }
+
+    // Dijkstra from u over the remaining graph without v, until every target is settled, maxDist is passed or
+    // settleLimit nodes are settled. Paths longer than hopLimit edges are not followed.
+    private void witnessSearch(int u, int v, double maxDist, int settleLimit, int hopLimit, int targetCount){
+        witnessHeap.clear();
+        witnessDist[u] = 0;
+        witnessHops[u] = 0;
+        witnessTouched[witnessTouchedCount++] = u;
+        witnessHeap.push(0, u);
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && settled < settleLimit){
+            double d = witnessHeap.peekKey();
+            int node = witnessHeap.peekNode();
+            witnessHeap.pop();
+            if(d > witnessDist[node]) continue;
+            if(d > maxDist) break;
+            if(targetStamp[node] == stamp && --targetCount == 0) break;
+            settled++;
+            if(witnessHops[node] >= hopLimit) continue;
+
+            RoadGraph.IntList targets = outTargets[node];
+            for (int e = 0; e < targets.size(); e++){
+                int next = targets.get(e);
+                if(next == v) continue;
+                double candidate = d + outWeights[node].get(e);
+                if(candidate <= maxDist && candidate < witnessDist[next]){
+                    if(witnessDist[next] == Double.POSITIVE_INFINITY) witnessTouched[witnessTouchedCount++] = next;
+                    witnessDist[next] = candidate;
+                    witnessHops[next] = witnessHops[node] + 1;
+                    witnessHeap.push(candidate, next);
+                }
+            }
+        }
+    }
+
+    private void resetWitness(){
+        for (int i = 0; i < witnessTouchedCount; i++){
+            witnessDist[witnessTouched[i]] = Double.POSITIVE_INFINITY;
+        }
+        witnessTouchedCount = 0;
+    }
+
+    // Adds u -> w, or shortens it when it already exists, in both adjacency directions.
+    private void addEdge(int u, int w, double weight){
+        if(u == w) return;
+        RoadGraph.IntList targets = outTargets[u];
+        for (int i = 0; i < targets.size(); i++){
+            if(targets.get(i) != w) continue;
+            if(weight < outWeights[u].get(i)){
+                outWeights[u].set(i, weight);
+                RoadGraph.IntList sources = inSources[w];
+                for (int j = 0; j < sources.size(); j++){
+                    if(sources.get(j) == u) inWeights[w].set(j, weight);
+                }
+            }
+            return;
+        }
+        targets.add(w);
+        outWeights[u].add(weight);
+        inSources[w].add(u);
+        inWeights[w].add(weight);
+    }
+
+    // Sorts the edges collected during contraction by their lower-ranked end into the two CSR search graphs.
+    private ContractionHierarchy searchGraphs(RoadGraph graph){
+        int[] upFirst = firstEdges(upSources);
+        int[] downFirst = firstEdges(downSources);
+        int[] upOrder = bySource(upSources, upFirst);
+        int[] downOrder = bySource(downSources, downFirst);
+        return new ContractionHierarchy(nodeCount,
+                DoubleBuffer.wrap(graph.latitudes()), DoubleBuffer.wrap(graph.longitudes()),
+                IntBuffer.wrap(upFirst), IntBuffer.wrap(permute(upTargets, upOrder)), DoubleBuffer.wrap(permute(upWeights, upOrder)),
+                IntBuffer.wrap(downFirst), IntBuffer.wrap(permute(downTargets, downOrder)), DoubleBuffer.wrap(permute(downWeights, downOrder)));
+    }
+
+    private int[] firstEdges(RoadGraph.IntList sources){
+        int[] first = new int[nodeCount + 1];
+        for (int e = 0; e < sources.size(); e++){
+            first[sources.get(e) + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++){
+            first[v + 1] += first[v];
+        }
+        return first;
+    }
+
+    private int[] bySource(RoadGraph.IntList sources, int[] first){
+        int[] next = Arrays.copyOf(first, nodeCount);
+        int[] order = new int[sources.size()];
+        for (int e = 0; e < sources.size(); e++){
+            order[next[sources.get(e)]++] = e;
+        }
+        return order;
+    }
+
+    private static int[] permute(RoadGraph.IntList values, int[] order){
+        int[] permuted = new int[order.length];
+        for (int k = 0; k < order.length; k++){
+            permuted[k] = values.get(order[k]);
+        }
+        return permuted;
+    }
+
+    private static double[] permute(RoadGraph.DoubleList values, int[] order){
+        double[] permuted = new double[order.length];
+        for (int k = 0; k < order.length; k++){
+            permuted[k] = values.get(order[k]);
+        }
+        return permuted;
+    }
+}
@@ -0,0 +1,41 @@
+package com.deliveryoptimizer.routing;
+
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.PersistentDistanceCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/** Chooses the distances the optimizers route on from configuration: the road network when one is set, else the great circle. */
+public class DistanceProviderFactory {
+    private DistanceProviderFactory(){}
+
+    /** {@code hierarchyFile} defaults to the graph file with a {@code .ch} suffix. */
+    public static DistanceProvider create(DistanceCalculator distanceCalculator, String graphFile, String hierarchyFile){
+        boolean hasGraph = graphFile != null && !graphFile.isBlank();
+        boolean hasHierarchy = hierarchyFile != null && !hierarchyFile.isBlank();
+        if(!hasGraph && !hasHierarchy) return distanceCalculator;
+
+        Path graph = hasGraph ? Path.of(graphFile.strip()) : null;
+        Path hierarchy = hasHierarchy ? Path.of(hierarchyFile.strip()) : Path.of(graphFile.strip() + ".ch");
+        try {
+            return RoadDistanceProvider.load(graph, hierarchy, distanceCalculator);
+        } catch (IOException e){
+            throw new UncheckedIOException("Cannot load road graph " + (hasGraph ? graph : hierarchy), e);
+        }
+    }
+
+    /** Keeps the distances of {@code provider} in per-warehouse files under {@code directory}; a blank directory disables it. */
+    public static DistanceProvider cached(DistanceProvider provider, String directory, int maxEntries){
+        if(directory == null || directory.isBlank()) return provider;
+        return new PersistentDistanceCache(provider, Path.of(directory.strip()), source(provider), maxEntries);
+    }
+
+    private static String source(DistanceProvider provider){
+        if(provider instanceof RoadDistanceProvider road) return road.getSource();
+        if(provider instanceof DistanceCalculator calculator) return "great-circle:" + calculator.getMode();
+        return provider.getClass().getName();
+    }
+}
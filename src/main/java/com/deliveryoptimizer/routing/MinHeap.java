@@ -0,0 +1,61 @@
+package com.deliveryoptimizer.routing;
+
+import java.util.Arrays;
+
+/** Binary min-heap of (key, node) pairs in two primitive arrays. Decrease-key is done by pushing again. */
+final class MinHeap {
+    private double[] keys = new double[64];
+    private int[] nodes = new int[64];
+    private int size;
+
+    void push(double key, int node){
+        if(size == keys.length){
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0){
+            int parent = (i - 1) >>> 1;
+            if(keys[parent] <= key) break;
+            keys[i] = keys[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    boolean isEmpty(){
+        return size == 0;
+    }
+
+    double peekKey(){
+        return keys[0];
+    }
+
+    int peekNode(){
+        return nodes[0];
+    }
+
+    /** Removes the minimum; read it with {@link #peekKey} and {@link #peekNode} first. */
+    void pop(){
+        double key = keys[--size];
+        int node = nodes[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half){
+            int child = 2 * i + 1;
+            if(child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if(key <= keys[child]) break;
+            keys[i] = keys[child];
+            nodes[i] = nodes[child];
+            i = child;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    void clear(){
+        size = 0;
+    }
+}
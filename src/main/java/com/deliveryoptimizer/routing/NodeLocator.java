@@ -0,0 +1,111 @@
+package com.deliveryoptimizer.routing;
+
+import java.util.Arrays;
+
+/**
+ * Finds the road node closest to a coordinate with a uniform grid over the nodes' bounding box. Distances
+ * are compared in a local flat projection (longitude scaled by the cosine of the mean latitude), which
+ * ranks nodes within a city the same way as the great circle. Built in linear time when the provider starts.
+ */
+final class NodeLocator {
+    private static final int NODES_PER_CELL = 4;
+
+    private final ContractionHierarchy hierarchy;
+    private final double minLat;
+    private final double minX;
+    private final double lonScale;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+
+    NodeLocator(ContractionHierarchy hierarchy){
+        this.hierarchy = hierarchy;
+        int n = hierarchy.nodeCount();
+        if(n == 0){
+            throw new IllegalArgumentException("Road graph has no nodes");
+        }
+
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int v = 0; v < n; v++){
+            minLat = Math.min(minLat, hierarchy.latitude(v));
+            maxLat = Math.max(maxLat, hierarchy.latitude(v));
+            minLon = Math.min(minLon, hierarchy.longitude(v));
+            maxLon = Math.max(maxLon, hierarchy.longitude(v));
+        }
+        this.lonScale = Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        this.minLat = minLat;
+        this.minX = minLon * lonScale;
+        double width = Math.max((maxLon - minLon) * lonScale, 1e-9);
+        double height = Math.max(maxLat - minLat, 1e-9);
+        int cells = Math.max(1, n / NODES_PER_CELL);
+        this.cellSize = Math.max(Math.sqrt(width * height / cells), Math.max(width, height) / 4096);
+        this.columns = (int) (width / cellSize) + 1;
+        this.rows = (int) (height / cellSize) + 1;
+
+        this.cellStart = new int[columns * rows + 1];
+        int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++){
+            cellOf[v] = cell(column(hierarchy.longitude(v) * lonScale), row(hierarchy.latitude(v)));
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++){
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellNodes = new int[n];
+        int[] next = Arrays.copyOf(cellStart, columns * rows);
+        for (int v = 0; v < n; v++){
+            cellNodes[next[cellOf[v]]++] = v;
+        }
+    }
+
+    /** Closest node to the coordinate; coordinates outside the graph snap to its nearest border node. */
+    int nearest(double lat, double lon){
+        double x = lon * lonScale;
+        int column = column(x);
+        int row = row(lat);
+        int best = -1;
+        double bestSquared = Double.MAX_VALUE;
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++){
+            if(best >= 0){
+                double reach = (ring - 1) * cellSize;
+                if(reach > 0 && reach * reach > bestSquared) break;
+            }
+            for (int r = row - ring; r <= row + ring; r++){
+                if(r < 0 || r >= rows) continue;
+                boolean edge = r == row - ring || r == row + ring;
+                for (int c = column - ring; c <= column + ring; c += edge ? 1 : 2 * ring){
+                    if(c >= 0 && c < columns){
+                        int cell = cell(c, r);
+                        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++){
+                            int v = cellNodes[i];
+                            double dx = hierarchy.longitude(v) * lonScale - x;
+                            double dy = hierarchy.latitude(v) - lat;
+                            double squared = dx * dx + dy * dy;
+                            if(squared < bestSquared){
+                                bestSquared = squared;
+                                best = v;
+                            }
+                        }
+                    }
+                    if(ring == 0) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(double x){
+        return Math.min(columns - 1, Math.max(0, (int) ((x - minX) / cellSize)));
+    }
+
+    private int row(double lat){
+        return Math.min(rows - 1, Math.max(0, (int) ((lat - minLat) / cellSize)));
+    }
+
+    private int cell(int column, int row){
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,145 @@
+package com.deliveryoptimizer.routing;
+
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.PreparedPoint;
+import com.deliveryoptimizer.util.PreparedPoints;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Shortest road distances in kilometres over a {@link ContractionHierarchy}. Each point is snapped to its
+ * closest road node and the straight line to that node is added at both ends.
+ * <p>
+ * One-way streets make road distances asymmetric while every optimizer assumes symmetric costs, so each
+ * pair is answered with the mean of both directions. Pairs without a road path between them, or snapped
+ * to the same node, fall back to the straight-line distance.
+ */
+public class RoadDistanceProvider implements DistanceProvider {
+    private final ContractionHierarchy hierarchy;
+    private final NodeLocator locator;
+    private final DistanceCalculator distanceCalculator;
+    private final String source;
+
+    public RoadDistanceProvider(ContractionHierarchy hierarchy, DistanceCalculator distanceCalculator){
+        this(hierarchy, distanceCalculator, "road");
+    }
+
+    private RoadDistanceProvider(ContractionHierarchy hierarchy, DistanceCalculator distanceCalculator, String source){
+        this.hierarchy = hierarchy;
+        this.locator = new NodeLocator(hierarchy);
+        this.distanceCalculator = distanceCalculator;
+        this.source = source + ":" + distanceCalculator.getMode();
+    }
+
+    /**
+     * Maps {@code hierarchyFile} when it is at least as recent as {@code graphFile}; otherwise preprocesses
+     * the graph, writes the hierarchy file and maps it. Only the first start after a graph change pays for
+     * the preprocessing.
+     */
+    public static RoadDistanceProvider load(Path graphFile, Path hierarchyFile, DistanceCalculator distanceCalculator) throws IOException {
+        boolean upToDate = Files.isRegularFile(hierarchyFile)
+                && (graphFile == null || !Files.exists(graphFile)
+                || Files.getLastModifiedTime(hierarchyFile).compareTo(Files.getLastModifiedTime(graphFile)) >= 0);
+        if(!upToDate){
+            if(graphFile == null){
+                throw new IOException("Road graph file is required to build " + hierarchyFile);
+            }
+            RoadGraph graph = RoadGraph.read(graphFile, distanceCalculator);
+            ContractionHierarchyBuilder.build(graph).write(hierarchyFile);
+        }
+        String source = "road:" + hierarchyFile.toAbsolutePath() + "@" + Files.getLastModifiedTime(hierarchyFile).toMillis();
+        return new RoadDistanceProvider(ContractionHierarchy.map(hierarchyFile), distanceCalculator, source);
+    }
+
+    @Override
+    public double distance(PreparedPoint from, PreparedPoint to){
+        int a = snap(from);
+        int b = snap(to);
+        if(a == b) return distanceCalculator.distance(from, to);
+
+        double[] both = hierarchy.distances(new int[]{a, b}, new int[]{a, b});
+        return combine(from, to, a, b, both[1], both[2]);
+    }
+
+    @Override
+    public void distances(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out){
+        if(start >= end) return;
+        int o = snap(origin);
+        int[] nodes = new int[end - start];
+        for (int i = start; i < end; i++){
+            nodes[i - start] = snap(targets.get(i));
+        }
+
+        double[] outbound = hierarchy.distances(new int[]{o}, nodes);
+        double[] inbound = hierarchy.distances(nodes, new int[]{o});
+        for (int i = start; i < end; i++){
+            PreparedPoint target = targets.get(i);
+            int node = nodes[i - start];
+            out[i] = node == o
+                    ? distanceCalculator.distance(origin, target)
+                    : combine(origin, target, o, node, outbound[i - start], inbound[i - start]);
+        }
+    }
+
+    @Override
+    public boolean prefersMatrix(){
+        return true;
+    }
+
+    // Each row first stores the forward distances to the later points; the later point's own row brings the
+    // way back and replaces them with the combined distance, so nothing but the triangle is allocated.
+    @Override
+    public void matrix(PreparedPoints points, double[][] rows){
+        int size = points.size();
+        PreparedPoint[] prepared = new PreparedPoint[size];
+        int[] nodes = new int[size];
+        for (int i = 0; i < size; i++){
+            prepared[i] = points.get(i);
+            nodes[i] = snap(prepared[i]);
+        }
+
+        hierarchy.distances(nodes, nodes, (j, road) -> {
+            for (int i = 0; i < j; i++){
+                rows[i][j - i - 1] = nodes[i] == nodes[j]
+                        ? distanceCalculator.distance(prepared[i], prepared[j])
+                        : combine(prepared[i], prepared[j], nodes[i], nodes[j], rows[i][j - i - 1], road[i]);
+            }
+            if(j < size - 1) System.arraycopy(road, j + 1, rows[j], 0, size - 1 - j);
+        });
+    }
+
+    /** The calculator the snapping is measured with: a road query per pair is too slow for uncached matrices. */
+    @Override
+    public DistanceProvider geometric(){
+        return distanceCalculator;
+    }
+
+    public ContractionHierarchy getHierarchy(){
+        return hierarchy;
+    }
+
+    /** Identifies the hierarchy file and its version, so distances cached from an older one are not reused. */
+    public String getSource(){
+        return source;
+    }
+
+    private int snap(PreparedPoint point){
+        return locator.nearest(Math.toDegrees(point.latRad()), Math.toDegrees(point.lonRad()));
+    }
+
+    private double combine(PreparedPoint from, PreparedPoint to, int fromNode, int toNode, double forward, double backward){
+        double road;
+        if(Double.isInfinite(forward) && Double.isInfinite(backward)) return distanceCalculator.distance(from, to);
+        else if(Double.isInfinite(forward)) road = backward;
+        else if(Double.isInfinite(backward)) road = forward;
+        else road = (forward + backward) * 0.5;
+        return snapDistance(from, fromNode) + road + snapDistance(to, toNode);
+    }
+
+    private double snapDistance(PreparedPoint point, int node){
+        return distanceCalculator.distance(point, PreparedPoint.of(hierarchy.latitude(node), hierarchy.longitude(node)));
+    }
+}
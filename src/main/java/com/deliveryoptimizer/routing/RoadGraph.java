@@ -0,0 +1,232 @@
+package com.deliveryoptimizer.routing;
+
+import com.deliveryoptimizer.util.DistanceCalculator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A directed road network held in flat arrays: node coordinates and, per node, its outgoing edges as a
+ * slice {@code [firstEdge[v], firstEdge[v + 1])} of the target and length arrays.
+ * <p>
+ * {@link #read} takes a plain text edge list, one record per line, which an OpenStreetMap extract can be
+ * converted to with any OSM toolkit:
+ * <pre>
+ * # comment
+ * v &lt;id&gt; &lt;lat&gt; &lt;lon&gt;
+ * e &lt;from id&gt; &lt;to id&gt; [length km | -] [oneway]
+ * </pre>
+ * Edges are two-way unless marked {@code oneway}; a missing length is the great-circle length.
+ */
+public class RoadGraph {
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] firstEdge;
+    private final int[] edgeTargets;
+    private final double[] edgeLengths;
+
+    private RoadGraph(double[] latitudes, double[] longitudes, int[] firstEdge, int[] edgeTargets, double[] edgeLengths){
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.firstEdge = firstEdge;
+        this.edgeTargets = edgeTargets;
+        this.edgeLengths = edgeLengths;
+    }
+
+    /** Builds a graph from parallel arrays of directed edges between node indexes. */
+    public static RoadGraph of(double[] latitudes, double[] longitudes, int[] from, int[] to, double[] lengths){
+        int nodeCount = latitudes.length;
+        int edgeCount = from.length;
+        int[] firstEdge = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++){
+            if(from[e] < 0 || from[e] >= nodeCount || to[e] < 0 || to[e] >= nodeCount){
+                throw new IllegalArgumentException("Edge " + e + " refers to an unknown node");
+            }
+            if(!(lengths[e] >= 0)){
+                throw new IllegalArgumentException("Edge " + e + " has a negative length");
+            }
+            firstEdge[from[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++){
+            firstEdge[v + 1] += firstEdge[v];
+        }
+
+        int[] next = Arrays.copyOf(firstEdge, nodeCount);
+        int[] edgeTargets = new int[edgeCount];
+        double[] edgeLengths = new double[edgeCount];
+        for (int e = 0; e < edgeCount; e++){
+            int slot = next[from[e]]++;
+            edgeTargets[slot] = to[e];
+            edgeLengths[slot] = lengths[e];
+        }
+        return new RoadGraph(latitudes.clone(), longitudes.clone(), firstEdge, edgeTargets, edgeLengths);
+    }
+
+    public static RoadGraph read(Path file, DistanceCalculator distanceCalculator) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        DoubleList latitudes = new DoubleList();
+        DoubleList longitudes = new DoubleList();
+        IntList from = new IntList();
+        IntList to = new IntList();
+        DoubleList lengths = new DoubleList();
+
+        try (BufferedReader reader = Files.newBufferedReader(file)){
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null){
+                lineNumber++;
+                line = line.strip();
+                if(line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.split("\\s+");
+                try {
+                    switch (fields[0]){
+                        case "v" -> {
+                            if(ids.putIfAbsent(fields[1], ids.size()) != null){
+                                throw new IllegalArgumentException("duplicate node " + fields[1]);
+                            }
+                            latitudes.add(Double.parseDouble(fields[2]));
+                            longitudes.add(Double.parseDouble(fields[3]));
+                        }
+                        case "e" -> {
+                            int a = node(ids, fields[1]);
+                            int b = node(ids, fields[2]);
+                            double length = fields.length > 3 && !fields[3].equals("-") && !fields[3].equals("oneway")
+                                    ? Double.parseDouble(fields[3])
+                                    : distanceCalculator.distance(latitudes.get(a), longitudes.get(a), latitudes.get(b), longitudes.get(b));
+                            boolean oneway = fields[fields.length - 1].equals("oneway");
+                            from.add(a);
+                            to.add(b);
+                            lengths.add(length);
+                            if(!oneway){
+                                from.add(b);
+                                to.add(a);
+                                lengths.add(length);
+                            }
+                        }
+                        default -> throw new IllegalArgumentException("unknown record type " + fields[0]);
+                    }
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e){
+                    throw new IOException("Invalid road graph line " + lineNumber + " of " + file + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return of(latitudes.toArray(), longitudes.toArray(), from.toArray(), to.toArray(), lengths.toArray());
+    }
+
+    private static int node(Map<String, Integer> ids, String id){
+        Integer index = ids.get(id);
+        if(index == null){
+            throw new IllegalArgumentException("edge refers to undeclared node " + id);
+        }
+        return index;
+    }
+
+    public int nodeCount(){
+        return latitudes.length;
+    }
+
+    public int edgeCount(){
+        return edgeTargets.length;
+    }
+
+    public double latitude(int node){
+        return latitudes[node];
+    }
+
+    public double longitude(int node){
+        return longitudes[node];
+    }
+
+    public int firstEdge(int node){
+        return firstEdge[node];
+    }
+
+    public int edgeTarget(int edge){
+        return edgeTargets[edge];
+    }
+
+    public double edgeLength(int edge){
+        return edgeLengths[edge];
+    }
+
+    double[] latitudes(){
+        return latitudes;
+    }
+
+    double[] longitudes(){
+        return longitudes;
+    }
+
+    // Growable primitive lists, so large edge files do not box every value.
+    static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value){
+            if(size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index){
+            return values[index];
+        }
+
+        void set(int index, int value){
+            values[index] = value;
+        }
+
+        boolean contains(int value){
+            for (int i = 0; i < size; i++){
+                if(values[i] == value) return true;
+            }
+            return false;
+        }
+
+        void removeLast(){
+            size--;
+        }
+
+        int size(){
+            return size;
+        }
+
+        int[] toArray(){
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    static final class DoubleList {
+        private double[] values = new double[4];
+        private int size;
+
+        void add(double value){
+            if(size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        double get(int index){
+            return values[index];
+        }
+
+        void set(int index, double value){
+            values[index] = value;
+        }
+
+        void removeLast(){
+            size--;
+        }
+
+        int size(){
+            return size;
+        }
+
+        double[] toArray(){
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -2,70 +2,280 @@ package com.deliveryoptimizer.service.impl;
 
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
-import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.VehicleType;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
 import com.deliveryoptimizer.service.interfaces.TourOptimizer;
-import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+/**
+ * Clarke &amp; Wright savings heuristic. Savings are kept in parallel primitive arrays
+ * (packed i/j pair, sortable long key) and ordered with an LSD radix sort; routes are merged
+ * only at their endpoints and tracked with an int union-find.
+ * <p>
+ * {@link #optimizerTour} merges everything into one route, while {@link #optimizeRoutes} refuses
+ * merges that would exceed a vehicle's weight, volume or delivery count and returns several routes.
+ * A job's progress counts computed savings for the first half and scanned pairs for the second.
+ */
 public class ClarkeWrightOptimizer implements TourOptimizer {
-    private final DistanceCalculator distanceCalculator;
+    private static final int PAIR_BITS = 16;
+    private static final int PAIR_MASK = (1 << PAIR_BITS) - 1;
+    private static final int MAX_DELIVERIES = PAIR_MASK;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PROGRESS_MASK = (1 << 16) - 1;
 
-    public ClarkeWrightOptimizer(DistanceCalculator distanceCalculator){
-        this.distanceCalculator = distanceCalculator;
+    private final DistanceProvider distanceProvider;
+
+    public ClarkeWrightOptimizer(DistanceProvider distanceProvider){
+        this.distanceProvider = distanceProvider;
     }
 
     @Override
     public List<Delivery> optimizerTour(Tour tour){
-        Warehouse warehouse = tour.getWarehouse();
-        List<Delivery> deliveries = new ArrayList<>(tour.getDeliveries());
+        if(tour.getWarehouse() == null || tour.getDeliveries().isEmpty()) return new ArrayList<>(tour.getDeliveries());
+
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        if(distanceMatrix.deliveryCount() == 0) return new ArrayList<>();
+
+        return optimizerTour(tour, distanceMatrix, OptimizationProgress.NONE);
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        if(distanceMatrix.deliveryCount() == 0) return new ArrayList<>();
+
+        return optimizeRoutes(distanceMatrix, Double.MAX_VALUE, Double.MAX_VALUE, Integer.MAX_VALUE, progress).get(0);
+    }
+
+    public List<List<Delivery>> optimizeRoutes(DistanceMatrix distanceMatrix, VehicleType vehicleType){
+        return optimizeRoutes(distanceMatrix, vehicleType.getMaxWeightKg(), vehicleType.getMaxVolumeM3(), vehicleType.getMaxDeliveries());
+    }
+
+    public List<List<Delivery>> optimizeRoutes(DistanceMatrix distanceMatrix, double maxWeight, double maxVolume, int maxDeliveries){
+        return optimizeRoutes(distanceMatrix, maxWeight, maxVolume, maxDeliveries, OptimizationProgress.NONE);
+    }
 
-        if(warehouse == null || deliveries.isEmpty()) return deliveries;
+    private List<List<Delivery>> optimizeRoutes(DistanceMatrix distanceMatrix, double maxWeight, double maxVolume, int maxDeliveries, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        if(n > MAX_DELIVERIES){
+            throw new IllegalArgumentException("Clarke Wright supports at most " + MAX_DELIVERIES + " deliveries");
+        }
+
+        int[] pairs = new int[0];
+        if(n > 1){
+            int pairCount = (int) ((long) n * (n - 1) / 2);
+            pairs = new int[pairCount];
+            long[] keys = new long[pairCount];
+            computeSavings(distanceMatrix, pairs, keys, progress);
+            pairs = sortBySaving(keys, pairs);
+        }
 
-        Map<Delivery, List<Delivery>> tours = new HashMap<>();
+        List<List<Delivery>> routes = new ArrayList<>();
+        for (int[] route : mergeRoutes(distanceMatrix, pairs, maxWeight, maxVolume, maxDeliveries, progress)){
+            routes.add(distanceMatrix.toDeliveries(route));
+        }
+        return routes;
+    }
 
-        for (Delivery d : deliveries){
-            tours.put(d, new ArrayList<>(List.of(d)));
+    private static void computeSavings(DistanceMatrix distanceMatrix, int[] pairs, long[] keys, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        double[] depot = new double[n + 1];
+        for (int i = 1; i <= n; i++){
+            depot[i] = distanceMatrix.distance(DistanceMatrix.WAREHOUSE, i);
         }
 
-        List<Saving> savings = new ArrayList<>();
-        for (int i = 0; i < deliveries.size(); i++){
-            for (int j = i + 1; j < deliveries.size(); j++){
-                Delivery a = deliveries.get(i);
-                Delivery b = deliveries.get(j);
-                double s = distanceCalculator.distance(warehouse, a)
-                        + distanceCalculator.distance(warehouse, b)
-                        - distanceCalculator.distance(a, b);
-                savings.add(new Saving(a, b, s));
+        int k = 0;
+        for (int i = 1; i <= n; i++){
+            progress.throwIfCancelled();
+            progress.report(0.5 * k / pairs.length);
+            for (int j = i + 1; j <= n; j++){
+                double saving = depot[i] + depot[j] - distanceMatrix.distance(i, j);
+                pairs[k] = (i << PAIR_BITS) | j;
+                keys[k] = descendingKey(saving);
+                k++;
             }
         }
+    }
 
-        savings.sort((s1, s2) -> Double.compare(s2.value, s1.value));
+    // Maps a double onto a long whose unsigned ascending order is the double's descending order.
+    private static long descendingKey(double value){
+        long bits = Double.doubleToLongBits(value);
+        return ~(bits ^ ((bits >> 63) | Long.MIN_VALUE));
+    }
 
-        for (Saving s : savings){
-            List<Delivery> tourA = tours.get(s.d1);
-            List<Delivery> tourB = tours.get(s.d2);
+    // Stable LSD radix sort on unsigned keys, permuting pairs alongside. Returns the sorted pairs.
+    private static int[] sortBySaving(long[] keys, int[] pairs){
+        int m = keys.length;
+        int passes = Long.SIZE / RADIX_BITS;
+        int[][] counts = new int[passes][RADIX];
 
-            if(tourB == null || tourA == null || tourA == tourB) continue;
+        for (long key : keys){
+            for (int p = 0; p < passes; p++){
+                counts[p][(int) (key >>> (p * RADIX_BITS)) & (RADIX - 1)]++;
+            }
+        }
+
+        long[] keyBuffer = new long[m];
+        int[] pairBuffer = new int[m];
 
-            tourA.addAll(tourB);
+        for (int p = 0; p < passes; p++){
+            int[] count = counts[p];
+            int shift = p * RADIX_BITS;
+            if(isSingleBucket(count, m)) continue;
+
+            int offset = 0;
+            for (int b = 0; b < RADIX; b++){
+                int c = count[b];
+                count[b] = offset;
+                offset += c;
+            }
 
-            for (Delivery d : tourB){
-                tours.put(d, tourA);
+            for (int i = 0; i < m; i++){
+                int bucket = (int) (keys[i] >>> shift) & (RADIX - 1);
+                int target = count[bucket]++;
+                keyBuffer[target] = keys[i];
+                pairBuffer[target] = pairs[i];
             }
+
+            long[] swapKeys = keys;
+            keys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapPairs = pairs;
+            pairs = pairBuffer;
+            pairBuffer = swapPairs;
         }
-        return new ArrayList<>(new LinkedHashSet<>(tours.values().iterator().next()));
+
+        return pairs;
     }
 
-    private static class Saving{
-        Delivery d1;
-        Delivery d2;
-        double value;
+    private static boolean isSingleBucket(int[] count, int m){
+        for (int c : count){
+            if(c == m) return true;
+            if(c != 0) return false;
+        }
+        return m == 0;
+    }
+
+    private static List<int[]> mergeRoutes(DistanceMatrix distanceMatrix, int[] pairs, double maxWeight, double maxVolume, int maxDeliveries, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        int[] parent = new int[n + 1];
+        int[] rank = new int[n + 1];
+        int[] firstLink = new int[n + 1];
+        int[] secondLink = new int[n + 1];
+        double[] weight = new double[n + 1];
+        double[] volume = new double[n + 1];
+        int[] count = new int[n + 1];
+        for (int i = 1; i <= n; i++){
+            Delivery d = distanceMatrix.delivery(i);
+            parent[i] = i;
+            weight[i] = d.getMaxWeight();
+            volume[i] = d.getMaxVolume();
+            count[i] = 1;
+        }
+
+        int merges = 0;
+        for (int k = 0; k < pairs.length && merges < n - 1; k++){
+            if((k & PROGRESS_MASK) == 0){
+                progress.throwIfCancelled();
+                progress.report(0.5 + 0.5 * k / pairs.length);
+            }
+            int i = pairs[k] >>> PAIR_BITS;
+            int j = pairs[k] & PAIR_MASK;
+
+            if(secondLink[i] != 0 || secondLink[j] != 0) continue;
+
+            int rootI = find(parent, i);
+            int rootJ = find(parent, j);
+            if(rootI == rootJ) continue;
+
+            if(weight[rootI] + weight[rootJ] > maxWeight
+                    || volume[rootI] + volume[rootJ] > maxVolume
+                    || count[rootI] + count[rootJ] > maxDeliveries) continue;
+
+            link(firstLink, secondLink, i, j);
+            link(firstLink, secondLink, j, i);
+            int root = union(parent, rank, rootI, rootJ);
+            int other = root == rootI ? rootJ : rootI;
+            weight[root] += weight[other];
+            volume[root] += volume[other];
+            count[root] += count[other];
+            merges++;
+        }
+
+        return walkRoutes(distanceMatrix, firstLink, secondLink);
+    }
+
+    private static int find(int[] parent, int i){
+        while (parent[i] != i){
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static int union(int[] parent, int[] rank, int a, int b){
+        if(rank[a] < rank[b]){
+            parent[a] = b;
+            return b;
+        }
+        parent[b] = a;
+        if(rank[a] == rank[b]) rank[a]++;
+        return a;
+    }
+
+    private static void link(int[] firstLink, int[] secondLink, int from, int to){
+        if(firstLink[from] == 0){
+            firstLink[from] = to;
+        } else {
+            secondLink[from] = to;
+        }
+    }
+
+    // Walks every path from its lowest-index endpoint, reversed if the other endpoint is closer to the warehouse.
+    private static List<int[]> walkRoutes(DistanceMatrix distanceMatrix, int[] firstLink, int[] secondLink){
+        int n = distanceMatrix.deliveryCount();
+        boolean[] visited = new boolean[n + 1];
+        int[] buffer = new int[n];
+        List<int[]> routes = new ArrayList<>();
+
+        for (int start = 1; start <= n; start++){
+            if(visited[start] || secondLink[start] != 0) continue;
+
+            int length = 0;
+            int previous = 0;
+            int current = start;
+            while (current != 0){
+                visited[current] = true;
+                buffer[length++] = current;
+                int next = firstLink[current] != previous ? firstLink[current] : secondLink[current];
+                previous = current;
+                current = next;
+            }
+
+            int[] route = Arrays.copyOf(buffer, length);
+            int end = route[length - 1];
+            if(length > 1 && distanceMatrix.distance(DistanceMatrix.WAREHOUSE, end) < distanceMatrix.distance(DistanceMatrix.WAREHOUSE, start)){
+                reverse(route);
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
 
-        public Saving(Delivery d1, Delivery d2, double value){
-            this.d1 = d1;
-            this.d2 = d2;
-            this.value = value;
+    private static void reverse(int[] route){
+        for (int i = 0, j = route.length - 1; i < j; i++, j--){
+            int tmp = route[i];
+            route[i] = route[j];
+            route[j] = tmp;
         }
     }
 }
@@ -3,16 +3,27 @@ package com.deliveryoptimizer.service.impl;
 import com.deliveryoptimizer.dto.DeliveryDTO;
 import com.deliveryoptimizer.mapper.DeliveryMapper;
 import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
 import com.deliveryoptimizer.repository.DeliveryRepository;
+import com.deliveryoptimizer.repository.TourRepository;
 import com.deliveryoptimizer.service.interfaces.DeliveryService;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.Pagination;
+import com.deliveryoptimizer.util.TourUtils;
 
 import java.util.List;
 
 public class DeliveryServiceImpl implements DeliveryService {
     private final DeliveryRepository deliveryRepository;
+    private final TourRepository tourRepository;
+    private final OptimizationResultCache resultCache;
+    private final DistanceProvider distanceProvider;
 
-    public DeliveryServiceImpl(DeliveryRepository deliveryRepository){
+    public DeliveryServiceImpl(DeliveryRepository deliveryRepository, TourRepository tourRepository, OptimizationResultCache resultCache, DistanceProvider distanceProvider){
         this.deliveryRepository = deliveryRepository;
+        this.tourRepository = tourRepository;
+        this.resultCache = resultCache;
+        this.distanceProvider = distanceProvider;
     }
 
     @Override
@@ -23,8 +34,8 @@ public class DeliveryServiceImpl implements DeliveryService {
     }
 
     @Override
-    public List<DeliveryDTO> getAllDeliveries(){
-        return deliveryRepository.findAll().stream()
+    public List<DeliveryDTO> getAllDeliveries(Long after, Integer limit, DeliveryStatus status, Long tourId){
+        return deliveryRepository.findPage(Pagination.after(after), status, tourId, Pagination.limit(limit)).stream()
                 .map(DeliveryMapper::toDTO)
                 .toList();
     }
@@ -41,6 +52,7 @@ public class DeliveryServiceImpl implements DeliveryService {
         Delivery delivery = deliveryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Delivery Not Found !"));
 
+        boolean moved = delivery.getAltitude() != dto.getAltitude() || delivery.getLongitude() != dto.getLongitude();
         delivery.setAltitude(dto.getAltitude());
         delivery.setLongitude(dto.getLongitude());
         delivery.setMaxVolume(dto.getMaxVolume());
@@ -49,6 +61,15 @@ public class DeliveryServiceImpl implements DeliveryService {
         delivery.setTimeSlot(dto.getTimeSlot());
 
         Delivery saved = deliveryRepository.save(delivery);
+        resultCache.invalidateDelivery(id);
+
+        // The stored length of the tour this stop belongs to is now stale; the stop order is kept.
+        if(moved && saved.getTour() != null){
+            tourRepository.findWithDeliveriesById(saved.getTour().getId()).ifPresent(tour -> {
+                tour.setTotalDistance(TourUtils.calculateTotalDistance(tour.getWarehouse(), tour.getDeliveries(), distanceProvider));
+                tourRepository.save(tour);
+            });
+        }
 
         return DeliveryMapper.toDTO(saved);
     }
@@ -56,5 +77,6 @@ public class DeliveryServiceImpl implements DeliveryService {
     @Override
     public void deleteDelivery(Long id){
         deliveryRepository.deleteById(id);
+        resultCache.invalidateDelivery(id);
     }
 }
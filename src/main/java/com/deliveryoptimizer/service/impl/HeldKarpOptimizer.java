@@ -0,0 +1,178 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Optimal routes for small tours by Held–Karp dynamic programming, and the {@code fallback} optimizer
+ * for tours above {@code maxDeliveries} stops.
+ * <p>
+ * {@code cost[set * n + j]} is the shortest path from the warehouse through the deliveries of the
+ * bitmask {@code set}, ending at delivery {@code j}. Sets of one size only read sets one smaller, so each
+ * size is a layer computed in parallel on a dedicated {@link ForkJoinPool}. The table takes
+ * {@code 9 * n * 2^n} bytes, so {@code maxDeliveries} is capped at {@link #MAX_SUPPORTED_DELIVERIES}
+ * (about 42 MB); at the BIKE limit of 15 it is under 5 MB and solves in milliseconds.
+ */
+public class HeldKarpOptimizer implements TourOptimizer {
+    public static final int DEFAULT_MAX_DELIVERIES = 15;
+    public static final int MAX_SUPPORTED_DELIVERIES = 18;
+    private static final int PARALLEL_THRESHOLD = 12;
+    private static final int CHUNKS_PER_LAYER = 64;
+
+    private final TourOptimizer fallback;
+    private final DistanceProvider distanceProvider;
+    private final int maxDeliveries;
+    private final ForkJoinPool pool;
+
+    public HeldKarpOptimizer(TourOptimizer fallback, DistanceProvider distanceProvider){
+        this(fallback, distanceProvider, DEFAULT_MAX_DELIVERIES, 0);
+    }
+
+    /** A parallelism of 0 or less uses half of the available processors (at least one). */
+    public HeldKarpOptimizer(TourOptimizer fallback, DistanceProvider distanceProvider, int maxDeliveries, int parallelism){
+        if(maxDeliveries < 0 || maxDeliveries > MAX_SUPPORTED_DELIVERIES){
+            throw new IllegalArgumentException("Exact optimization supports up to " + MAX_SUPPORTED_DELIVERIES + " deliveries");
+        }
+        this.fallback = fallback;
+        this.distanceProvider = distanceProvider;
+        this.maxDeliveries = maxDeliveries;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour){
+        if(tour.getDeliveries().size() > maxDeliveries) return fallback.optimizerTour(tour);
+        if(tour.getWarehouse() == null || tour.getDeliveries().size() < 2) return new ArrayList<>(tour.getDeliveries());
+
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        int n = distanceMatrix.deliveryCount();
+        if(n > maxDeliveries) return fallback.optimizerTour(tour, distanceMatrix);
+
+        return distanceMatrix.toDeliveries(solve(distanceMatrix));
+    }
+
+    // Exact tours are small enough to finish at once; only the fallback runs long enough to poll.
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        if(distanceMatrix.deliveryCount() > maxDeliveries) return fallback.optimizerTour(tour, distanceMatrix, progress);
+
+        return optimizerTour(tour, distanceMatrix);
+    }
+
+    /** Whether tours of this many deliveries are solved exactly rather than handed to the fallback. */
+    public boolean isExact(int deliveryCount){
+        return deliveryCount <= maxDeliveries;
+    }
+
+    public int getParallelism(){
+        return pool.getParallelism();
+    }
+
+    public void shutdown(){
+        pool.shutdown();
+    }
+
+    /** The optimal route as delivery indexes; at most {@link #MAX_SUPPORTED_DELIVERIES} deliveries. */
+    public int[] solve(DistanceMatrix distanceMatrix){
+        int n = distanceMatrix.deliveryCount();
+        if(n > MAX_SUPPORTED_DELIVERIES){
+            throw new IllegalArgumentException("Exact optimization supports up to " + MAX_SUPPORTED_DELIVERIES + " deliveries");
+        }
+        if(n < 3){
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++){
+                order[i] = i + 1;
+            }
+            return order;
+        }
+
+        int size = n + 1;
+        double[] dist = new double[size * size];
+        for (int a = 0; a < size; a++){
+            for (int b = a + 1; b < size; b++){
+                dist[a * size + b] = distanceMatrix.distance(a, b);
+                dist[b * size + a] = dist[a * size + b];
+            }
+        }
+
+        int sets = 1 << n;
+        double[] cost = new double[sets * n];
+        byte[] previous = new byte[sets * n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        for (int j = 0; j < n; j++){
+            cost[(1 << j) * n + j] = dist[j + 1];
+            previous[(1 << j) * n + j] = -1;
+        }
+
+        for (int layer = 2; layer <= n; layer++){
+            int bits = layer;
+            if(n < PARALLEL_THRESHOLD){
+                relaxLayer(cost, previous, dist, n, bits, 0, sets);
+            } else {
+                int chunk = (sets + CHUNKS_PER_LAYER - 1) / CHUNKS_PER_LAYER;
+                pool.submit(() -> IntStream.range(0, CHUNKS_PER_LAYER)
+                        .parallel()
+                        .forEach(c -> relaxLayer(cost, previous, dist, n, bits, c * chunk, Math.min(sets, (c + 1) * chunk)))).join();
+            }
+        }
+
+        int full = sets - 1;
+        int last = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < n; j++){
+            double closed = cost[full * n + j] + dist[(j + 1) * size];
+            if(closed < best){
+                best = closed;
+                last = j;
+            }
+        }
+
+        int[] order = new int[n];
+        int set = full;
+        for (int step = n - 1; step >= 0; step--){
+            order[step] = last + 1;
+            int before = previous[set * n + last];
+            set &= ~(1 << last);
+            last = before;
+        }
+        return order;
+    }
+
+    // Computes every set in [from, to) with the given number of members from the sets one member smaller.
+    private static void relaxLayer(double[] cost, byte[] previous, double[] dist, int n, int bits, int from, int to){
+        int size = n + 1;
+        for (int set = from; set < to; set++){
+            if(Integer.bitCount(set) != bits) continue;
+            for (int members = set; members != 0; members &= members - 1){
+                int j = Integer.numberOfTrailingZeros(members);
+                int rest = set & ~(1 << j);
+                double best = Double.POSITIVE_INFINITY;
+                int bestPrevious = 0;
+                for (int others = rest; others != 0; others &= others - 1){
+                    int i = Integer.numberOfTrailingZeros(others);
+                    double candidate = cost[rest * n + i] + dist[(i + 1) * size + j + 1];
+                    if(candidate < best){
+                        best = candidate;
+                        bestPrevious = i;
+                    }
+                }
+                cost[set * n + j] = best;
+                previous[set * n + j] = (byte) bestPrevious;
+            }
+        }
+    }
+}
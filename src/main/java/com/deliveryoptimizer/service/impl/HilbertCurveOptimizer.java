@@ -0,0 +1,130 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Visits the deliveries in the order a Hilbert curve passes over them. Coordinates are projected onto
+ * a square grid of {@code 2^15} cells a side spanning the tour, each cell gets its position along the
+ * curve with integer bit operations, and positions are sorted as packed {@code long}s, so a route of
+ * tens of thousands of stops takes milliseconds and never looks at a distance.
+ * <p>
+ * The curve keeps neighbouring cells close on the route, which makes it about 25% longer than a good
+ * tour: a baseline for very large runs and a cheap seed for {@link LocalSearchOptimizer}. The route
+ * starts after the warehouse's own position on the curve and wraps around to end just before it.
+ */
+public class HilbertCurveOptimizer implements TourOptimizer {
+    private static final int ORDER = 15;
+    private static final int GRID_MAX = (1 << ORDER) - 1;
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour){
+        List<Delivery> deliveries = tour.getDeliveries();
+        Warehouse warehouse = tour.getWarehouse();
+        int n = deliveries.size();
+        double[] latitudes = new double[n + 1];
+        double[] longitudes = new double[n + 1];
+        if(warehouse != null){
+            latitudes[DistanceMatrix.WAREHOUSE] = warehouse.getAltitude();
+            longitudes[DistanceMatrix.WAREHOUSE] = warehouse.getLongitude();
+        }
+        for (int i = 1; i <= n; i++){
+            latitudes[i] = deliveries.get(i - 1).getAltitude();
+            longitudes[i] = deliveries.get(i - 1).getLongitude();
+        }
+
+        int[] order = route(latitudes, longitudes, warehouse != null);
+        List<Delivery> ordered = new ArrayList<>(n);
+        for (int index : order){
+            ordered.add(deliveries.get(index - 1));
+        }
+        return ordered;
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        int size = distanceMatrix.size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++){
+            latitudes[i] = distanceMatrix.latitude(i);
+            longitudes[i] = distanceMatrix.longitude(i);
+        }
+        return distanceMatrix.toDeliveries(route(latitudes, longitudes, true));
+    }
+
+    /**
+     * Orders the points {@code 1..n} of the arrays, index 0 being the warehouse, and returns them as delivery
+     * indexes. Without a warehouse the route simply follows the curve from its start.
+     */
+    public static int[] route(double[] latitudes, double[] longitudes, boolean hasWarehouse){
+        int n = latitudes.length - 1;
+        if(n <= 0) return new int[0];
+
+        int from = hasWarehouse ? 0 : 1;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = from; i <= n; i++){
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLon = Math.min(minLon, longitudes[i]);
+            maxLon = Math.max(maxLon, longitudes[i]);
+        }
+        // Longitude degrees shrink with latitude; one scale for both axes keeps the grid cells square on the ground.
+        double lonScale = Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        double span = Math.max(maxLat - minLat, (maxLon - minLon) * lonScale);
+        double cellsPerUnit = span > 0 ? GRID_MAX / span : 0;
+
+        long[] keys = new long[n];
+        for (int i = 1; i <= n; i++){
+            keys[i - 1] = (long) curvePosition(latitudes[i], longitudes[i], minLat, minLon, lonScale, cellsPerUnit) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int start = 0;
+        if(hasWarehouse){
+            long warehouseKey = (long) curvePosition(latitudes[0], longitudes[0], minLat, minLon, lonScale, cellsPerUnit) << 32;
+            start = Arrays.binarySearch(keys, warehouseKey);
+            if(start < 0) start = -start - 1;
+        }
+
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++){
+            order[k] = (int) keys[(start + k) % n];
+        }
+        return order;
+    }
+
+    private static int curvePosition(double latitude, double longitude, double minLat, double minLon, double lonScale, double cellsPerUnit){
+        int x = (int) Math.round((longitude - minLon) * lonScale * cellsPerUnit);
+        int y = (int) Math.round((latitude - minLat) * cellsPerUnit);
+        return hilbertIndex(Math.min(x, GRID_MAX), Math.min(y, GRID_MAX));
+    }
+
+    /** Position of cell {@code (x, y)} along the Hilbert curve of order {@link #ORDER}, in {@code [0, 4^ORDER)}. */
+    static int hilbertIndex(int x, int y){
+        int d = 0;
+        for (int s = 1 << (ORDER - 1); s > 0; s >>>= 1){
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            d += s * s * ((3 * rx) ^ ry);
+            if(ry == 0){
+                if(rx == 1){
+                    x = GRID_MAX - x;
+                    y = GRID_MAX - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
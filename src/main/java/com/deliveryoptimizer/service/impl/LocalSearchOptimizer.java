@@ -0,0 +1,293 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.NeighbourLists;
+
+import java.util.List;
+
+/**
+ * Post-optimization stage: takes the route of any {@link TourOptimizer} and improves it with
+ * 2-opt and Or-opt moves. Candidate moves are restricted to each node's k nearest neighbours and
+ * driven by don't-look bits, so a pass only revisits nodes whose surroundings changed. Both moves
+ * rewrite the route in place, touching only the shorter side of the tour.
+ * <p>
+ * The number of improving moves is not known up front, so a job reports the construction as the first
+ * half of its progress and stays there until the search ends; cancellation is still polled while it runs.
+ */
+public class LocalSearchOptimizer implements TourOptimizer {
+    public static final int DEFAULT_NEIGHBOUR_COUNT = 8;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+    private static final int CANCELLATION_MASK = 1023;
+    private static final double EPSILON = 1e-10;
+
+    private final TourOptimizer construction;
+    private final DistanceProvider distanceProvider;
+    private final int neighbourCount;
+
+    public LocalSearchOptimizer(TourOptimizer construction, DistanceProvider distanceProvider){
+        this(construction, distanceProvider, DEFAULT_NEIGHBOUR_COUNT);
+    }
+
+    public LocalSearchOptimizer(TourOptimizer construction, DistanceProvider distanceProvider, int neighbourCount){
+        this.construction = construction;
+        this.distanceProvider = distanceProvider;
+        this.neighbourCount = neighbourCount;
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour){
+        if(tour.getWarehouse() == null || tour.getDeliveries().isEmpty()) return construction.optimizerTour(tour);
+
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        return optimizerTour(tour, distanceMatrix, OptimizationProgress.NONE);
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        List<Delivery> seed = construction.optimizerTour(tour, distanceMatrix, progress.stage(0, 0.5));
+        if(seed.size() < 3) return seed;
+
+        int[] order = new int[seed.size()];
+        for (int i = 0; i < order.length; i++){
+            order[i] = distanceMatrix.indexOf(seed.get(i));
+        }
+
+        return distanceMatrix.toDeliveries(improve(order, distanceMatrix, progress));
+    }
+
+    /** Improves a route given as delivery indexes (warehouse excluded) and returns the new order. */
+    public int[] improve(int[] order, DistanceMatrix distanceMatrix){
+        return improve(order, distanceMatrix, OptimizationProgress.NONE);
+    }
+
+    /** As {@link #improve(int[], DistanceMatrix)}, throwing a {@code CancellationException} once cancelled. */
+    public int[] improve(int[] order, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        if(order.length < 3) return order.clone();
+        return new Search(order, distanceMatrix, neighbourCount).run(progress);
+    }
+
+    private static final class Search {
+        private final DistanceMatrix distanceMatrix;
+        private final int m;
+        private final int k;
+        private final int[] tour;
+        private final int[] pos;
+        private final int[] neighbours;
+        private final int[] segment = new int[MAX_SEGMENT_LENGTH];
+        private final int[] queue;
+        private final boolean[] queued;
+        private int head;
+        private int queueSize;
+
+        Search(int[] order, DistanceMatrix distanceMatrix, int neighbourCount){
+            this.distanceMatrix = distanceMatrix;
+            this.m = order.length + 1;
+            this.k = Math.min(neighbourCount, m - 1);
+            this.tour = new int[m];
+            this.pos = new int[distanceMatrix.size()];
+            this.queue = new int[m];
+            this.queued = new boolean[distanceMatrix.size()];
+
+            tour[0] = DistanceMatrix.WAREHOUSE;
+            System.arraycopy(order, 0, tour, 1, order.length);
+            for (int i = 0; i < m; i++){
+                pos[tour[i]] = i;
+                push(tour[i]);
+            }
+            this.neighbours = NeighbourLists.build(distanceMatrix, tour, k);
+        }
+
+        int[] run(OptimizationProgress progress){
+            for (long polled = 0; queueSize > 0; polled++){
+                if((polled & CANCELLATION_MASK) == 0) progress.throwIfCancelled();
+                int a = poll();
+                if(twoOpt(a) || orOpt(a)){
+                    push(a);
+                }
+            }
+
+            int[] order = new int[m - 1];
+            int start = pos[DistanceMatrix.WAREHOUSE];
+            for (int i = 1; i < m; i++){
+                order[i - 1] = tour[(start + i) % m];
+            }
+            return order;
+        }
+
+        private boolean twoOpt(int a){
+            int succA = next(a);
+            int predA = prev(a);
+            double dSucc = dist(a, succA);
+            double dPred = dist(predA, a);
+
+            for (int n = 0; n < k; n++){
+                int c = neighbours[a * k + n];
+                double dAC = dist(a, c);
+                if(dAC >= dSucc && dAC >= dPred) break;
+
+                if(dAC < dSucc){
+                    int succC = next(c);
+                    if(c != succA && succC != a){
+                        double delta = dAC + dist(succA, succC) - dSucc - dist(c, succC);
+                        if(delta < -EPSILON){
+                            reverse(pos[succA], pos[c]);
+                            push(succA); push(c); push(succC);
+                            return true;
+                        }
+                    }
+                }
+                if(dAC < dPred){
+                    int predC = prev(c);
+                    if(c != predA && predC != a){
+                        double delta = dAC + dist(predA, predC) - dPred - dist(predC, c);
+                        if(delta < -EPSILON){
+                            reverse(pos[a], pos[predC]);
+                            push(predA); push(c); push(predC);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean orOpt(int a){
+            for (int length = 1; length <= MAX_SEGMENT_LENGTH && length + 2 < m; length++){
+                int first = a;
+                int last = tour[(pos[a] + length - 1) % m];
+                int before = prev(first);
+                int after = next(last);
+                double removeGain = dist(before, first) + dist(last, after) - dist(before, after);
+                if(removeGain <= EPSILON) continue;
+
+                for (int end = 0; end < 2; end++){
+                    int anchor = end == 0 ? first : last;
+                    int other = end == 0 ? last : first;
+                    for (int n = 0; n < k; n++){
+                        int c = neighbours[anchor * k + n];
+                        double dAnchor = dist(anchor, c);
+                        if(dAnchor >= removeGain) break;
+                        if(inSegment(c, first, length)) continue;
+
+                        // c placed before the segment: c - anchor ... other - next(c)
+                        int succC = next(c);
+                        if(c != before && !inSegment(succC, first, length)){
+                            double delta = dAnchor + dist(other, succC) - dist(c, succC) - removeGain;
+                            if(delta < -EPSILON){
+                                moveSegment(first, length, c, anchor == last);
+                                push(before); push(after); push(c); push(succC); push(first); push(last);
+                                return true;
+                            }
+                        }
+                        // c placed after the segment: prev(c) - other ... anchor - c
+                        int predC = prev(c);
+                        if(c != after && !inSegment(predC, first, length)){
+                            double delta = dAnchor + dist(predC, other) - dist(predC, c) - removeGain;
+                            if(delta < -EPSILON){
+                                moveSegment(first, length, predC, anchor == first);
+                                push(before); push(after); push(c); push(predC); push(first); push(last);
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Removes the segment starting at first and re-inserts it right after node target, optionally reversed.
+        // Like reverse, works in place on the shorter side: the nodes between the segment and target shift by
+        // the segment's length, the rest of the tour stays put.
+        private void moveSegment(int first, int length, int target, boolean reversed){
+            int start = pos[first];
+            for (int i = 0; i < length; i++){
+                segment[i] = tour[(start + i) % m];
+            }
+
+            int forward = Math.floorMod(pos[target] - start - length, m) + 1;
+            int to;
+            if(forward <= m - length - forward){
+                // ... first..last, after..target, ...  becomes  ..., after..target, segment, ...
+                for (int i = 0; i < forward; i++){
+                    place(tour[(start + length + i) % m], (start + i) % m);
+                }
+                to = (start + forward) % m;
+            } else {
+                // ..., target, next..before, first..last, ...  becomes  ..., target, segment, next..before, ...
+                int from = (pos[target] + 1) % m;
+                for (int i = m - length - forward - 1; i >= 0; i--){
+                    place(tour[(from + i) % m], (from + i + length) % m);
+                }
+                to = from;
+            }
+            for (int i = 0; i < length; i++){
+                place(segment[reversed ? length - 1 - i : i], (to + i) % m);
+            }
+        }
+
+        private void place(int node, int position){
+            tour[position] = node;
+            pos[node] = position;
+        }
+
+        // Reverses the cyclic path tour[from..to]; flips the complement instead when that is shorter.
+        private void reverse(int from, int to){
+            int length = Math.floorMod(to - from, m) + 1;
+            if(length * 2 > m){
+                int newFrom = (to + 1) % m;
+                to = Math.floorMod(from - 1, m);
+                from = newFrom;
+                length = m - length;
+            }
+            for (int s = 0; s < length / 2; s++){
+                int i = (from + s) % m;
+                int j = Math.floorMod(to - s, m);
+                int tmp = tour[i];
+                tour[i] = tour[j];
+                tour[j] = tmp;
+                pos[tour[i]] = i;
+                pos[tour[j]] = j;
+            }
+        }
+
+        private boolean inSegment(int node, int first, int length){
+            return Math.floorMod(pos[node] - pos[first], m) < length;
+        }
+
+        private int next(int node){
+            return tour[(pos[node] + 1) % m];
+        }
+
+        private int prev(int node){
+            return tour[(pos[node] + m - 1) % m];
+        }
+
+        private double dist(int a, int b){
+            return distanceMatrix.distance(a, b);
+        }
+
+        private void push(int node){
+            if(queued[node]) return;
+            queued[node] = true;
+            queue[(head + queueSize) % m] = node;
+            queueSize++;
+        }
+
+        private int poll(){
+            int node = queue[head];
+            head = (head + 1) % m;
+            queueSize--;
+            queued[node] = false;
+            return node;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.TourUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Runs {@link NearestNeighborOptimizer} from several forced first stops and keeps the shortest
+ * closed tour. The plain warehouse start is always one of the candidates, so the result is never
+ * longer than single-start NN. Starts run on a dedicated {@link ForkJoinPool} whose parallelism is
+ * fixed at construction, keeping the work off the common pool and away from request threads.
+ */
+public class MultiStartNearestNeighborOptimizer implements TourOptimizer {
+    public static final int DEFAULT_MAX_STARTS = 64;
+
+    private final NearestNeighborOptimizer nearestNeighborOptimizer;
+    private final DistanceProvider distanceProvider;
+    private final int maxStarts;
+    private final ForkJoinPool pool;
+
+    public MultiStartNearestNeighborOptimizer(NearestNeighborOptimizer nearestNeighborOptimizer, DistanceProvider distanceProvider){
+        this(nearestNeighborOptimizer, distanceProvider, 0, DEFAULT_MAX_STARTS);
+    }
+
+    /** A parallelism of 0 or less uses half of the available processors (at least one). */
+    public MultiStartNearestNeighborOptimizer(NearestNeighborOptimizer nearestNeighborOptimizer, DistanceProvider distanceProvider, int parallelism, int maxStarts){
+        if(maxStarts < 1){
+            throw new IllegalArgumentException("Multi-start NN needs at least one start");
+        }
+        this.nearestNeighborOptimizer = nearestNeighborOptimizer;
+        this.distanceProvider = distanceProvider;
+        this.maxStarts = maxStarts;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour){
+        if(tour.getWarehouse() == null || tour.getDeliveries().isEmpty()) return new ArrayList<>(tour.getDeliveries());
+
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        return optimizerTour(tour, distanceMatrix, OptimizationProgress.NONE);
+    }
+
+    /** Reports the share of finished starts; every start polls for cancellation as it goes. */
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        if(n < 3) return nearestNeighborOptimizer.optimizerTour(tour, distanceMatrix);
+
+        // Workers share the matrix, which is only safe to read concurrently once filled.
+        distanceMatrix.fill();
+        int[] starts = startIndexes(n);
+        AtomicInteger finished = new AtomicInteger();
+
+        Candidate best = pool.submit(() -> IntStream.range(0, starts.length)
+                .parallel()
+                .mapToObj(rank -> {
+                    Candidate candidate = run(distanceMatrix, starts[rank], rank, progress);
+                    progress.report((double) finished.incrementAndGet() / starts.length);
+                    return candidate;
+                })
+                .reduce(MultiStartNearestNeighborOptimizer::shorter)
+                .orElseThrow()).join();
+
+        return distanceMatrix.toDeliveries(best.order());
+    }
+
+    public int getParallelism(){
+        return pool.getParallelism();
+    }
+
+    public void shutdown(){
+        pool.shutdown();
+    }
+
+    // The warehouse start first, then up to maxStarts - 1 deliveries spread evenly over the index range.
+    private int[] startIndexes(int n){
+        int count = Math.min(n, maxStarts - 1);
+        int[] starts = new int[count + 1];
+        starts[0] = DistanceMatrix.WAREHOUSE;
+        for (int i = 0; i < count; i++){
+            starts[i + 1] = 1 + (int) ((long) i * n / count);
+        }
+        return starts;
+    }
+
+    // Workers report together, so each start only polls for cancellation.
+    private Candidate run(DistanceMatrix distanceMatrix, int first, int rank, OptimizationProgress progress){
+        int[] order = nearestNeighborOptimizer.route(distanceMatrix, first, cancellationOnly(progress));
+        return new Candidate(order, TourUtils.calculateTotalDistance(order, distanceMatrix), rank);
+    }
+
+    private static OptimizationProgress cancellationOnly(OptimizationProgress progress){
+        return new OptimizationProgress() {
+            @Override
+            public boolean isCancelled(){
+                return progress.isCancelled();
+            }
+
+            @Override
+            public void report(double fraction){
+            }
+        };
+    }
+
+    // Shorter tour wins; equal lengths fall back to the start rank so the result does not depend on scheduling.
+    private static Candidate shorter(Candidate a, Candidate b){
+        if(a.distance() != b.distance()) return a.distance() < b.distance() ? a : b;
+        return a.rank() <= b.rank() ? a : b;
+    }
+
+    private record Candidate(int[] order, double distance, int rank) {}
+}
@@ -2,47 +2,122 @@ package com.deliveryoptimizer.service.impl;
 
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
 import com.deliveryoptimizer.service.interfaces.TourOptimizer;
 import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.PersistentDistanceCache;
+import com.deliveryoptimizer.util.SpatialGridIndex;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class NearestNeighborOptimizer implements TourOptimizer {
-    private final DistanceCalculator distanceCalculator;
+    public static final int DEFAULT_SPATIAL_INDEX_THRESHOLD = 512;
+    private static final int PROGRESS_MASK = 1023;
 
-    public NearestNeighborOptimizer(DistanceCalculator distanceCalculator){
-        this.distanceCalculator = distanceCalculator;
+    private final DistanceProvider distanceProvider;
+    private final int spatialIndexThreshold;
+
+    public NearestNeighborOptimizer(DistanceProvider distanceProvider){
+        this(distanceProvider, DEFAULT_SPATIAL_INDEX_THRESHOLD);
+    }
+
+    public NearestNeighborOptimizer(DistanceProvider distanceProvider, int spatialIndexThreshold){
+        this.distanceProvider = distanceProvider;
+        this.spatialIndexThreshold = spatialIndexThreshold;
     }
 
     @Override
     public List<Delivery> optimizerTour(Tour tour){
-        List<Delivery> remaining = new ArrayList<>(tour.getDeliveries());
-        List<Delivery> ordered = new ArrayList<>();
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        return distanceMatrix.toDeliveries(route(distanceMatrix, DistanceMatrix.WAREHOUSE));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        return distanceMatrix.toDeliveries(route(distanceMatrix, DistanceMatrix.WAREHOUSE, progress));
+    }
+
+    /**
+     * Builds a nearest-neighbour route as delivery indexes. With {@code first} set to a delivery index
+     * the route is forced to visit it first; with {@link DistanceMatrix#WAREHOUSE} it starts from the stop
+     * closest to the warehouse. The spatial index answers with straight-line distances, so it is only
+     * used when the matrix holds them.
+     */
+    public int[] route(DistanceMatrix distanceMatrix, int first){
+        return route(distanceMatrix, first, OptimizationProgress.NONE);
+    }
+
+    /** As {@link #route(DistanceMatrix, int)}, reporting the share of stops placed and polling for cancellation. */
+    public int[] route(DistanceMatrix distanceMatrix, int first, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        if(n > spatialIndexThreshold && PersistentDistanceCache.uncached(distanceMatrix.getProvider()) instanceof DistanceCalculator calculator){
+            return routeWithSpatialIndex(distanceMatrix, first, calculator, progress);
+        }
 
-        double currentLat = tour.getWarehouse().getAltitude();
-        double currentLon = tour.getWarehouse().getLongitude();
+        boolean[] visited = new boolean[n + 1];
+        int[] order = new int[n];
+        int step = 0;
 
-        while (!remaining.isEmpty()){
-            Delivery nearest = null;
+        int current = DistanceMatrix.WAREHOUSE;
+        if(first != DistanceMatrix.WAREHOUSE){
+            visited[first] = true;
+            order[step++] = first;
+            current = first;
+        }
+
+        for (; step < n; step++){
+            // Each step scans every stop, so polling once per step is already cheap.
+            progress.throwIfCancelled();
+            progress.report((double) step / n);
+            int nearest = -1;
             double minDistance = Double.MAX_VALUE;
 
-            for(Delivery d : remaining){
-                double dist = distanceCalculator.distance(currentLat, currentLon, d.getAltitude(), d.getLongitude());
+            for (int candidate = 1; candidate <= n; candidate++){
+                if(visited[candidate]) continue;
+                double dist = distanceMatrix.distance(current, candidate);
                 if(dist < minDistance){
                     minDistance = dist;
-                    nearest = d;
+                    nearest = candidate;
                 }
             }
 
-            if(nearest == null) break;
+            if(nearest < 0) break;
 
-            ordered.add(nearest);
-            remaining.remove(nearest);
-            currentLat = nearest.getAltitude();
-            currentLon = nearest.getLongitude();
+            visited[nearest] = true;
+            order[step] = nearest;
+            current = nearest;
+        }
+        return order;
+    }
+
+    private int[] routeWithSpatialIndex(DistanceMatrix distanceMatrix, int first, DistanceCalculator calculator, OptimizationProgress progress){
+        SpatialGridIndex index = new SpatialGridIndex(distanceMatrix, calculator);
+        int[] order = new int[index.size()];
+        int step = 0;
 
+        int current = DistanceMatrix.WAREHOUSE;
+        if(first != DistanceMatrix.WAREHOUSE){
+            index.remove(first);
+            order[step++] = first;
+            current = first;
+        }
+
+        while (index.size() > 0){
+            if((step & PROGRESS_MASK) == 0){
+                progress.throwIfCancelled();
+                progress.report((double) step / order.length);
+            }
+            int nearest = index.nearest(distanceMatrix.latitude(current), distanceMatrix.longitude(current));
+            index.remove(nearest);
+            order[step++] = nearest;
+            current = nearest;
         }
-        return ordered;
+        return order;
     }
 }
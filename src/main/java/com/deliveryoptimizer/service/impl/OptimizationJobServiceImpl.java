@@ -0,0 +1,187 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.dto.OptimizationJobDTO;
+import com.deliveryoptimizer.model.enums.JobStatus;
+import com.deliveryoptimizer.service.interfaces.OptimizationJobService;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tour optimizations off the request threads. Jobs go through a fixed-size pool with a bounded
+ * queue; a full queue rejects the submission instead of piling up work. Job state lives in memory only,
+ * and finished jobs are dropped once they are older than the retention period.
+ * <p>
+ * Submissions are validated up front, so a bad method, tour or time budget is rejected instead of
+ * becoming a failed job. Cancellation is cooperative: a queued job is removed from the queue, a running
+ * one is flagged and stops at the next check of its optimizer's loops, without saving anything.
+ */
+public class OptimizationJobServiceImpl implements OptimizationJobService {
+    private final TourService tourService;
+    private final OptimizerRegistry optimizerRegistry;
+    private final SimulatedAnnealingOptimizer simulatedAnnealingOptimizer;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public OptimizationJobServiceImpl(TourService tourService, OptimizerRegistry optimizerRegistry, SimulatedAnnealingOptimizer simulatedAnnealingOptimizer,
+                                      int threads, int queueCapacity, long retentionMinutes){
+        this.tourService = tourService;
+        this.optimizerRegistry = optimizerRegistry;
+        this.simulatedAnnealingOptimizer = simulatedAnnealingOptimizer;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "optimizer-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public OptimizationJobDTO submit(Long tourId, String method, Long budgetMs){
+        String name = optimizerRegistry.resolve(method);
+        if(budgetMs != null) simulatedAnnealingOptimizer.checkBudget(budgetMs);
+        tourService.getTourById(tourId);
+        evictExpired();
+
+        Job job = new Job(UUID.randomUUID().toString(), tourId, name, budgetMs);
+        // The task exists before the job is visible, so a cancel always finds a future to cancel.
+        FutureTask<Void> task = new FutureTask<>(() -> run(job), null);
+        job.future = task;
+        jobs.put(job.id, job);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e){
+            jobs.remove(job.id);
+            throw new RuntimeException("Optimization queue is full, try again later");
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public OptimizationJobDTO getJob(Long tourId, String jobId){
+        return findJob(tourId, jobId).toDTO();
+    }
+
+    @Override
+    public OptimizationJobDTO cancel(Long tourId, String jobId){
+        Job job = findJob(tourId, jobId);
+        job.cancelled = true;
+        synchronized (job){
+            if(job.status == JobStatus.QUEUED){
+                job.future.cancel(false);
+                executor.purge();
+                job.finish(JobStatus.CANCELLED);
+            }
+        }
+        return job.toDTO();
+    }
+
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+
+    private void run(Job job){
+        synchronized (job){
+            if(job.status != JobStatus.QUEUED) return;
+            job.status = JobStatus.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+
+        try {
+            List<Long> result = tourService.optimizeTour(job.tourId, job.method, job.budgetMs, job);
+            job.result = result;
+            job.progress = 1;
+            job.finish(JobStatus.COMPLETED);
+        } catch (CancellationException e){
+            job.finish(JobStatus.CANCELLED);
+        } catch (RuntimeException e){
+            job.error = e.getMessage();
+            job.finish(JobStatus.FAILED);
+        }
+    }
+
+    private Job findJob(Long tourId, String jobId){
+        Job job = jobs.get(jobId);
+        if(job == null || !job.tourId.equals(tourId)){
+            throw new RuntimeException("Optimization Job Not Found!");
+        }
+        return job;
+    }
+
+    private void evictExpired(){
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class Job implements OptimizationProgress {
+        private final String id;
+        private final Long tourId;
+        private final String method;
+        private final Long budgetMs;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile boolean cancelled;
+        private volatile double progress;
+        private volatile List<Long> result;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Future<?> future;
+
+        Job(String id, Long tourId, String method, Long budgetMs){
+            this.id = id;
+            this.tourId = tourId;
+            this.method = method;
+            this.budgetMs = budgetMs;
+        }
+
+        @Override
+        public boolean isCancelled(){
+            return cancelled;
+        }
+
+        @Override
+        public void report(double fraction){
+            progress = Math.max(0, Math.min(1, fraction));
+        }
+
+        synchronized void finish(JobStatus finalStatus){
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        OptimizationJobDTO toDTO(){
+            return OptimizationJobDTO.builder()
+                    .jobId(id)
+                    .tourId(tourId)
+                    .method(method)
+                    .budgetMs(budgetMs)
+                    .status(status)
+                    .progress(progress)
+                    .result(result)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
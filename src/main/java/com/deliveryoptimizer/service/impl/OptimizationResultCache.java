@@ -0,0 +1,194 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.dto.OptimizationCacheStatsDTO;
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process cache of optimizer results. Entries are keyed by a fingerprint of everything a route
+ * depends on — warehouse coordinates and opening hours, the deliveries sorted by id with their
+ * coordinates and time slots, and the method — so a changed tour simply misses. Hours and slots only
+ * shape time-window routes, but keying every method on them keeps the cache free of method knowledge. Entries expire after a fixed time to live, the least
+ * recently used one is evicted when the cache is full, and services drop entries explicitly when a
+ * tour or delivery is modified.
+ * <p>
+ * The lower bound of a tour is kept next to its routes, under the {@link #LOWER_BOUND} method and an
+ * empty order, so it expires and is dropped with them.
+ */
+public class OptimizationResultCache {
+    public static final String LOWER_BOUND = "lower-bound";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Key, CachedRoute> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OptimizationResultCache(int maxEntries, long ttlSeconds){
+        this(maxEntries, ttlSeconds, System::nanoTime);
+    }
+
+    public OptimizationResultCache(int maxEntries, long ttlSeconds, LongSupplier clock){
+        if(maxEntries < 1 || ttlSeconds < 1){
+            throw new IllegalArgumentException("Cache size and time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedRoute> eldest){
+                if(size() <= OptimizationResultCache.this.maxEntries) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /** Returns the fingerprint of a tour for a method, or null when the tour cannot be cached (unsaved deliveries, no warehouse). */
+    public static Key fingerprint(Tour tour, String method){
+        Warehouse warehouse = tour.getWarehouse();
+        if(warehouse == null) return null;
+
+        Delivery[] sorted = tour.getDeliveries().toArray(new Delivery[0]);
+        for (Delivery d : sorted){
+            if(d.getId() == null) return null;
+        }
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.getId(), b.getId()));
+
+        long[] ids = new long[sorted.length];
+        double[] coordinates = new double[sorted.length * 2 + 2];
+        Object[] schedule = new Object[sorted.length + 2];
+        coordinates[0] = warehouse.getAltitude();
+        coordinates[1] = warehouse.getLongitude();
+        schedule[0] = warehouse.getOpenTime();
+        schedule[1] = warehouse.getCloseTime();
+        for (int i = 0; i < sorted.length; i++){
+            ids[i] = sorted[i].getId();
+            coordinates[2 * i + 2] = sorted[i].getAltitude();
+            coordinates[2 * i + 3] = sorted[i].getLongitude();
+            schedule[i + 2] = sorted[i].getTimeSlot();
+        }
+        return new Key(method, ids, coordinates, schedule);
+    }
+
+    public synchronized CachedRoute get(Key key){
+        if(key == null){
+            misses.incrementAndGet();
+            return null;
+        }
+
+        CachedRoute route = entries.get(key);
+        if(route != null && clock.getAsLong() - route.createdAt() >= ttlNanos){
+            entries.remove(key);
+            evictions.incrementAndGet();
+            route = null;
+        }
+        (route == null ? misses : hits).incrementAndGet();
+        return route;
+    }
+
+    /** Stores a result (unless the key is null) and returns it. */
+    public synchronized CachedRoute put(Key key, Long tourId, List<Long> order, double distance){
+        CachedRoute route = new CachedRoute(tourId, List.copyOf(order), distance, clock.getAsLong());
+        if(key != null){
+            entries.put(key, route);
+        }
+        return route;
+    }
+
+    public synchronized void invalidateTour(Long tourId){
+        entries.values().removeIf(route -> route.tourId() != null && route.tourId().equals(tourId));
+    }
+
+    public synchronized void invalidateDelivery(Long deliveryId){
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()){
+            if(Arrays.binarySearch(keys.next().deliveryIds, deliveryId) >= 0) keys.remove();
+        }
+    }
+
+    public synchronized void clear(){
+        entries.clear();
+    }
+
+    public synchronized OptimizationCacheStatsDTO stats(){
+        return OptimizationCacheStatsDTO.builder()
+                .hits(hits.get())
+                .misses(misses.get())
+                .evictions(evictions.get())
+                .size(entries.size())
+                .maxEntries(maxEntries)
+                .ttlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos))
+                .build();
+    }
+
+    public record CachedRoute(Long tourId, List<Long> order, double distance, long createdAt) {}
+
+    public static final class Key {
+        private final String method;
+        private final long[] deliveryIds;
+        private final double[] coordinates;
+        // Warehouse opening and closing time, then the time slot of each delivery.
+        private final Object[] schedule;
+        private final int hash;
+
+        private Key(String method, long[] deliveryIds, double[] coordinates, Object[] schedule){
+            this.method = method;
+            this.deliveryIds = deliveryIds;
+            this.coordinates = coordinates;
+            this.schedule = schedule;
+            this.hash = 31 * (31 * (31 * method.hashCode() + Arrays.hashCode(deliveryIds)) + Arrays.hashCode(coordinates))
+                    + Arrays.hashCode(schedule);
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this == o) return true;
+            if(!(o instanceof Key other)) return false;
+            return hash == other.hash
+                    && method.equals(other.method)
+                    && Arrays.equals(deliveryIds, other.deliveryIds)
+                    && Arrays.equals(coordinates, other.coordinates)
+                    && Arrays.equals(schedule, other.schedule);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        /** A 64-bit hash of the key, saved with a tour's route to tell later whether the route still matches the tour. */
+        public long digest(){
+            long h = mix(0, method.hashCode());
+            for (long id : deliveryIds){
+                h = mix(h, id);
+            }
+            for (double coordinate : coordinates){
+                h = mix(h, Double.doubleToLongBits(coordinate));
+            }
+            for (Object time : schedule){
+                h = mix(h, Objects.hashCode(time));
+            }
+            return h;
+        }
+
+        private static long mix(long h, long value){
+            h = (h ^ value) * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+    }
+}
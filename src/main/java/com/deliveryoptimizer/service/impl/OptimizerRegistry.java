@@ -0,0 +1,73 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link TourOptimizer} beans the API can run, keyed by method name in registration order, with an
+ * optional display label each. Names are matched case-insensitively and {@code _} is accepted for
+ * {@code -}, so {@code nn-2opt} and {@code NN_2OPT} are the same method. Adding an algorithm is a bean
+ * and a map entry in {@code applicationContext.xml}.
+ * <p>
+ * Also owns the bounded pool that runs optimizations side by side: every registered optimizer on one
+ * tour for comparisons, or one optimizer on many tours for batches.
+ */
+public class OptimizerRegistry {
+    private final Map<String, TourOptimizer> optimizers = new LinkedHashMap<>();
+    private final Map<String, String> labels = new LinkedHashMap<>();
+    private final ExecutorService executor;
+
+    public OptimizerRegistry(Map<String, TourOptimizer> optimizers, Map<String, String> labels, int parallelism){
+        optimizers.forEach((name, optimizer) -> this.optimizers.put(canonicalName(name), optimizer));
+        labels.forEach((name, label) -> this.labels.put(canonicalName(name), label));
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "optimizer-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static String canonicalName(String method){
+        return method.trim().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /** Returns the canonical name of a registered method, or throws when nothing is registered under it. */
+    public String resolve(String method){
+        String name = method == null ? "" : canonicalName(method);
+        if(!optimizers.containsKey(name)){
+            throw new RuntimeException("Optimization Method Not Found!");
+        }
+        return name;
+    }
+
+    public TourOptimizer get(String method){
+        return optimizers.get(resolve(method));
+    }
+
+    public String label(String method){
+        String name = resolve(method);
+        return labels.getOrDefault(name, name);
+    }
+
+    public Set<String> names(){
+        return Collections.unmodifiableSet(optimizers.keySet());
+    }
+
+    public ExecutorService executor(){
+        return executor;
+    }
+
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,229 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.NeighbourLists;
+import com.deliveryoptimizer.util.TourUtils;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Anytime improvement stage: simulated annealing over 2-opt and single-stop relocation moves,
+ * run until a wall-clock budget is spent. Moves pair a random stop with one of its nearest
+ * neighbours and are scored from the four to six edges they touch; the best tour seen is returned,
+ * so the result is never longer than the start route.
+ * <p>
+ * The temperature decays geometrically with the fraction of the budget already used, from
+ * {@link #INITIAL_TEMPERATURE_FACTOR} times the mean edge length down to a thousandth of that.
+ */
+public class SimulatedAnnealingOptimizer {
+    public static final long DEFAULT_MAX_BUDGET_MS = 10_000;
+    private static final int NEIGHBOUR_COUNT = 10;
+    private static final double INITIAL_TEMPERATURE_FACTOR = 0.1;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-3;
+    private static final int CLOCK_CHECK_MASK = 255;
+    private static final int PROGRESS_REPORT_MASK = (1 << 16) - 1;
+    private static final double EPSILON = 1e-10;
+
+    private final long maxBudgetMs;
+    private final long randomSeed;
+
+    public SimulatedAnnealingOptimizer(){
+        this(DEFAULT_MAX_BUDGET_MS, 42L);
+    }
+
+    public SimulatedAnnealingOptimizer(long maxBudgetMs, long randomSeed){
+        this.maxBudgetMs = maxBudgetMs;
+        this.randomSeed = randomSeed;
+    }
+
+    public long getMaxBudgetMs(){
+        return maxBudgetMs;
+    }
+
+    public void checkBudget(long budgetMs){
+        if(budgetMs < 1 || budgetMs > maxBudgetMs){
+            throw new IllegalArgumentException("Time budget must be between 1 and " + maxBudgetMs + " ms");
+        }
+    }
+
+    public List<Delivery> improve(List<Delivery> start, DistanceMatrix distanceMatrix, long budgetMs){
+        return improve(start, distanceMatrix, budgetMs, OptimizationProgress.NONE);
+    }
+
+    public List<Delivery> improve(List<Delivery> start, DistanceMatrix distanceMatrix, long budgetMs, OptimizationProgress progress){
+        int[] order = new int[start.size()];
+        for (int i = 0; i < order.length; i++){
+            order[i] = distanceMatrix.indexOf(start.get(i));
+        }
+        return distanceMatrix.toDeliveries(improve(order, distanceMatrix, budgetMs, progress));
+    }
+
+    public int[] improve(int[] order, DistanceMatrix distanceMatrix, long budgetMs){
+        return improve(order, distanceMatrix, budgetMs, OptimizationProgress.NONE);
+    }
+
+    /**
+     * Improves a route given as delivery indexes (warehouse excluded) for at most {@code budgetMs},
+     * reporting the fraction of the budget used. Stops early, keeping the best tour so far, once cancelled.
+     */
+    public int[] improve(int[] order, DistanceMatrix distanceMatrix, long budgetMs, OptimizationProgress progress){
+        checkBudget(budgetMs);
+        if(order.length < 3) return order.clone();
+
+        return new Annealing(order, distanceMatrix, new SplittableRandom(randomSeed)).run(budgetMs * 1_000_000L, progress);
+    }
+
+    private static final class Annealing {
+        private final DistanceMatrix distanceMatrix;
+        private final SplittableRandom random;
+        private final int m;
+        private final int k;
+        private final int[] tour;
+        private final int[] pos;
+        private final int[] neighbours;
+        private final double initialLength;
+
+        Annealing(int[] order, DistanceMatrix distanceMatrix, SplittableRandom random){
+            this.distanceMatrix = distanceMatrix;
+            this.random = random;
+            this.m = order.length + 1;
+            this.k = Math.min(NEIGHBOUR_COUNT, m - 1);
+            this.tour = new int[m];
+            this.pos = new int[distanceMatrix.size()];
+
+            tour[0] = DistanceMatrix.WAREHOUSE;
+            System.arraycopy(order, 0, tour, 1, order.length);
+            for (int i = 0; i < m; i++){
+                pos[tour[i]] = i;
+            }
+            this.neighbours = NeighbourLists.build(distanceMatrix, tour, k);
+            this.initialLength = TourUtils.calculateTotalDistance(order, distanceMatrix);
+        }
+
+        int[] run(long budgetNanos, OptimizationProgress progress){
+            long started = System.nanoTime();
+            double current = initialLength;
+            double best = current;
+            int[] bestTour = null;
+            boolean currentIsBest = true;
+
+            double initialTemperature = INITIAL_TEMPERATURE_FACTOR * current / m;
+            double temperature = initialTemperature;
+
+            for (long iteration = 0; ; iteration++){
+                if((iteration & CLOCK_CHECK_MASK) == 0){
+                    long elapsed = System.nanoTime() - started;
+                    if(elapsed >= budgetNanos || progress.isCancelled()) break;
+                    if((iteration & PROGRESS_REPORT_MASK) == 0) progress.report((double) elapsed / budgetNanos);
+                    temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, (double) elapsed / budgetNanos);
+                }
+
+                int a = tour[random.nextInt(m)];
+                int c = neighbours[a * k + random.nextInt(k)];
+                boolean twoOpt = random.nextBoolean();
+                double delta = twoOpt ? twoOptDelta(a, c) : relocateDelta(a, c);
+                if(Double.isNaN(delta)) continue;
+                if(delta > 0 && random.nextDouble() >= Math.exp(-delta / temperature)) continue;
+
+                if(currentIsBest && delta >= 0){
+                    bestTour = tour.clone();
+                    currentIsBest = false;
+                }
+                if(twoOpt){
+                    reverse(pos[next(a)], pos[c]);
+                } else {
+                    relocate(a, c);
+                }
+                current += delta;
+                if(current < best - EPSILON){
+                    best = current;
+                    currentIsBest = true;
+                }
+            }
+
+            int[] result = currentIsBest || bestTour == null ? tour : bestTour;
+            int[] order = new int[m - 1];
+            int start = 0;
+            while (result[start] != DistanceMatrix.WAREHOUSE) start++;
+            for (int i = 1; i < m; i++){
+                order[i - 1] = result[(start + i) % m];
+            }
+            return order;
+        }
+
+        // a - next(a) ... c - next(c) becomes a - c ... next(a) - next(c); NaN when the move is degenerate.
+        private double twoOptDelta(int a, int c){
+            int succA = next(a);
+            int succC = next(c);
+            if(c == succA || succC == a) return Double.NaN;
+            return dist(a, c) + dist(succA, succC) - dist(a, succA) - dist(c, succC);
+        }
+
+        // Moves a between c and next(c); NaN when a would not move.
+        private double relocateDelta(int a, int c){
+            int predA = prev(a);
+            if(c == predA) return Double.NaN;
+            int succA = next(a);
+            int succC = next(c);
+            return dist(predA, succA) - dist(predA, a) - dist(a, succA)
+                    + dist(c, a) + dist(a, succC) - dist(c, succC);
+        }
+
+        // Shifts whichever side of the tour between a and c is shorter by one slot.
+        private void relocate(int a, int c){
+            int from = pos[a];
+            int forward = Math.floorMod(pos[c] - from, m);
+            int backward = m - 1 - forward;
+            if(forward <= backward){
+                for (int s = 0; s < forward; s++){
+                    place(tour[(from + s + 1) % m], (from + s) % m);
+                }
+                place(a, (from + forward) % m);
+            } else {
+                for (int s = 0; s < backward; s++){
+                    int target = Math.floorMod(from - s, m);
+                    place(tour[Math.floorMod(target - 1, m)], target);
+                }
+                place(a, Math.floorMod(from - backward, m));
+            }
+        }
+
+        // Reverses the cyclic path tour[from..to]; flips the complement instead when that is shorter.
+        private void reverse(int from, int to){
+            int length = Math.floorMod(to - from, m) + 1;
+            if(length * 2 > m){
+                int newFrom = (to + 1) % m;
+                to = Math.floorMod(from - 1, m);
+                from = newFrom;
+                length = m - length;
+            }
+            for (int s = 0; s < length / 2; s++){
+                int i = (from + s) % m;
+                int j = Math.floorMod(to - s, m);
+                int tmp = tour[i];
+                place(tour[j], i);
+                place(tmp, j);
+            }
+        }
+
+        private void place(int node, int index){
+            tour[index] = node;
+            pos[node] = index;
+        }
+
+        private int next(int node){
+            return tour[(pos[node] + 1) % m];
+        }
+
+        private int prev(int node){
+            return tour[(pos[node] + m - 1) % m];
+        }
+
+        private double dist(int a, int b){
+            return distanceMatrix.distance(a, b);
+        }
+    }
+}
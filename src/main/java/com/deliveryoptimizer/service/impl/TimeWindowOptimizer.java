@@ -0,0 +1,159 @@
+package com.deliveryoptimizer.service.impl;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.CheapestInsertion;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.TimeWindowSchedule;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Routes a tour under the delivery time slots and the warehouse opening hours. Stops are inserted
+ * tightest deadline first, each at the shortest position that keeps every window, then relocated one
+ * at a time while that shortens the route. Feasibility of each candidate position is an O(1) check
+ * against the forward time slacks of {@link TimeWindowSchedule}.
+ * <p>
+ * Stops that fit nowhere are appended at their cheapest position at the end and will be late;
+ * {@link #schedule} reports them. A job's progress counts inserted stops for the first half and
+ * relocation passes, out of the maximum, for the second.
+ */
+public class TimeWindowOptimizer implements TourOptimizer {
+    private static final int MAX_RELOCATE_PASSES = 50;
+    private static final double EPSILON = 1e-10;
+
+    private final DistanceProvider distanceProvider;
+    private final double speedKmh;
+    private final double serviceMinutes;
+
+    public TimeWindowOptimizer(DistanceProvider distanceProvider, double speedKmh, double serviceMinutes){
+        this.distanceProvider = distanceProvider;
+        this.speedKmh = speedKmh;
+        this.serviceMinutes = serviceMinutes;
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour){
+        return optimizerTour(tour, DistanceMatrix.of(tour, distanceProvider));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix){
+        return distanceMatrix.toDeliveries(route(distanceMatrix));
+    }
+
+    @Override
+    public List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        return distanceMatrix.toDeliveries(route(distanceMatrix, progress));
+    }
+
+    /** Times the given route (delivery indexes, warehouse excluded) with this optimizer's speed and service time. */
+    public TimeWindowSchedule schedule(DistanceMatrix distanceMatrix, int[] route){
+        TimeWindowSchedule schedule = new TimeWindowSchedule(distanceMatrix, speedKmh, serviceMinutes);
+        schedule.load(route, route.length);
+        return schedule;
+    }
+
+    public int[] route(DistanceMatrix distanceMatrix){
+        return route(distanceMatrix, OptimizationProgress.NONE);
+    }
+
+    public int[] route(DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        int n = distanceMatrix.deliveryCount();
+        TimeWindowSchedule schedule = new TimeWindowSchedule(distanceMatrix, speedKmh, serviceMinutes);
+
+        Integer[] byDeadline = IntStream.rangeClosed(1, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(byDeadline, Comparator.<Integer>comparingInt(schedule::latest).thenComparingInt(schedule::earliest));
+
+        int[] route = new int[n];
+        int length = 0;
+        int[] unscheduled = new int[n];
+        int unscheduledCount = 0;
+
+        schedule.load(route, 0);
+        for (int stop : byDeadline){
+            progress.throwIfCancelled();
+            progress.report(0.5 * (length + unscheduledCount) / n);
+            int position = bestPosition(schedule, stop);
+            if(position < 0){
+                unscheduled[unscheduledCount++] = stop;
+                continue;
+            }
+            insert(route, length++, stop, position);
+            schedule.load(route, length);
+        }
+
+        relocate(schedule, distanceMatrix, route, length, progress);
+
+        // A shorter route may leave room for stops that did not fit before.
+        int late = 0;
+        for (int i = 0; i < unscheduledCount; i++){
+            schedule.load(route, length);
+            int position = bestPosition(schedule, unscheduled[i]);
+            if(position < 0){
+                unscheduled[late++] = unscheduled[i];
+            } else {
+                insert(route, length++, unscheduled[i], position);
+            }
+        }
+
+        if(late == 0) return route;
+        return CheapestInsertion.insert(Arrays.copyOf(route, length), Arrays.copyOf(unscheduled, late), distanceMatrix);
+    }
+
+    // Moves single stops to their best feasible position while that shortens the route. Removing a stop never breaks the windows of the others.
+    private static void relocate(TimeWindowSchedule schedule, DistanceMatrix distanceMatrix, int[] route, int length, OptimizationProgress progress){
+        int[] without = new int[length];
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_RELOCATE_PASSES; pass++){
+            improved = false;
+            progress.report(0.5 + 0.5 * pass / MAX_RELOCATE_PASSES);
+            for (int i = 0; i < length; i++){
+                progress.throwIfCancelled();
+                int stop = route[i];
+                int previous = i > 0 ? route[i - 1] : DistanceMatrix.WAREHOUSE;
+                int next = i < length - 1 ? route[i + 1] : DistanceMatrix.WAREHOUSE;
+                double saving = distanceMatrix.distance(previous, stop) + distanceMatrix.distance(stop, next) - distanceMatrix.distance(previous, next);
+
+                System.arraycopy(route, 0, without, 0, i);
+                System.arraycopy(route, i + 1, without, i, length - i - 1);
+                schedule.load(without, length - 1);
+
+                int position = bestPosition(schedule, stop);
+                if(position < 0 || position == i) continue;
+                if(schedule.insertionCost(stop, position) < saving - EPSILON){
+                    System.arraycopy(without, 0, route, 0, length - 1);
+                    insert(route, length - 1, stop, position);
+                    improved = true;
+                }
+            }
+        }
+    }
+
+    // Cheapest position of the loaded route that keeps every window, -1 when there is none.
+    private static int bestPosition(TimeWindowSchedule schedule, int stop){
+        int best = -1;
+        double bestCost = Double.MAX_VALUE;
+        for (int position = 0; position <= schedule.length(); position++){
+            if(!schedule.insertionFits(stop, position)) continue;
+            double cost = schedule.insertionCost(stop, position);
+            if(cost < bestCost){
+                bestCost = cost;
+                best = position;
+            }
+        }
+        return best;
+    }
+
+    // Inserts stop after route position `position` (0 = warehouse) of a route holding `length` stops.
+    private static void insert(int[] route, int length, int stop, int position){
+        System.arraycopy(route, position, route, position + 1, length - position);
+        route[position] = stop;
+    }
+}
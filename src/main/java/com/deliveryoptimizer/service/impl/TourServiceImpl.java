@@ -1,44 +1,82 @@
 package com.deliveryoptimizer.service.impl;
 
+import com.deliveryoptimizer.dto.AutoPlanResultDTO;
+import com.deliveryoptimizer.dto.BatchOptimizationResultDTO;
+import com.deliveryoptimizer.dto.InsertionResultDTO;
+import com.deliveryoptimizer.dto.OptimizationCacheStatsDTO;
+import com.deliveryoptimizer.dto.OptimizerComparisonDTO;
+import com.deliveryoptimizer.dto.ScheduledStopDTO;
 import com.deliveryoptimizer.dto.TourDTO;
+import com.deliveryoptimizer.dto.TourOptimizationResultDTO;
+import com.deliveryoptimizer.dto.TourScheduleDTO;
 import com.deliveryoptimizer.mapper.TourMapper;
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
 import com.deliveryoptimizer.model.Vehicle;
 import com.deliveryoptimizer.model.Warehouse;
 import com.deliveryoptimizer.model.enums.DeliveryStatus;
-import com.deliveryoptimizer.model.enums.OptimizationMethod;
 import com.deliveryoptimizer.model.enums.TourStatus;
+import com.deliveryoptimizer.model.enums.VehicleType;
 import com.deliveryoptimizer.repository.DeliveryRepository;
+import com.deliveryoptimizer.repository.TourDeliveryId;
 import com.deliveryoptimizer.repository.TourRepository;
+import com.deliveryoptimizer.repository.TourSummary;
 import com.deliveryoptimizer.repository.VehicleRepository;
 import com.deliveryoptimizer.repository.WarehouseRepository;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
 import com.deliveryoptimizer.service.interfaces.TourService;
-import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.CheapestInsertion;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.Pagination;
+import com.deliveryoptimizer.util.SweepPartitioner;
+import com.deliveryoptimizer.util.TimeWindow;
+import com.deliveryoptimizer.util.TimeWindowSchedule;
+import com.deliveryoptimizer.util.TourLowerBound;
 import com.deliveryoptimizer.util.TourUtils;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class TourServiceImpl implements TourService {
+    public static final String LOWER_BOUND_LABEL = "Lower bound";
+    /**
+     * Methods {@link #getTourDistances} runs when neither the saved route nor the cache has their result; every
+     * other method is listed once it has one of the two.
+     */
+    public static final List<String> DISTANCE_METHODS = List.of("nn", "cw");
+
     private final TourRepository tourRepository;
     private final DeliveryRepository deliveryRepository;
     private final WarehouseRepository warehouseRepository;
     private final VehicleRepository vehicleRepository;
-    private final NearestNeighborOptimizer nearestNeighborOptimizer;
+    private final OptimizerRegistry optimizerRegistry;
     private final ClarkeWrightOptimizer clarkeWrightOptimizer;
-    private final DistanceCalculator distanceCalculator;
+    private final SimulatedAnnealingOptimizer simulatedAnnealingOptimizer;
+    private final TimeWindowOptimizer timeWindowOptimizer;
+    private final OptimizationResultCache resultCache;
+    private final DistanceProvider distanceProvider;
 
-    public TourServiceImpl(TourRepository tourRepository, DeliveryRepository deliveryRepository, WarehouseRepository warehouseRepository, VehicleRepository vehicleRepository, NearestNeighborOptimizer nearestNeighborOptimizer, ClarkeWrightOptimizer clarkeWrightOptimizer, DistanceCalculator distanceCalculator){
+    public TourServiceImpl(TourRepository tourRepository, DeliveryRepository deliveryRepository, WarehouseRepository warehouseRepository, VehicleRepository vehicleRepository, OptimizerRegistry optimizerRegistry, ClarkeWrightOptimizer clarkeWrightOptimizer, SimulatedAnnealingOptimizer simulatedAnnealingOptimizer, TimeWindowOptimizer timeWindowOptimizer, OptimizationResultCache resultCache, DistanceProvider distanceProvider){
         this.tourRepository = tourRepository;
         this.vehicleRepository = vehicleRepository;
         this.warehouseRepository = warehouseRepository;
         this.deliveryRepository = deliveryRepository;
-        this.nearestNeighborOptimizer = nearestNeighborOptimizer;
+        this.optimizerRegistry = optimizerRegistry;
         this.clarkeWrightOptimizer = clarkeWrightOptimizer;
-        this.distanceCalculator = distanceCalculator;
+        this.simulatedAnnealingOptimizer = simulatedAnnealingOptimizer;
+        this.timeWindowOptimizer = timeWindowOptimizer;
+        this.resultCache = resultCache;
+        this.distanceProvider = distanceProvider;
     }
 
     @Override
@@ -49,11 +87,12 @@ public class TourServiceImpl implements TourService {
         Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
                 .orElseThrow(() -> new RuntimeException("Warehouse Not Found!"));
 
-        if (tourRepository.existsByWarehouseId(warehouse.getId())) {
-            throw new RuntimeException("This warehouse is already assigned to another tour");
+        // A vehicle drives one tour a day; a warehouse dispatches as many as it has vehicles for, like auto-plan does.
+        if (tourRepository.existsByVehicleIdAndDate(vehicle.getId(), dto.getDate())) {
+            throw new RuntimeException("This vehicle already has a tour on this date");
         }
 
-        List<Delivery> deliveries = deliveryRepository.findAllById(dto.getDeliveryIds());
+        List<Delivery> deliveries = inRequestedOrder(deliveryRepository.findAllById(dto.getDeliveryIds()), dto.getDeliveryIds());
 
         boolean hasAssignedDeliveries = deliveries.stream()
                 .anyMatch(d -> d.getTour() != null);
@@ -64,7 +103,7 @@ public class TourServiceImpl implements TourService {
         Tour tour = TourMapper.toEntity(dto);
         tour.setVehicle(vehicle);
         tour.setWarehouse(warehouse);
-        tour.setDeliveries(deliveries);
+        applyRoute(tour, deliveries, TourUtils.calculateTotalDistance(warehouse, deliveries, distanceProvider), null);
         tour.setStatus(TourStatus.PLANNED);
 
         Tour saved = tourRepository.save(tour);
@@ -74,22 +113,34 @@ public class TourServiceImpl implements TourService {
     }
 
     @Override
-    public List<TourDTO> getAllTours(){
-        return tourRepository.findAll().stream()
-                .map(TourMapper::toDTO)
-                .toList();
+    public List<TourDTO> getAllTours(Long after, Integer limit, LocalDate date, Long warehouseId, TourStatus status){
+        return toDTOs(tourRepository.findSummaryPage(Pagination.after(after), date, warehouseId, status, Pagination.limit(limit)));
     }
 
     @Override
     public TourDTO getTourById(Long id){
-        return tourRepository.findById(id)
-                .map(TourMapper::toDTO)
+        TourSummary summary = tourRepository.findSummaryById(id)
                 .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
+        return toDTOs(List.of(summary)).get(0);
+    }
+
+    // Two queries whatever the number of tours: the tour columns, then the delivery ids of all of them in stop order.
+    private List<TourDTO> toDTOs(List<TourSummary> summaries){
+        if(summaries.isEmpty()) return List.of();
+
+        Map<Long, List<Long>> deliveryIds = new HashMap<>();
+        List<Long> tourIds = summaries.stream().map(TourSummary::getId).toList();
+        for (TourDeliveryId row : deliveryRepository.findDeliveryIdsByTourIdIn(tourIds)){
+            deliveryIds.computeIfAbsent(row.getTourId(), id -> new ArrayList<>()).add(row.getDeliveryId());
+        }
+        return summaries.stream()
+                .map(summary -> TourMapper.toDTO(summary, deliveryIds.getOrDefault(summary.getId(), List.of())))
+                .toList();
     }
 
     @Override
     public TourDTO updateTour(Long id, TourDTO dto){
-        Tour existingTour = tourRepository.findById(id)
+        Tour existingTour = tourRepository.findWithDeliveriesById(id)
                 .orElseThrow(() -> new RuntimeException("Tour not found"));
 
         Vehicle vehicle = vehicleRepository.findById(dto.getVehicleId())
@@ -98,19 +149,11 @@ public class TourServiceImpl implements TourService {
         Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
                 .orElseThrow(() -> new RuntimeException("Warehouse not found"));
 
-        boolean vehicleInUse = tourRepository.existsByVehicleId(vehicle.getId())
-                && !existingTour.getVehicle().getId().equals(vehicle.getId());
-        if (vehicleInUse) {
-            throw new RuntimeException("This vehicle is already assigned to another tour");
-        }
-
-        boolean warehouseInUse = tourRepository.existsByWarehouseId(warehouse.getId())
-                && !existingTour.getWarehouse().getId().equals(warehouse.getId());
-        if (warehouseInUse) {
-            throw new RuntimeException("This warehouse is already assigned to another tour");
+        if (tourRepository.existsByVehicleIdAndDateAndIdNot(vehicle.getId(), dto.getDate(), id)) {
+            throw new RuntimeException("This vehicle already has a tour on this date");
         }
 
-        List<Delivery> deliveries = deliveryRepository.findAllById(dto.getDeliveryIds());
+        List<Delivery> deliveries = inRequestedOrder(deliveryRepository.findAllById(dto.getDeliveryIds()), dto.getDeliveryIds());
 
         boolean hasAssignedDeliveries = deliveries.stream()
                 .anyMatch(d -> d.getTour() != null && !d.getTour().getId().equals(id));
@@ -118,18 +161,22 @@ public class TourServiceImpl implements TourService {
             throw new RuntimeException("One or more deliveries are already assigned to another tour");
         }
 
-        existingTour.getDeliveries().forEach(d -> d.setTour(null));
+        existingTour.getDeliveries().forEach(d -> {
+            d.setTour(null);
+            d.setStopSequence(null);
+        });
         deliveryRepository.saveAll(existingTour.getDeliveries());
 
         existingTour.setDate(dto.getDate());
         existingTour.setVehicle(vehicle);
         existingTour.setWarehouse(warehouse);
         existingTour.setStatus(dto.getStatus());
-        existingTour.setDeliveries(deliveries);
+        applyRoute(existingTour, deliveries, TourUtils.calculateTotalDistance(warehouse, deliveries, distanceProvider), null);
 
         Tour saved = tourRepository.save(existingTour);
         deliveries.forEach(d -> d.setTour(saved));
         deliveryRepository.saveAll(deliveries);
+        resultCache.invalidateTour(id);
 
         return TourMapper.toDTO(saved);
     }
@@ -137,13 +184,74 @@ public class TourServiceImpl implements TourService {
     @Override
     public void deleteTour(Long id){
         tourRepository.deleteById(id);
+        resultCache.invalidateTour(id);
     }
 
     @Override
     public TourDTO addDeliveriesToTour(Long tourId, List<Long> deliveryIds){
-        Tour tour = tourRepository.findById(tourId)
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
                 .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
 
+        List<Delivery> deliveries = assignDeliveries(tour, deliveryIds);
+        List<Delivery> route = new ArrayList<>(tour.getDeliveries());
+        route.addAll(deliveries);
+        applyRoute(tour, route, TourUtils.calculateTotalDistance(tour.getWarehouse(), route, distanceProvider), null);
+
+        tourRepository.save(tour);
+        deliveryRepository.saveAll(deliveries);
+        resultCache.invalidateTour(tourId);
+
+        return TourMapper.toDTO(tour);
+    }
+
+    @Override
+    public InsertionResultDTO insertDeliveriesIntoTour(Long tourId, List<Long> deliveryIds){
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
+
+        if(tour.getWarehouse() == null){
+            throw new RuntimeException("Tour has no warehouse assigned");
+        }
+
+        List<Delivery> deliveries = assignDeliveries(tour, deliveryIds);
+        List<Delivery> current = tour.getDeliveries();
+
+        List<Delivery> all = new ArrayList<>(current.size() + deliveries.size());
+        all.addAll(current);
+        all.addAll(deliveries);
+        DistanceMatrix distanceMatrix = new DistanceMatrix(tour.getWarehouse(), all, distanceProvider);
+
+        int[] route = new int[current.size()];
+        for (int i = 0; i < route.length; i++){
+            route[i] = i + 1;
+        }
+        int[] stops = new int[deliveries.size()];
+        for (int i = 0; i < stops.length; i++){
+            stops[i] = route.length + i + 1;
+        }
+
+        double previousDistance = TourUtils.calculateTotalDistance(route, distanceMatrix);
+        int[] updated = CheapestInsertion.insert(route, stops, distanceMatrix);
+        double totalDistance = TourUtils.calculateTotalDistance(updated, distanceMatrix);
+
+        List<Delivery> ordered = distanceMatrix.toDeliveries(updated);
+        applyRoute(tour, ordered, totalDistance, null);
+
+        tourRepository.save(tour);
+        deliveryRepository.saveAll(deliveries);
+        resultCache.invalidateTour(tourId);
+
+        return InsertionResultDTO.builder()
+                .tourId(tourId)
+                .deliveryIds(ordered.stream().map(Delivery::getId).toList())
+                .previousDistance(previousDistance)
+                .totalDistance(totalDistance)
+                .distanceDelta(totalDistance - previousDistance)
+                .build();
+    }
+
+    // Validates the deliveries against the tour's vehicle and links them to the tour, without adding them to its list.
+    private List<Delivery> assignDeliveries(Tour tour, List<Long> deliveryIds){
         List<Delivery> deliveries = deliveryRepository.findAllById(deliveryIds);
 
         if(deliveries.size() != deliveryIds.size()){
@@ -187,50 +295,437 @@ public class TourServiceImpl implements TourService {
             d.setTour(tour);
             d.setStatus(DeliveryStatus.IN_TRANSIT);
         });
-        tour.getDeliveries().addAll(deliveries);
+        return deliveries;
+    }
 
-        tourRepository.save(tour);
-        deliveryRepository.saveAll(deliveries);
+    @Override
+    public List<Long> optimizeTour(Long tourId, String method){
+        return optimizeTour(tourId, method, null, OptimizationProgress.NONE);
+    }
 
-        return TourMapper.toDTO(tour);
+    @Override
+    public List<Long> optimizeTour(Long tourId, String start, long budgetMs){
+        return optimizeTour(tourId, start, budgetMs, OptimizationProgress.NONE);
     }
 
     @Override
-    public List<Long> optimizeTour(Long tourId, OptimizationMethod method){
-        Tour tour = tourRepository.findById(tourId)
+    public List<Long> optimizeTour(Long tourId, String method, Long budgetMs, OptimizationProgress progress){
+        String name = optimizerRegistry.resolve(method);
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
                 .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
 
-        List<Delivery> optimized;
+        // Annealed routes depend on the time budget, so only the deterministic methods are cached.
+        OptimizationResultCache.Key key = budgetMs == null ? OptimizationResultCache.fingerprint(tour, name) : null;
+        if(key != null){
+            OptimizationResultCache.CachedRoute cached = resultCache.get(key);
+            if(cached != null){
+                if(applyCachedRoute(tour, cached.order(), cached.distance(), key)) tourRepository.save(tour);
+                return cached.order();
+            }
+        }
 
-        switch (method){
-            case NN -> optimized = nearestNeighborOptimizer.optimizerTour(tour);
-            case CW -> optimized = clarkeWrightOptimizer.optimizerTour(tour);
-            default -> throw new IllegalArgumentException("Unsupported optimization method: " + method);
+        DistanceMatrix distanceMatrix = buildDistanceMatrix(tour);
+        // With a budget the start route is the first half of the job and annealing the second.
+        OptimizationProgress construction = budgetMs == null ? progress : progress.stage(0, 0.5);
+        List<Delivery> optimized = optimizerRegistry.get(name).optimizerTour(tour, distanceMatrix, construction);
+        if(budgetMs != null){
+            progress.throwIfCancelled();
+            optimized = simulatedAnnealingOptimizer.improve(optimized, distanceMatrix, budgetMs, progress.stage(0.5, 1));
         }
+        progress.throwIfCancelled();
 
-        tour.setDeliveries(optimized);
+        double totalDistance = TourUtils.calculateTotalDistance(optimized, distanceMatrix);
+        applyRoute(tour, optimized, totalDistance, key);
         tourRepository.save(tour);
 
-        return optimized.stream()
+        List<Long> order = optimized.stream()
                 .map(Delivery::getId)
                 .toList();
+        if(key != null){
+            resultCache.put(key, tourId, order, totalDistance);
+        }
+        return order;
     }
 
     @Override
-    public Map<String, String> getTourDistances(Long tourId){
-        Tour tour = tourRepository.findById(tourId)
+    public List<OptimizerComparisonDTO> compareOptimizers(Long tourId){
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
                 .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
 
-        List<Delivery> nnOrder = nearestNeighborOptimizer.optimizerTour(tour);
-        double nnDistance = TourUtils.calculateTotalDistance(tour.getWarehouse(), nnOrder, distanceCalculator);
+        // Every optimizer reads the same snapshot and the same filled, hence read-only, matrix.
+        Tour snapshot = new Tour();
+        snapshot.setId(tour.getId());
+        snapshot.setWarehouse(tour.getWarehouse());
+        snapshot.setVehicle(tour.getVehicle());
+        snapshot.setDeliveries(List.copyOf(tour.getDeliveries()));
+        DistanceMatrix distanceMatrix = buildDistanceMatrix(snapshot).fill();
+
+        List<Future<OptimizerComparisonDTO>> runs = new ArrayList<>();
+        for (String name : optimizerRegistry.names()){
+            runs.add(optimizerRegistry.executor().submit(() -> runForComparison(name, snapshot, distanceMatrix)));
+        }
+
+        List<OptimizerComparisonDTO> comparisons = awaitAll(runs);
+        if(snapshot.getDeliveries().isEmpty()) return comparisons;
+
+        double lowerBound = lowerBound(distanceMatrix, shortest(comparisons.stream().map(OptimizerComparisonDTO::getTotalDistance).toList()));
+        resultCache.put(OptimizationResultCache.fingerprint(snapshot, OptimizationResultCache.LOWER_BOUND), snapshot.getId(), List.of(), lowerBound);
+        for (OptimizerComparisonDTO comparison : comparisons){
+            comparison.setLowerBound(lowerBound);
+            comparison.setOptimalityGapPercent(TourLowerBound.gapPercent(comparison.getTotalDistance(), lowerBound));
+        }
+        return comparisons;
+    }
+
+    private OptimizerComparisonDTO runForComparison(String name, Tour snapshot, DistanceMatrix distanceMatrix){
+        long started = System.nanoTime();
+        List<Delivery> order = optimizerRegistry.get(name).optimizerTour(snapshot, distanceMatrix);
+        double wallTimeMs = elapsedMs(started);
+
+        double totalDistance = TourUtils.calculateTotalDistance(order, distanceMatrix);
+        List<Long> deliveryIds = order.stream().map(Delivery::getId).toList();
+        resultCache.put(OptimizationResultCache.fingerprint(snapshot, name), snapshot.getId(), deliveryIds, totalDistance);
+
+        return OptimizerComparisonDTO.builder()
+                .method(name)
+                .label(optimizerRegistry.label(name))
+                .totalDistance(totalDistance)
+                .formattedDistance(TourUtils.formatDistance(totalDistance))
+                .wallTimeMs(wallTimeMs)
+                .deliveryIds(deliveryIds)
+                .build();
+    }
+
+    @Override
+    public BatchOptimizationResultDTO optimizeTours(LocalDate date, List<Long> tourIds, String method){
+        boolean byIds = tourIds != null && !tourIds.isEmpty();
+        if((date != null) == byIds){
+            throw new RuntimeException("Provide either a date or a list of tour ids");
+        }
+        String name = optimizerRegistry.resolve(method);
+        long started = System.nanoTime();
+
+        List<Tour> tours = byIds ? tourRepository.findAllByIdIn(tourIds) : tourRepository.findAllByDate(date);
+        if(byIds && tours.size() != new HashSet<>(tourIds).size()){
+            throw new RuntimeException("One or More Tours Not found!");
+        }
+
+        List<Future<TourOptimizationResultDTO>> runs = new ArrayList<>(tours.size());
+        for (Tour tour : tours){
+            runs.add(optimizerRegistry.executor().submit(() -> runForBatch(tour, name)));
+        }
+        List<TourOptimizationResultDTO> results = awaitAll(runs);
+
+        // One saveAll for every changed tour, so the updates go out in JDBC batches.
+        List<Tour> changed = new ArrayList<>();
+        for (int i = 0; i < tours.size(); i++){
+            Tour tour = tours.get(i);
+            TourOptimizationResultDTO result = results.get(i);
+            if(result.getError() != null) continue;
+            if(!result.isCached()){
+                resultCache.put(OptimizationResultCache.fingerprint(tour, name), tour.getId(), result.getDeliveryIds(), result.getTotalDistance());
+                changed.add(tour);
+            } else if(applyCachedRoute(tour, result.getDeliveryIds(), result.getTotalDistance(), OptimizationResultCache.fingerprint(tour, name))){
+                changed.add(tour);
+            }
+        }
+        tourRepository.saveAll(changed);
+
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+        return BatchOptimizationResultDTO.builder()
+                .method(name)
+                .date(date)
+                .tourCount(tours.size())
+                .optimizedCount(tours.size() - failed)
+                .failedCount(failed)
+                .elapsedMs(elapsedMs(started))
+                .results(results)
+                .build();
+    }
+
+    // A failing tour is reported in its own result instead of failing the whole batch.
+    private TourOptimizationResultDTO runForBatch(Tour tour, String name){
+        long started = System.nanoTime();
+        TourOptimizationResultDTO.TourOptimizationResultDTOBuilder result = TourOptimizationResultDTO.builder()
+                .tourId(tour.getId());
+        try {
+            OptimizationResultCache.Key key = OptimizationResultCache.fingerprint(tour, name);
+            OptimizationResultCache.CachedRoute cached = resultCache.get(key);
+            if(cached != null){
+                return result.deliveryIds(cached.order()).totalDistance(cached.distance()).cached(true)
+                        .wallTimeMs(elapsedMs(started)).build();
+            }
+
+            DistanceMatrix distanceMatrix = buildDistanceMatrix(tour);
+            List<Delivery> order = optimizerRegistry.get(name).optimizerTour(tour, distanceMatrix);
+            double totalDistance = TourUtils.calculateTotalDistance(order, distanceMatrix);
+            applyRoute(tour, order, totalDistance, key);
+            return result.deliveryIds(order.stream().map(Delivery::getId).toList())
+                    .totalDistance(totalDistance)
+                    .wallTimeMs(elapsedMs(started))
+                    .build();
+        } catch (RuntimeException e){
+            return result.error(e.getMessage()).wallTimeMs(elapsedMs(started)).build();
+        }
+    }
 
-        List<Delivery> cwOrder = clarkeWrightOptimizer.optimizerTour(tour);
-        double cwDistance = TourUtils.calculateTotalDistance(tour.getWarehouse(), cwOrder, distanceCalculator);
+    private static <T> List<T> awaitAll(List<Future<T>> runs){
+        List<T> results = new ArrayList<>(runs.size());
+        try {
+            for (Future<T> run : runs){
+                results.add(run.get());
+            }
+        } catch (InterruptedException e){
+            runs.forEach(run -> run.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Optimization interrupted");
+        } catch (ExecutionException e){
+            runs.forEach(run -> run.cancel(true));
+            if(e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
+    private static double elapsedMs(long startedNanos){
+        return (System.nanoTime() - startedNanos) / 1e6;
+    }
+
+    @Override
+    public Map<String, String> getTourDistances(Long tourId){
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
+
+        DistanceMatrix distanceMatrix = null;
+        Map<String, Double> routeDistances = new LinkedHashMap<>();
+
+        for (String name : optimizerRegistry.names()){
+            OptimizationResultCache.Key key = OptimizationResultCache.fingerprint(tour, name);
+            if(isSavedRoute(tour, key)){
+                routeDistances.put(optimizerRegistry.label(name), tour.getTotalDistance());
+                continue;
+            }
+            OptimizationResultCache.CachedRoute route = resultCache.get(key);
+            if(route == null){
+                if(!DISTANCE_METHODS.contains(name)) continue;
+                if(distanceMatrix == null) distanceMatrix = buildDistanceMatrix(tour);
+                List<Delivery> order = optimizerRegistry.get(name).optimizerTour(tour, distanceMatrix);
+                route = resultCache.put(key, tourId, order.stream().map(Delivery::getId).toList(),
+                        TourUtils.calculateTotalDistance(order, distanceMatrix));
+            }
+            routeDistances.put(optimizerRegistry.label(name), route.distance());
+        }
 
         Map<String, String> distances = new LinkedHashMap<>();
-        distances.put("Nearest Neighbor", TourUtils.formatDistance(nnDistance));
-        distances.put("Clarke Wright", TourUtils.formatDistance(cwDistance));
+        if(tour.getDeliveries().isEmpty()){
+            routeDistances.forEach((label, distance) -> distances.put(label, TourUtils.formatDistance(distance)));
+            return distances;
+        }
 
+        double shortest = shortest(routeDistances.values());
+        OptimizationResultCache.Key boundKey = OptimizationResultCache.fingerprint(tour, OptimizationResultCache.LOWER_BOUND);
+        OptimizationResultCache.CachedRoute bound = resultCache.get(boundKey);
+        if(bound == null){
+            if(distanceMatrix == null) distanceMatrix = buildDistanceMatrix(tour);
+            bound = resultCache.put(boundKey, tourId, List.of(), lowerBound(distanceMatrix, shortest));
+        }
+        double lowerBound = Math.min(bound.distance(), shortest);
+        distances.put(LOWER_BOUND_LABEL, TourUtils.formatDistance(lowerBound));
+        routeDistances.forEach((label, distance) -> distances.put(label, String.format("%s (gap %.1f%%)",
+                TourUtils.formatDistance(distance), TourLowerBound.gapPercent(distance, lowerBound))));
         return distances;
     }
+
+    private static double shortest(Collection<Double> routeDistances){
+        return routeDistances.stream().mapToDouble(Double::doubleValue).min().orElse(Double.POSITIVE_INFINITY);
+    }
+
+    // The shortest route found caps the bound and scales the subgradient steps. Above the cached matrix size
+    // each iteration recomputes every distance, so only the plain 1-tree is built.
+    private static double lowerBound(DistanceMatrix distanceMatrix, double shortest){
+        int iterations = distanceMatrix.size() <= DistanceMatrix.MAX_CACHED_POINTS ? TourLowerBound.DEFAULT_ITERATIONS : 0;
+        return TourLowerBound.oneTree(distanceMatrix.fill(), shortest, iterations);
+    }
+
+    @Override
+    public TourScheduleDTO getTourSchedule(Long tourId){
+        Tour tour = tourRepository.findWithDeliveriesById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour Not Found!"));
+
+        DistanceMatrix distanceMatrix = buildDistanceMatrix(tour);
+        int[] route = new int[distanceMatrix.deliveryCount()];
+        for (int i = 0; i < route.length; i++){
+            route[i] = i + 1;
+        }
+        TimeWindowSchedule schedule = timeWindowOptimizer.schedule(distanceMatrix, route);
+
+        List<ScheduledStopDTO> stops = new ArrayList<>(route.length);
+        List<Long> infeasible = new ArrayList<>();
+        for (int position = 1; position <= route.length; position++){
+            Delivery delivery = distanceMatrix.delivery(route[position - 1]);
+            TimeWindow window = TimeWindowSchedule.window(delivery);
+            double late = schedule.lateness(position);
+            if(late > 0) infeasible.add(delivery.getId());
+            stops.add(ScheduledStopDTO.builder()
+                    .deliveryId(delivery.getId())
+                    .timeSlot(delivery.getTimeSlot())
+                    .windowStart(window.isAllDay() ? null : TimeWindow.toLocalTime(window.start()))
+                    .windowEnd(window.isAllDay() ? null : TimeWindow.toLocalTime(window.end()))
+                    .arrival(TimeWindow.toLocalTime(schedule.arrival(position)))
+                    .serviceStart(TimeWindow.toLocalTime(schedule.start(position)))
+                    .lateMinutes(late)
+                    .feasible(late == 0)
+                    .build());
+        }
+
+        double returnLate = schedule.lateness(route.length + 1);
+        return TourScheduleDTO.builder()
+                .tourId(tourId)
+                .departure(TimeWindow.toLocalTime(schedule.start(0)))
+                .returnTime(TimeWindow.toLocalTime(schedule.start(route.length + 1)))
+                .returnLateMinutes(returnLate)
+                .feasible(infeasible.isEmpty() && returnLate == 0)
+                .infeasibleDeliveryIds(infeasible)
+                .stops(stops)
+                .build();
+    }
+
+    @Override
+    public OptimizationCacheStatsDTO getOptimizationCacheStats(){
+        return resultCache.stats();
+    }
+
+    @Override
+    public List<List<Long>> planRoutes(Long warehouseId, VehicleType vehicleType, List<Long> deliveryIds){
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new RuntimeException("Warehouse Not Found!"));
+
+        List<Delivery> deliveries = deliveryRepository.findAllById(deliveryIds);
+
+        if(deliveries.size() != deliveryIds.size()){
+            throw new RuntimeException("One or More Deliveries Not found!");
+        }
+
+        boolean oversized = deliveries.stream()
+                .anyMatch(d -> d.getMaxWeight() > vehicleType.getMaxWeightKg() || d.getMaxVolume() > vehicleType.getMaxVolumeM3());
+        if(oversized){
+            throw new RuntimeException("One or more deliveries exceed the vehicle capacity on their own");
+        }
+
+        DistanceMatrix distanceMatrix = new DistanceMatrix(warehouse, deliveries, distanceProvider);
+
+        return clarkeWrightOptimizer.optimizeRoutes(distanceMatrix, vehicleType).stream()
+                .map(route -> route.stream()
+                        .map(Delivery::getId)
+                        .toList())
+                .toList();
+    }
+
+    @Override
+    public AutoPlanResultDTO autoPlanTours(Long warehouseId, LocalDate date, String method){
+        String name = optimizerRegistry.resolve(method);
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new RuntimeException("Warehouse Not Found!"));
+        LocalDate planDate = date != null ? date : LocalDate.now();
+        long started = System.nanoTime();
+
+        List<Vehicle> vehicles = vehicleRepository.findAllFreeOn(planDate);
+        if(vehicles.isEmpty()){
+            throw new RuntimeException("No vehicle is free on " + planDate);
+        }
+        List<Delivery> pending = deliveryRepository.findAllByTourIsNull().stream()
+                .filter(d -> d.getStatus() != DeliveryStatus.DELIVERED && d.getStatus() != DeliveryStatus.FAILED)
+                .toList();
+        SweepPartitioner.Catchment catchment = SweepPartitioner.catchment(warehouse, warehouseRepository.findAll(), pending);
+
+        SweepPartitioner.Result partition = SweepPartitioner.partition(warehouse, catchment.inside(), vehicles);
+
+        List<Future<Tour>> runs = new ArrayList<>(partition.clusters().size());
+        for (SweepPartitioner.Cluster cluster : partition.clusters()){
+            Tour tour = Tour.builder()
+                    .date(planDate)
+                    .status(TourStatus.PLANNED)
+                    .vehicle(cluster.vehicle())
+                    .warehouse(warehouse)
+                    .deliveries(cluster.deliveries())
+                    .build();
+            runs.add(optimizerRegistry.executor().submit(() -> routeForPlan(tour, name)));
+        }
+        List<Tour> tours = awaitAll(runs);
+
+        // The tours are persisted without their stops: a persist cascading to deliveries read in another
+        // session fails wherever no request keeps that session open.
+        List<List<Delivery>> routes = tours.stream().map(Tour::getDeliveries).toList();
+        tours.forEach(tour -> tour.setDeliveries(new ArrayList<>()));
+        List<Tour> saved = tourRepository.saveAll(tours);
+        List<Delivery> assigned = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++){
+            Tour tour = saved.get(i);
+            tour.setDeliveries(routes.get(i));
+            tour.getDeliveries().forEach(d -> d.setTour(tour));
+            assigned.addAll(tour.getDeliveries());
+        }
+        deliveryRepository.saveAll(assigned);
+
+        return AutoPlanResultDTO.builder()
+                .warehouseId(warehouseId)
+                .date(planDate)
+                .method(name)
+                .plannedDeliveryCount(assigned.size())
+                .unassignedDeliveryIds(partition.unassigned().stream().map(Delivery::getId).toList())
+                .skippedDeliveryIds(catchment.outside().stream().map(Delivery::getId).toList())
+                .elapsedMs(elapsedMs(started))
+                .tours(saved.stream().map(TourMapper::toDTO).toList())
+                .build();
+    }
+
+    private Tour routeForPlan(Tour tour, String name){
+        DistanceMatrix distanceMatrix = buildDistanceMatrix(tour);
+        List<Delivery> order = optimizerRegistry.get(name).optimizerTour(tour, distanceMatrix);
+        applyRoute(tour, order, TourUtils.calculateTotalDistance(order, distanceMatrix), OptimizationResultCache.fingerprint(tour, name));
+        return tour;
+    }
+
+    // Sets the stop order and its length together; stopSequence is what keeps the order once saved. The route
+    // remembers the fingerprint of the optimizer run that found it, none when it was edited by hand.
+    private static void applyRoute(Tour tour, List<Delivery> order, double totalDistance, OptimizationResultCache.Key key){
+        List<Delivery> route = new ArrayList<>(order);
+        for (int i = 0; i < route.size(); i++){
+            route.get(i).setStopSequence(i);
+        }
+        tour.setDeliveries(route);
+        tour.setTotalDistance(totalDistance);
+        tour.setRouteFingerprint(key == null ? null : key.digest());
+    }
+
+    // Puts the tour in a cached order, returning false when it is already saved that way.
+    private static boolean applyCachedRoute(Tour tour, List<Long> order, double totalDistance, OptimizationResultCache.Key key){
+        List<Long> current = tour.getDeliveries().stream().map(Delivery::getId).toList();
+        if(current.equals(order) && tour.getTotalDistance() == totalDistance && isSavedRoute(tour, key)) return false;
+
+        applyRoute(tour, inRequestedOrder(tour.getDeliveries(), order), totalDistance, key);
+        return true;
+    }
+
+    // True when the saved stop order is the route of this fingerprint: same method, deliveries and coordinates.
+    private static boolean isSavedRoute(Tour tour, OptimizationResultCache.Key key){
+        return key != null && tour.getRouteFingerprint() != null && tour.getRouteFingerprint() == key.digest();
+    }
+
+    private static List<Delivery> inRequestedOrder(List<Delivery> deliveries, List<Long> ids){
+        Map<Long, Delivery> byId = new HashMap<>();
+        deliveries.forEach(d -> byId.put(d.getId(), d));
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private DistanceMatrix buildDistanceMatrix(Tour tour){
+        if(tour.getWarehouse() == null){
+            throw new RuntimeException("Tour has no warehouse assigned");
+        }
+        return DistanceMatrix.of(tour, distanceProvider);
+    }
 }
@@ -3,8 +3,10 @@ package com.deliveryoptimizer.service.impl;
 import com.deliveryoptimizer.dto.VehicleDTO;
 import com.deliveryoptimizer.mapper.VehicleMapper;
 import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.enums.VehicleType;
 import com.deliveryoptimizer.repository.VehicleRepository;
 import com.deliveryoptimizer.service.interfaces.VehicleService;
+import com.deliveryoptimizer.util.Pagination;
 
 import java.util.List;
 
@@ -28,8 +30,8 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
-    public List<VehicleDTO> getAllVehicles(){
-        return vehicleRepository.findAll().stream()
+    public List<VehicleDTO> getAllVehicles(Long after, Integer limit, VehicleType type){
+        return vehicleRepository.findPage(Pagination.after(after), type, Pagination.limit(limit)).stream()
                 .map(VehicleMapper::toDTO)
                 .toList();
 
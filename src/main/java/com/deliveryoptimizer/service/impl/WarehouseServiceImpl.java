@@ -5,6 +5,7 @@ import com.deliveryoptimizer.mapper.WarehouseMapper;
 import com.deliveryoptimizer.model.Warehouse;
 import com.deliveryoptimizer.repository.WarehouseRepository;
 import com.deliveryoptimizer.service.interfaces.WarehouseService;
+import com.deliveryoptimizer.util.Pagination;
 
 import java.util.List;
 
@@ -23,8 +24,8 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
-    public List<WarehouseDTO> getAllWarehouses(){
-        return warehouseRepository.findAll().stream()
+    public List<WarehouseDTO> getAllWarehouses(Long after, Integer limit){
+        return warehouseRepository.findByIdGreaterThanOrderByIdAsc(Pagination.after(after), Pagination.limit(limit)).stream()
                 .map(WarehouseMapper::toDTO)
                 .toList();
     }
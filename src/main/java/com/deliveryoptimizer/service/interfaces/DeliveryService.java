@@ -1,13 +1,14 @@
 package com.deliveryoptimizer.service.interfaces;
 
 import com.deliveryoptimizer.dto.DeliveryDTO;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
 
 import java.util.List;
 
 public interface DeliveryService {
 
     DeliveryDTO createDelivery(DeliveryDTO dto);
-    List<DeliveryDTO> getAllDeliveries();
+    List<DeliveryDTO> getAllDeliveries(Long after, Integer limit, DeliveryStatus status, Long tourId);
     DeliveryDTO getDeliveryById(Long id);
     DeliveryDTO updateDelivery(Long id, DeliveryDTO dto);
     void deleteDelivery(Long id);
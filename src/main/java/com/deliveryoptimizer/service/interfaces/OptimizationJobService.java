@@ -0,0 +1,10 @@
+package com.deliveryoptimizer.service.interfaces;
+
+import com.deliveryoptimizer.dto.OptimizationJobDTO;
+
+public interface OptimizationJobService {
+
+    OptimizationJobDTO submit(Long tourId, String method, Long budgetMs);
+    OptimizationJobDTO getJob(Long tourId, String jobId);
+    OptimizationJobDTO cancel(Long tourId, String jobId);
+}
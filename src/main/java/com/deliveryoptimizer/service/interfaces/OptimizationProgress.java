@@ -0,0 +1,47 @@
+package com.deliveryoptimizer.service.interfaces;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Hook passed to long-running optimizations: they report how far they are and poll for
+ * cancellation at points where stopping is cheap.
+ */
+public interface OptimizationProgress {
+    OptimizationProgress NONE = new OptimizationProgress() {
+        @Override
+        public boolean isCancelled(){
+            return false;
+        }
+
+        @Override
+        public void report(double fraction){
+        }
+    };
+
+    boolean isCancelled();
+
+    /** Fraction of the work done, between 0 and 1. */
+    void report(double fraction);
+
+    default void throwIfCancelled(){
+        if(isCancelled()){
+            throw new CancellationException("Optimization cancelled");
+        }
+    }
+
+    /** View for one stage of the work: its fractions are mapped onto {@code [from, to]} of this progress. */
+    default OptimizationProgress stage(double from, double to){
+        OptimizationProgress parent = this;
+        return new OptimizationProgress() {
+            @Override
+            public boolean isCancelled(){
+                return parent.isCancelled();
+            }
+
+            @Override
+            public void report(double fraction){
+                parent.report(from + (to - from) * fraction);
+            }
+        };
+    }
+}
@@ -2,10 +2,20 @@ package com.deliveryoptimizer.service.interfaces;
 
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
-import com.deliveryoptimizer.model.enums.OptimizationMethod;
+import com.deliveryoptimizer.util.DistanceMatrix;
 
 import java.util.List;
 
 public interface TourOptimizer {
     List<Delivery> optimizerTour(Tour tour);
+    List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix);
+
+    /**
+     * Same as {@link #optimizerTour(Tour, DistanceMatrix)} for a background job. Optimizers with long loops
+     * override it to report progress and to stop with a {@code CancellationException} once cancelled;
+     * the default runs to the end and only suits algorithms that finish quickly.
+     */
+    default List<Delivery> optimizerTour(Tour tour, DistanceMatrix distanceMatrix, OptimizationProgress progress){
+        return optimizerTour(tour, distanceMatrix);
+    }
 }
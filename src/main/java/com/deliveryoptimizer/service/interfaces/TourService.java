@@ -1,19 +1,43 @@
 package com.deliveryoptimizer.service.interfaces;
 
+import com.deliveryoptimizer.dto.AutoPlanResultDTO;
+import com.deliveryoptimizer.dto.BatchOptimizationResultDTO;
+import com.deliveryoptimizer.dto.InsertionResultDTO;
+import com.deliveryoptimizer.dto.OptimizationCacheStatsDTO;
+import com.deliveryoptimizer.dto.OptimizerComparisonDTO;
 import com.deliveryoptimizer.dto.TourDTO;
-import com.deliveryoptimizer.model.enums.OptimizationMethod;
+import com.deliveryoptimizer.dto.TourScheduleDTO;
+import com.deliveryoptimizer.model.enums.TourStatus;
+import com.deliveryoptimizer.model.enums.VehicleType;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 public interface TourService {
 
     TourDTO createTour(TourDTO dto);
-    List<TourDTO> getAllTours();
+    /** Keyset page of tours with an id above {@code after}, optionally filtered by date, warehouse and status. */
+    List<TourDTO> getAllTours(Long after, Integer limit, LocalDate date, Long warehouseId, TourStatus status);
     TourDTO getTourById(Long id);
     TourDTO updateTour(Long id, TourDTO dto);
     void deleteTour(Long id);
     TourDTO addDeliveriesToTour(Long tourId, List<Long> deliveryIds);
-    List<Long> optimizeTour(Long tourId, OptimizationMethod method);
+    InsertionResultDTO insertDeliveriesIntoTour(Long tourId, List<Long> deliveryIds);
+    List<Long> optimizeTour(Long tourId, String method);
+    List<Long> optimizeTour(Long tourId, String start, long budgetMs);
+    /** Builds a route with the registered {@code method}, anneals it for {@code budgetMs} when not null, and saves it unless cancelled. */
+    List<Long> optimizeTour(Long tourId, String method, Long budgetMs, OptimizationProgress progress);
+    /** Runs every registered optimizer in parallel on the same snapshot of the tour, without saving. */
+    List<OptimizerComparisonDTO> compareOptimizers(Long tourId);
+    /** Optimizes every tour of {@code date}, or the given tours, concurrently with one method and saves them together. */
+    BatchOptimizationResultDTO optimizeTours(LocalDate date, List<Long> tourIds, String method);
+    /** Route lengths of the saved route's method, of nn and cw, computed once and cached, of any other method with a cached route, and a lower bound, cached with them. */
     Map<String, String> getTourDistances(Long tourId);
+    /** Times the tour in its current order against the delivery time slots and the warehouse hours, flagging late stops. */
+    TourScheduleDTO getTourSchedule(Long tourId);
+    OptimizationCacheStatsDTO getOptimizationCacheStats();
+    List<List<Long>> planRoutes(Long warehouseId, VehicleType vehicleType, List<Long> deliveryIds);
+    /** Sweeps the unassigned deliveries into one capacity-feasible tour per vehicle free on {@code date}, optimizes each with {@code method} and saves them. */
+    AutoPlanResultDTO autoPlanTours(Long warehouseId, LocalDate date, String method);
 }
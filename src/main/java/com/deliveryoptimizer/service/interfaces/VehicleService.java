@@ -3,13 +3,14 @@ package com.deliveryoptimizer.service.interfaces;
 import com.deliveryoptimizer.dto.VehicleDTO;
 import com.deliveryoptimizer.mapper.VehicleMapper;
 import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.enums.VehicleType;
 
 import java.util.List;
 
 public interface VehicleService {
 
     VehicleDTO createVehicle(VehicleDTO dto);
-    List<VehicleDTO> getAllVehicles();
+    List<VehicleDTO> getAllVehicles(Long after, Integer limit, VehicleType type);
     VehicleDTO getVehicleById(Long id);
     VehicleDTO updateVehicle(Long id, VehicleDTO dto);
     void deleteVehicle(Long id);
@@ -7,7 +7,7 @@ import java.util.List;
 public interface WarehouseService {
 
     WarehouseDTO createWarehouse(WarehouseDTO dto);
-    List<WarehouseDTO> getAllWarehouses();
+    List<WarehouseDTO> getAllWarehouses(Long after, Integer limit);
     WarehouseDTO getWarehouseById(Long id);
     WarehouseDTO updateWarehouse(Long id, WarehouseDTO dto);
     void deleteWarehouse(Long id);
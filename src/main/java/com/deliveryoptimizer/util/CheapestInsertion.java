@@ -0,0 +1,40 @@
+package com.deliveryoptimizer.util;
+
+/**
+ * Inserts stops one at a time into an existing closed route at the position that lengthens it least.
+ * Each insertion scans every edge of the current route once, so inserting k stops into a route of
+ * n costs O(k * (n + k)) distance lookups and leaves the existing stops in their relative order.
+ */
+public class CheapestInsertion {
+    private CheapestInsertion(){}
+
+    /** Returns {@code route} (delivery indexes, warehouse excluded) with {@code stops} inserted, in the given order. */
+    public static int[] insert(int[] route, int[] stops, DistanceMatrix distanceMatrix){
+        int[] result = new int[route.length + stops.length];
+        System.arraycopy(route, 0, result, 0, route.length);
+        int length = route.length;
+
+        for (int stop : stops){
+            int bestPosition = 0;
+            double bestDelta = Double.MAX_VALUE;
+            int previous = DistanceMatrix.WAREHOUSE;
+
+            for (int position = 0; position <= length; position++){
+                int next = position < length ? result[position] : DistanceMatrix.WAREHOUSE;
+                double delta = distanceMatrix.distance(previous, stop)
+                        + distanceMatrix.distance(stop, next)
+                        - distanceMatrix.distance(previous, next);
+                if(delta < bestDelta){
+                    bestDelta = delta;
+                    bestPosition = position;
+                }
+                previous = next;
+            }
+
+            System.arraycopy(result, bestPosition, result, bestPosition + 1, length - bestPosition);
+            result[bestPosition] = stop;
+            length++;
+        }
+        return result;
+    }
+}
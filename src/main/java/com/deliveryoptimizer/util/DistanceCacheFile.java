@@ -0,0 +1,331 @@
+package com.deliveryoptimizer.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Distances between pairs of point keys in a memory-mapped open-addressing hash table with linear probing.
+ * A slot is 32 bytes: both keys, the distance as a float, the minute it was last read and a checksum of the
+ * keys and distance. Lookups probe the mapping under an optimistic read, so a hit allocates nothing and
+ * takes no lock; the first hit on a pair in a new minute records it under the write lock.
+ * <p>
+ * The table doubles when it is 70% full. Once it holds {@code maxEntries} pairs it is compacted instead,
+ * down to the most recently used half; rewriting a pair already stored does neither, and {@link #reserve}
+ * makes room for a whole batch in one go. Both rebuild into a temporary file that is forced to disk, then
+ * moved over the old one. The mapping is also forced on close and by the first new pair
+ * {@link #FLUSH_INTERVAL_NANOS} after the last force; forcing every so many pairs would write a large batch,
+ * which lands all over the table, back whole again and again. A slot left half-written by a crash fails its
+ * checksum: it reads as a miss and is overwritten by the next put.
+ * <p>
+ * The header records a hash of the distance source. A file written for another source, or one that does not
+ * read back as a table, is started over empty.
+ */
+public class DistanceCacheFile implements AutoCloseable {
+    private static final int MAGIC = 0x44435431;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 32;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MAX_ENTRIES = 40_000_000;
+
+    private final Path file;
+    private final long sourceHash;
+    private final int maxEntries;
+    private final int maxCapacity;
+    private final IntSupplier clock;
+    private final StampedLock lock = new StampedLock();
+
+    private Table table;
+    private int count;
+    private long flushedAt;
+
+    // Mapping and slot count are swapped together, so an optimistic reader never pairs one with the other's size.
+    private record Table(MappedByteBuffer buffer, int capacity) {}
+
+    public DistanceCacheFile(Path file, String source, int maxEntries) throws IOException {
+        this(file, source, maxEntries, () -> (int) (System.currentTimeMillis() / 60_000));
+    }
+
+    /** {@code clock} gives the current minute, the unit in which recent use is compared at compaction. */
+    public DistanceCacheFile(Path file, String source, int maxEntries, IntSupplier clock) throws IOException {
+        if(maxEntries < 2 || maxEntries > MAX_ENTRIES){
+            throw new IllegalArgumentException("Distance cache must hold between 2 and " + MAX_ENTRIES + " entries");
+        }
+        this.file = file;
+        this.sourceHash = hash(source);
+        this.maxEntries = maxEntries;
+        this.maxCapacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit((int) Math.ceil(maxEntries / MAX_LOAD) - 1) << 1);
+        this.clock = clock;
+        if(!open()){
+            rebuild(INITIAL_CAPACITY, Integer.MIN_VALUE);
+        }
+    }
+
+    /** The cached distance between two keys in either order, NaN when absent. */
+    public double get(long a, long b){
+        long first = Math.min(a, b);
+        long second = Math.max(a, b);
+        int minute = clock.getAsInt();
+        long stamp = lock.tryOptimisticRead();
+        Table current = table;
+        int offset = find(current, first, second);
+        double found = offset < 0 ? Double.NaN : current.buffer().getFloat(offset + 16);
+        boolean stale = offset >= 0 && current.buffer().getInt(offset + 20) != minute;
+        if(!lock.validate(stamp)){
+            stamp = lock.readLock();
+            try {
+                offset = find(table, first, second);
+                found = offset < 0 ? Double.NaN : table.buffer().getFloat(offset + 16);
+                stale = offset >= 0 && table.buffer().getInt(offset + 20) != minute;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if(stale) touch(first, second, minute);
+        return found;
+    }
+
+    public void put(long a, long b, double distance){
+        long stamp = lock.writeLock();
+        try {
+            insert(Math.min(a, b), Math.max(a, b), distance);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Stores {@code distances[i]} for the pair {@code (as[i], bs[i])} of the first {@code length} entries, under one lock. */
+    public void putAll(long[] as, long[] bs, double[] distances, int length){
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < length; i++){
+                insert(Math.min(as[i], bs[i]), Math.max(as[i], bs[i]), distances[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Grows or compacts the table once so that {@code entries} new pairs fit without another rebuild. */
+    public void reserve(int entries){
+        long stamp = lock.writeLock();
+        try {
+            ensureRoom(entries);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size(){
+        return count;
+    }
+
+    public int capacity(){
+        return table.capacity();
+    }
+
+    /** Writes the mapped pages back to the file. */
+    @Override
+    public void close(){
+        long stamp = lock.writeLock();
+        try {
+            flush();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Readers only look, so the last-use minute is written here, under the write lock.
+    private void touch(long first, long second, int minute){
+        long stamp = lock.writeLock();
+        try {
+            int offset = find(table, first, second);
+            if(offset >= 0) table.buffer().putInt(offset + 20, minute);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void flush(){
+        table.buffer().force();
+        flushedAt = System.nanoTime();
+    }
+
+    // Offset of the pair's slot, or -1 when it is absent or its checksum does not match.
+    private static int find(Table table, long first, long second){
+        MappedByteBuffer buffer = table.buffer();
+        int mask = table.capacity() - 1;
+        for (int slot = index(first, second, mask); ; slot = (slot + 1) & mask){
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            long k1 = buffer.getLong(offset);
+            long k2 = buffer.getLong(offset + 8);
+            if(k1 == 0 && k2 == 0) return -1;
+            if(k1 == first && k2 == second){
+                return isIntact(buffer, offset) ? offset : -1;
+            }
+        }
+    }
+
+    private void insert(long first, long second, double distance){
+        if(first == 0 && second == 0) return;
+        if(find(table, first, second) < 0) ensureRoom(1);
+        if(store(table, first, second, (float) distance, clock.getAsInt())){
+            count++;
+            table.buffer().putInt(12, count);
+            if(System.nanoTime() - flushedAt >= FLUSH_INTERVAL_NANOS) flush();
+        }
+    }
+
+    private void ensureRoom(int entries){
+        if(count + entries > maxEntries) compact();
+        int capacity = table.capacity();
+        while((count + entries) > capacity * MAX_LOAD && capacity < maxCapacity){
+            capacity *= 2;
+        }
+        if(capacity != table.capacity()) rebuild(capacity, Integer.MIN_VALUE);
+    }
+
+    // Writes the pair into its slot, the checksum last; false when the pair was already there and only got updated.
+    private static boolean store(Table table, long first, long second, float distance, int minute){
+        MappedByteBuffer buffer = table.buffer();
+        int mask = table.capacity() - 1;
+        for (int slot = index(first, second, mask); ; slot = (slot + 1) & mask){
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            long k1 = buffer.getLong(offset);
+            long k2 = buffer.getLong(offset + 8);
+            boolean empty = k1 == 0 && k2 == 0;
+            if(empty || (k1 == first && k2 == second)){
+                buffer.putLong(offset, first);
+                buffer.putLong(offset + 8, second);
+                buffer.putFloat(offset + 16, distance);
+                buffer.putInt(offset + 20, minute);
+                buffer.putInt(offset + 24, checksum(first, second, distance));
+                return empty;
+            }
+        }
+    }
+
+    // The cutoff is the last-use minute of the (maxEntries / 2)-th most recent entry.
+    private void compact(){
+        MappedByteBuffer buffer = table.buffer();
+        int[] minutes = new int[count];
+        int n = 0;
+        for (int slot = 0; slot < table.capacity() && n < count; slot++){
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            if(buffer.getLong(offset) != 0 || buffer.getLong(offset + 8) != 0){
+                minutes[n++] = buffer.getInt(offset + 20);
+            }
+        }
+        Arrays.sort(minutes, 0, n);
+        int keep = maxEntries / 2;
+        rebuild(table.capacity(), n > keep ? minutes[n - keep] : Integer.MIN_VALUE);
+    }
+
+    // Rehashes into a table of the given capacity every intact entry used after cutoff, then entries of
+    // cutoff itself until half of maxEntries is reached; MIN_VALUE keeps everything.
+    private void rebuild(int capacity, int cutoff){
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)){
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            Table rebuilt = new Table(buffer, capacity);
+
+            int kept = 0;
+            if(table != null){
+                kept = copy(rebuilt, cutoff, false, Integer.MAX_VALUE);
+                if(cutoff != Integer.MIN_VALUE){
+                    kept += copy(rebuilt, cutoff, true, maxEntries / 2 - kept);
+                }
+            }
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, capacity).putInt(12, kept).putLong(16, sourceHash);
+            buffer.force();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            this.table = rebuilt;
+            this.count = kept;
+            this.flushedAt = System.nanoTime();
+        } catch (IOException e){
+            throw new UncheckedIOException("Cannot write distance cache " + file, e);
+        }
+    }
+
+    // Copies up to limit intact entries used after cutoff, or exactly on it when onCutoff is set.
+    private int copy(Table target, int cutoff, boolean onCutoff, int limit){
+        MappedByteBuffer buffer = table.buffer();
+        int copied = 0;
+        for (int slot = 0; slot < table.capacity() && copied < limit; slot++){
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            long k1 = buffer.getLong(offset);
+            long k2 = buffer.getLong(offset + 8);
+            if((k1 == 0 && k2 == 0) || !isIntact(buffer, offset)) continue;
+            int minute = buffer.getInt(offset + 20);
+            boolean selected = onCutoff ? minute == cutoff : cutoff == Integer.MIN_VALUE || minute > cutoff;
+            if(!selected) continue;
+            store(target, k1, k2, buffer.getFloat(offset + 16), minute);
+            copied++;
+        }
+        return copied;
+    }
+
+    // Maps an existing table written for the same source; false when there is none to reuse.
+    private boolean open() throws IOException {
+        if(!Files.isRegularFile(file) || Files.size(file) < HEADER_BYTES) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int capacity = buffer.getInt(8);
+            boolean valid = buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getLong(16) == sourceHash
+                    && capacity > 0 && Integer.bitCount(capacity) == 1
+                    && channel.size() == HEADER_BYTES + (long) capacity * SLOT_BYTES;
+            if(!valid) return false;
+
+            this.table = new Table(buffer, capacity);
+            this.count = buffer.getInt(12);
+            return true;
+        }
+    }
+
+    private static int index(long first, long second, int mask){
+        long h = first * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(second * 0xC2B2AE3D27D4EB4FL, 31);
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static boolean isIntact(MappedByteBuffer buffer, int offset){
+        return buffer.getInt(offset + 24) == checksum(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getFloat(offset + 16));
+    }
+
+    // The last-use minute is left out: it is rewritten on reads, and a torn one only misorders compaction.
+    private static int checksum(long first, long second, float distance){
+        long h = (first * 0x9E3779B97F4A7C15L ^ second) * 0xC2B2AE3D27D4EB4FL + Float.floatToRawIntBits(distance);
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32)) | 1;
+    }
+
+    // FNV-1a, enough to tell distance sources apart.
+    private static long hash(String source){
+        long h = 0xcbf29ce484222325L;
+        for (byte b : source.getBytes(StandardCharsets.UTF_8)){
+            h = (h ^ b) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,195 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pairwise distances between the warehouse (index 0) and the deliveries of a tour (indexes 1..n).
+ * Each pair is computed at most once, on first access, from points prepared once per matrix, and kept
+ * in the upper triangle: row {@code i} holds the pairs {@code (i, j > i)} and is only allocated when one
+ * of them is first read, so a matrix nobody reads costs O(n). At {@link #MAX_CACHED_POINTS} points the
+ * full triangle takes about 17 MB; above it nothing is cached and every lookup is computed directly.
+ * {@link #fill()} computes every remaining pair a row at a time through the batched provider entry
+ * point; instances are not thread-safe until it has been called.
+ * <p>
+ * A provider that {@link DistanceProvider#prefersMatrix() prefers matrices}, such as the road network,
+ * fills the whole cache in one call on the first cache miss, writing straight into the rows. Above the cap
+ * such a provider would be queried pair by pair, so the matrix measures with its
+ * {@link DistanceProvider#geometric() geometric} distances instead. A {@link PersistentDistanceCache} is read
+ * through the table of the matrix's warehouse, and bypassed above the cap, where every pair would go through it
+ * uncached.
+ */
+public class DistanceMatrix {
+    public static final int WAREHOUSE = 0;
+    public static final int MAX_CACHED_POINTS = 2048;
+
+    private final Warehouse warehouse;
+    private final List<Delivery> deliveries;
+    private final Map<Delivery, Integer> indexes;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final PreparedPoints points;
+    private final double[][] rows;
+    private final int size;
+    private final DistanceProvider distanceProvider;
+    private final DistanceProvider lookup;
+    private volatile boolean filled;
+
+    public DistanceMatrix(Warehouse warehouse, List<Delivery> deliveries, DistanceProvider distanceProvider){
+        if(warehouse == null){
+            throw new IllegalArgumentException("Distance matrix requires a warehouse");
+        }
+        this.warehouse = warehouse;
+        this.deliveries = new ArrayList<>(deliveries);
+        this.size = this.deliveries.size() + 1;
+        this.distanceProvider = size > MAX_CACHED_POINTS && distanceProvider.prefersMatrix() ? distanceProvider.geometric() : distanceProvider;
+        this.lookup = this.distanceProvider instanceof PersistentDistanceCache cache
+                ? size <= MAX_CACHED_POINTS ? cache.forWarehouse(warehouse, size) : cache.getDelegate()
+                : this.distanceProvider;
+        this.indexes = new IdentityHashMap<>(size);
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.points = new PreparedPoints(size);
+
+        latitudes[WAREHOUSE] = warehouse.getAltitude();
+        longitudes[WAREHOUSE] = warehouse.getLongitude();
+        points.set(WAREHOUSE, latitudes[WAREHOUSE], longitudes[WAREHOUSE]);
+        for (int i = 1; i < size; i++){
+            Delivery d = this.deliveries.get(i - 1);
+            latitudes[i] = d.getAltitude();
+            longitudes[i] = d.getLongitude();
+            points.set(i, latitudes[i], longitudes[i]);
+            indexes.put(d, i);
+        }
+
+        this.rows = size <= MAX_CACHED_POINTS ? new double[size][] : null;
+    }
+
+    public static DistanceMatrix of(Tour tour, DistanceProvider distanceProvider){
+        return new DistanceMatrix(tour.getWarehouse(), tour.getDeliveries(), distanceProvider);
+    }
+
+    public double distance(int from, int to){
+        if(from == to) return 0;
+        if(rows == null) return lookup.distance(points.get(from), points.get(to));
+
+        int i = Math.min(from, to);
+        int j = Math.max(from, to);
+        double[] row = rows[i];
+        if(row == null){
+            if(lookup.prefersMatrix()) return fill().rows[i][j - i - 1];
+            row = new double[size - 1 - i];
+            Arrays.fill(row, Double.NaN);
+            rows[i] = row;
+        }
+
+        double cached = row[j - i - 1];
+        if(!Double.isNaN(cached)) return cached;
+
+        double computed = lookup.distance(points.get(from), points.get(to));
+        row[j - i - 1] = computed;
+        return computed;
+    }
+
+    /**
+     * Same value as {@link #distance}, but a pair that is not cached yet is computed without allocating or
+     * filling anything: for single walks along a route, which read each pair once.
+     */
+    public double routeDistance(int from, int to){
+        if(from == to) return 0;
+        if(rows != null){
+            double[] row = rows[Math.min(from, to)];
+            if(row != null){
+                double cached = row[Math.abs(to - from) - 1];
+                if(!Double.isNaN(cached)) return cached;
+            }
+        }
+        return lookup.distance(points.get(from), points.get(to));
+    }
+
+    public DistanceMatrix fill(){
+        if(rows == null || filled) return this;
+        if(lookup.prefersMatrix()){
+            fillFromMatrix();
+            return this;
+        }
+
+        double[] buffer = new double[size];
+        for (int i = 0; i < size - 1; i++){
+            lookup.distances(points.get(i), points, i + 1, size, buffer);
+            double[] row = rows[i];
+            if(row == null){
+                rows[i] = Arrays.copyOfRange(buffer, i + 1, size);
+                continue;
+            }
+            for (int j = i + 1; j < size; j++){
+                if(Double.isNaN(row[j - i - 1])) row[j - i - 1] = buffer[j];
+            }
+        }
+        filled = true;
+        return this;
+    }
+
+    private void fillFromMatrix(){
+        for (int i = 0; i < size - 1; i++){
+            rows[i] = new double[size - 1 - i];
+        }
+        lookup.matrix(points, rows);
+        filled = true;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int deliveryCount(){
+        return size - 1;
+    }
+
+    public DistanceProvider getProvider(){
+        return distanceProvider;
+    }
+
+    public Warehouse getWarehouse(){
+        return warehouse;
+    }
+
+    public Delivery delivery(int index){
+        return deliveries.get(index - 1);
+    }
+
+    public int indexOf(Delivery delivery){
+        Integer index = indexes.get(delivery);
+        if(index == null){
+            throw new IllegalArgumentException("Delivery is not part of this distance matrix");
+        }
+        return index;
+    }
+
+    public double latitude(int index){
+        return latitudes[index];
+    }
+
+    public double longitude(int index){
+        return longitudes[index];
+    }
+
+    public PreparedPoint point(int index){
+        return points.get(index);
+    }
+
+    public List<Delivery> toDeliveries(int[] order){
+        List<Delivery> ordered = new ArrayList<>(order.length);
+        for (int index : order){
+            ordered.add(delivery(index));
+        }
+        return ordered;
+    }
+}
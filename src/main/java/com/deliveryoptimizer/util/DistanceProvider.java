@@ -0,0 +1,41 @@
+package com.deliveryoptimizer.util;
+
+/**
+ * Source of the travel distances, in kilometres, that the optimizers route on. {@link DistanceCalculator}
+ * answers with great-circle distances; a road network provider answers with shortest paths.
+ * <p>
+ * Distances are expected to be symmetric: every optimizer treats {@code a -> b} and {@code b -> a} as the same edge.
+ */
+public interface DistanceProvider {
+
+    double distance(PreparedPoint from, PreparedPoint to);
+
+    /** Writes the distance from origin to each target in {@code [start, end)} into the same slots of out. */
+    void distances(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out);
+
+    /** True when {@link #matrix} is much cheaper than asking for the pairs one at a time. */
+    default boolean prefersMatrix(){
+        return false;
+    }
+
+    /**
+     * Writes every pairwise distance between points into the upper triangle {@code rows}, whose row {@code i}
+     * is already allocated and holds the pairs {@code (i, j > i)} at {@code j - i - 1}.
+     */
+    default void matrix(PreparedPoints points, double[][] rows){
+        int size = points.size();
+        double[] buffer = new double[size];
+        for (int i = 0; i < size - 1; i++){
+            distances(points.get(i), points, i + 1, size, buffer);
+            System.arraycopy(buffer, i + 1, rows[i], 0, size - 1 - i);
+        }
+    }
+
+    /**
+     * The straight-line distances behind this provider, for matrices too large to cache, where a provider
+     * that prefers matrices would be asked one pair at a time.
+     */
+    default DistanceProvider geometric(){
+        return this;
+    }
+}
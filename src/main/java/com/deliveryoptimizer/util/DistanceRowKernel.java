@@ -0,0 +1,12 @@
+package com.deliveryoptimizer.util;
+
+/**
+ * Bulk part of {@link DistanceCalculator#distances}: computes as much of {@code [start, end)} as it
+ * handles natively and returns the index where the caller must continue with the scalar formula.
+ */
+interface DistanceRowKernel {
+
+    int haversine(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out);
+
+    int equirectangular(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out);
+}
@@ -0,0 +1,71 @@
+package com.deliveryoptimizer.util;
+
+/**
+ * Candidate lists for local search: for each node of a route, its {@code k} closest other nodes of the
+ * same route in ascending distance, stored flat at {@code node * k}. Small routes are built by one row scan
+ * per node. A route over every point of a large matrix of straight-line distances asks a
+ * {@link SpatialGridIndex} instead, which only measures the points of a few cells around each node.
+ */
+public class NeighbourLists {
+    public static final int SPATIAL_INDEX_THRESHOLD = 512;
+
+    private NeighbourLists(){}
+
+    /** {@code nodes} are matrix indexes; {@code k} must be smaller than {@code nodes.length}. */
+    public static int[] build(DistanceMatrix distanceMatrix, int[] nodes, int k){
+        if(nodes.length > SPATIAL_INDEX_THRESHOLD && nodes.length == distanceMatrix.size()
+                && PersistentDistanceCache.uncached(distanceMatrix.getProvider()) instanceof DistanceCalculator calculator){
+            return buildWithSpatialIndex(distanceMatrix, calculator, k);
+        }
+
+        int[] lists = new int[distanceMatrix.size() * k];
+        double[] best = new double[k];
+        for (int a : nodes){
+            int base = a * k;
+            int filled = 0;
+            for (int c : nodes){
+                if(c == a) continue;
+                double d = distanceMatrix.distance(a, c);
+                if(filled == k && d >= best[k - 1]) continue;
+
+                int slot = filled < k ? filled++ : k - 1;
+                while (slot > 0 && best[slot - 1] > d){
+                    best[slot] = best[slot - 1];
+                    lists[base + slot] = lists[base + slot - 1];
+                    slot--;
+                }
+                best[slot] = d;
+                lists[base + slot] = c;
+            }
+        }
+        return lists;
+    }
+
+    // The grid holds the deliveries only, so the warehouse is merged into each delivery's list by distance.
+    private static int[] buildWithSpatialIndex(DistanceMatrix distanceMatrix, DistanceCalculator calculator, int k){
+        int size = distanceMatrix.size();
+        int[] lists = new int[size * k];
+        int[] nearest = new int[k];
+        SpatialGridIndex index = new SpatialGridIndex(distanceMatrix, calculator);
+        PreparedPoint warehouse = distanceMatrix.point(DistanceMatrix.WAREHOUSE);
+
+        index.nearest(distanceMatrix.latitude(DistanceMatrix.WAREHOUSE), distanceMatrix.longitude(DistanceMatrix.WAREHOUSE), -1, nearest);
+        System.arraycopy(nearest, 0, lists, 0, k);
+        for (int a = 1; a < size; a++){
+            PreparedPoint point = distanceMatrix.point(a);
+            index.nearest(distanceMatrix.latitude(a), distanceMatrix.longitude(a), a, nearest);
+            double toWarehouse = calculator.distance(point, warehouse);
+            int base = a * k;
+            boolean merged = false;
+            for (int w = 0, n = 0; w < k; w++){
+                if(!merged && toWarehouse < calculator.distance(point, distanceMatrix.point(nearest[n]))){
+                    lists[base + w] = DistanceMatrix.WAREHOUSE;
+                    merged = true;
+                } else {
+                    lists[base + w] = nearest[n++];
+                }
+            }
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,27 @@
+package com.deliveryoptimizer.util;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Keyset pages for the list endpoints: rows with an id above the cursor {@code after}, in id order, at most
+ * {@code limit} of them. The next page starts after the last id returned; a shorter page is the last one.
+ * Unlike offsets, a page costs the same index range scan however deep it is.
+ */
+public class Pagination {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private Pagination(){}
+
+    public static long after(Long after){
+        return after == null ? 0 : after;
+    }
+
+    public static Limit limit(Integer limit){
+        if(limit == null) return Limit.of(DEFAULT_LIMIT);
+        if(limit < 1 || limit > MAX_LIMIT){
+            throw new RuntimeException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return Limit.of(limit);
+    }
+}
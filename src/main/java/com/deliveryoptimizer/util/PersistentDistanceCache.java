@@ -0,0 +1,197 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the distances of another provider on disk, one {@link DistanceCacheFile} per warehouse, so the
+ * recurring customers of a warehouse are not measured again on every optimization or after a restart.
+ * <p>
+ * Points are keyed by their coordinates quantized to {@link #RESOLUTION_DEGREES} (about a metre), two
+ * points sharing a key being treated as the same place. Distance matrices pick the table of their warehouse
+ * through {@link #forWarehouse}; used directly, or for a warehouse not saved yet, the cache passes through.
+ * So does a matrix with more pairs than half the table keeps: stored, it would push its own pairs out again
+ * at the next compaction and miss on every read.
+ */
+public class PersistentDistanceCache implements DistanceProvider, AutoCloseable {
+    public static final double RESOLUTION_DEGREES = 1e-5;
+
+    private final DistanceProvider delegate;
+    private final Path directory;
+    private final String source;
+    private final int maxEntries;
+    private final Map<Long, DistanceProvider> warehouses = new ConcurrentHashMap<>();
+    private final Map<Long, DistanceCacheFile> files = new ConcurrentHashMap<>();
+
+    /** {@code source} names the distances of the delegate; a table written for another source is discarded. */
+    public PersistentDistanceCache(DistanceProvider delegate, Path directory, String source, int maxEntries){
+        this.delegate = delegate;
+        this.directory = directory;
+        this.source = source;
+        this.maxEntries = maxEntries;
+    }
+
+    public DistanceProvider getDelegate(){
+        return delegate;
+    }
+
+    /** The provider behind a persistent cache, which holds the same distances; any other provider as is. */
+    public static DistanceProvider uncached(DistanceProvider provider){
+        return provider instanceof PersistentDistanceCache cache ? cache.getDelegate() : provider;
+    }
+
+    /** The view of this cache backed by the table of the warehouse, for a matrix of {@code points} points. */
+    public DistanceProvider forWarehouse(Warehouse warehouse, int points){
+        if(warehouse == null || warehouse.getId() == null) return delegate;
+        if((long) points * (points - 1) / 2 > maxEntries / 2) return delegate;
+        return warehouses.computeIfAbsent(warehouse.getId(), id -> new WarehouseDistances(file(id)));
+    }
+
+    public DistanceCacheFile file(long warehouseId){
+        return files.computeIfAbsent(warehouseId, id -> {
+            try {
+                return new DistanceCacheFile(directory.resolve("warehouse-" + id + ".dist"), source, maxEntries);
+            } catch (IOException e){
+                throw new UncheckedIOException("Cannot open the distance cache of warehouse " + id, e);
+            }
+        });
+    }
+
+    @Override
+    public double distance(PreparedPoint from, PreparedPoint to){
+        return delegate.distance(from, to);
+    }
+
+    @Override
+    public void distances(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out){
+        delegate.distances(origin, targets, start, end, out);
+    }
+
+    @Override
+    public boolean prefersMatrix(){
+        return delegate.prefersMatrix();
+    }
+
+    @Override
+    public void matrix(PreparedPoints points, double[][] rows){
+        delegate.matrix(points, rows);
+    }
+
+    @Override
+    public DistanceProvider geometric(){
+        return delegate.geometric();
+    }
+
+    @Override
+    public void close(){
+        files.values().forEach(DistanceCacheFile::close);
+    }
+
+    static long key(PreparedPoint point){
+        long lat = Math.round((Math.toDegrees(point.latRad()) + 90) / RESOLUTION_DEGREES);
+        long lon = Math.round((Math.toDegrees(point.lonRad()) + 180) / RESOLUTION_DEGREES);
+        return lat << 32 | lon;
+    }
+
+    private final class WarehouseDistances implements DistanceProvider {
+        private final DistanceCacheFile file;
+
+        private WarehouseDistances(DistanceCacheFile file){
+            this.file = file;
+        }
+
+        @Override
+        public double distance(PreparedPoint from, PreparedPoint to){
+            long a = key(from);
+            long b = key(to);
+            if(a == b) return delegate.distance(from, to);
+
+            double cached = file.get(a, b);
+            if(!Double.isNaN(cached)) return cached;
+            double computed = delegate.distance(from, to);
+            file.put(a, b, computed);
+            return computed;
+        }
+
+        @Override
+        public void distances(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out){
+            long a = key(origin);
+            long[] keys = new long[end - start];
+            int misses = 0;
+            for (int i = start; i < end; i++){
+                keys[i - start] = key(targets.get(i));
+                out[i] = keys[i - start] == a ? Double.NaN : file.get(a, keys[i - start]);
+                if(Double.isNaN(out[i])) misses++;
+            }
+            if(misses == 0) return;
+
+            double[] cached = out.clone();
+            delegate.distances(origin, targets, start, end, out);
+            long[] as = new long[misses];
+            long[] bs = new long[misses];
+            double[] values = new double[misses];
+            int stored = 0;
+            for (int i = start; i < end; i++){
+                if(!Double.isNaN(cached[i])){
+                    out[i] = cached[i];
+                } else if(keys[i - start] != a){
+                    as[stored] = a;
+                    bs[stored] = keys[i - start];
+                    values[stored++] = out[i];
+                }
+            }
+            file.putAll(as, bs, values, stored);
+        }
+
+        @Override
+        public boolean prefersMatrix(){
+            return delegate.prefersMatrix();
+        }
+
+        // One miss sends the whole matrix to the delegate: a provider that prefers matrices answers all pairs in one pass.
+        // Only the pairs that missed are stored, a row at a time, so saving the matrix needs no second copy of it.
+        @Override
+        public void matrix(PreparedPoints points, double[][] rows){
+            int size = points.size();
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++){
+                keys[i] = key(points.get(i));
+            }
+
+            BitSet missed = new BitSet();
+            int misses = 0;
+            for (int i = 0; i < size; i++){
+                for (int j = i + 1; j < size; j++){
+                    double cached = keys[i] == keys[j] ? delegate.distance(points.get(i), points.get(j)) : file.get(keys[i], keys[j]);
+                    if(Double.isNaN(cached)){
+                        missed.set(i * size + j);
+                        misses++;
+                    }
+                    rows[i][j - i - 1] = cached;
+                }
+            }
+            if(misses == 0) return;
+
+            delegate.matrix(points, rows);
+            file.reserve(misses);
+            long[] as = new long[size];
+            long[] bs = new long[size];
+            double[] values = new double[size];
+            for (int i = 0; i < size - 1; i++){
+                int stored = 0;
+                for (int j = missed.nextSetBit(i * size); j >= 0 && j < (i + 1) * size; j = missed.nextSetBit(j + 1)){
+                    as[stored] = keys[i];
+                    bs[stored] = keys[j - i * size];
+                    values[stored++] = rows[i][j - i * size - i - 1];
+                }
+                file.putAll(as, bs, values, stored);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+
+/**
+ * A coordinate converted once for repeated distance computations: latitude and longitude in radians
+ * and the cosine of the latitude, so a pairwise distance needs no conversions and no cosine.
+ */
+public record PreparedPoint(double latRad, double lonRad, double cosLat) {
+
+    public static PreparedPoint of(double lat, double lon){
+        double latRad = Math.toRadians(lat);
+        return new PreparedPoint(latRad, Math.toRadians(lon), Math.cos(latRad));
+    }
+
+    public static PreparedPoint of(Warehouse w){
+        return of(w.getAltitude(), w.getLongitude());
+    }
+
+    public static PreparedPoint of(Delivery d){
+        return of(d.getAltitude(), d.getLongitude());
+    }
+}
@@ -0,0 +1,43 @@
+package com.deliveryoptimizer.util;
+
+/**
+ * Struct-of-arrays counterpart of {@link PreparedPoint}, laid out so one origin can be compared with a
+ * whole range of points in a single pass (see {@link DistanceCalculator#distances}).
+ */
+public final class PreparedPoints {
+    private final double[] latRads;
+    private final double[] lonRads;
+    private final double[] cosLats;
+
+    public PreparedPoints(int size){
+        this.latRads = new double[size];
+        this.lonRads = new double[size];
+        this.cosLats = new double[size];
+    }
+
+    public void set(int index, double lat, double lon){
+        latRads[index] = Math.toRadians(lat);
+        lonRads[index] = Math.toRadians(lon);
+        cosLats[index] = Math.cos(latRads[index]);
+    }
+
+    public PreparedPoint get(int index){
+        return new PreparedPoint(latRads[index], lonRads[index], cosLats[index]);
+    }
+
+    public int size(){
+        return latRads.length;
+    }
+
+    double[] latRads(){
+        return latRads;
+    }
+
+    double[] lonRads(){
+        return lonRads;
+    }
+
+    double[] cosLats(){
+        return cosLats;
+    }
+}
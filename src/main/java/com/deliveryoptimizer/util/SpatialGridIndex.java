@@ -0,0 +1,225 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.enums.DistanceMode;
+
+/**
+ * Uniform latitude/longitude grid over the deliveries of a {@link DistanceMatrix}, answering exact
+ * haversine nearest-neighbour queries, for the closest point or the k closest, by scanning rings of cells
+ * around the query point until no unscanned cell can hold anything closer. Removal is O(1); the grid is rebuilt over the remaining
+ * points once half of them are gone so late queries do not wander through empty cells.
+ * Assumes the points do not straddle the antimeridian. The ring bound is derived from the configured
+ * distance formula, with the smallest latitude cosine over the indexed points standing in for the
+ * unknown point's, so the answer is the exact closest point under either distance mode.
+ */
+public class SpatialGridIndex {
+    private static final int POINTS_PER_CELL = 2;
+    private static final double MIN_SPAN_DEGREES = 1e-9;
+    private static final double BOUND_SLACK = 1 - 1e-9;
+
+    private final DistanceMatrix distanceMatrix;
+    private final DistanceCalculator distanceCalculator;
+    private final boolean equirectangular;
+    private final boolean[] removed;
+    private final int[] position;
+    private final int[] cellOf;
+    private int[] cellStart;
+    private int[] cellCount;
+    private int[] items;
+    private int rows;
+    private int cols;
+    private double minLat;
+    private double minLon;
+    private double cellLat;
+    private double cellLon;
+    private double cosMinLat;
+    private int indexed;
+    private int size;
+    private final int[] single = new int[1];
+    private int[] found;
+    private double[] foundDistances = new double[1];
+    private int foundCount;
+    private int wanted;
+    private int excluded;
+
+    public SpatialGridIndex(DistanceMatrix distanceMatrix, DistanceCalculator distanceCalculator){
+        this.distanceMatrix = distanceMatrix;
+        this.distanceCalculator = distanceCalculator;
+        this.equirectangular = distanceCalculator.getMode() == DistanceMode.EQUIRECTANGULAR;
+        int n = distanceMatrix.deliveryCount();
+        this.removed = new boolean[n + 1];
+        this.position = new int[n + 1];
+        this.cellOf = new int[n + 1];
+        this.size = n;
+        removed[DistanceMatrix.WAREHOUSE] = true;
+        rebuild();
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public void remove(int index){
+        if(removed[index]) return;
+        removed[index] = true;
+        size--;
+
+        int cell = cellOf[index];
+        int last = cellStart[cell] + cellCount[cell] - 1;
+        int moved = items[last];
+        items[position[index]] = moved;
+        position[moved] = position[index];
+        cellCount[cell]--;
+
+        if(size > 0 && size * 2 < indexed) rebuild();
+    }
+
+    /** Returns the index of the closest remaining delivery (lowest index on ties), or -1 when empty. */
+    public int nearest(double lat, double lon){
+        return nearest(lat, lon, -1, single) == 0 ? -1 : single[0];
+    }
+
+    /**
+     * Fills {@code out} with the {@code out.length} closest remaining deliveries other than {@code exclude}, in
+     * ascending distance (lowest index on ties), and returns how many it found: fewer when fewer remain.
+     */
+    public int nearest(double lat, double lon, int exclude, int[] out){
+        wanted = Math.min(out.length, size - (exclude > 0 && !removed[exclude] ? 1 : 0));
+        if(wanted <= 0) return 0;
+
+        int row = clamp((int) Math.floor((lat - minLat) / cellLat), rows);
+        int col = clamp((int) Math.floor((lon - minLon) / cellLon), cols);
+        double latOffset = Math.max(0, Math.min(lat - (minLat + row * cellLat), minLat + (row + 1) * cellLat - lat));
+        double lonOffset = Math.max(0, Math.min(lon - (minLon + col * cellLon), minLon + (col + 1) * cellLon - lon));
+        PreparedPoint query = PreparedPoint.of(lat, lon);
+
+        found = out;
+        if(foundDistances.length < wanted) foundDistances = new double[wanted];
+        foundCount = 0;
+        excluded = exclude;
+        int maxRing = Math.max(rows, cols);
+
+        for (int r = 0; r <= maxRing; r++){
+            int top = row - r;
+            int bottom = row + r;
+            for (int c = Math.max(0, col - r); c <= Math.min(cols - 1, col + r); c++){
+                if(top >= 0) scanCell(top * cols + c, query);
+                if(r > 0 && bottom < rows) scanCell(bottom * cols + c, query);
+            }
+            for (int rr = Math.max(0, top + 1); rr <= Math.min(rows - 1, bottom - 1); rr++){
+                if(col - r >= 0) scanCell(rr * cols + col - r, query);
+                if(r > 0 && col + r < cols) scanCell(rr * cols + col + r, query);
+            }
+
+            if(foundCount == wanted && foundDistances[wanted - 1] < lowerBound(r * cellLat + latOffset, r * cellLon + lonOffset, query.cosLat())) break;
+        }
+        return foundCount;
+    }
+
+    // Insertion into the sorted list of the closest points found so far.
+    private void scanCell(int cell, PreparedPoint query){
+        int start = cellStart[cell];
+        int end = start + cellCount[cell];
+        for (int k = start; k < end; k++){
+            int index = items[k];
+            if(index == excluded) continue;
+            double d = distanceCalculator.distance(query, distanceMatrix.point(index));
+            if(foundCount == wanted && !closer(d, index, foundCount - 1)) continue;
+
+            int slot = foundCount < wanted ? foundCount++ : wanted - 1;
+            while (slot > 0 && closer(d, index, slot - 1)){
+                found[slot] = found[slot - 1];
+                foundDistances[slot] = foundDistances[slot - 1];
+                slot--;
+            }
+            found[slot] = index;
+            foundDistances[slot] = d;
+        }
+    }
+
+    private boolean closer(double d, int index, int slot){
+        return d < foundDistances[slot] || (d == foundDistances[slot] && index < found[slot]);
+    }
+
+    // Smallest distance to any indexed point at least latGap degrees of latitude or lonGap degrees of longitude
+    // away. Both formulas only grow with |dLat| and with the cosines, so cosMinLat bounds the unknown point.
+    // Haversine: sin(d/2R) >= sqrt(cos q * cos p) * sin(dLon/2). Equirectangular: d >= R * dLon * (cos q + cos p) / 2.
+    private double lowerBound(double latGap, double lonGap, double cosLat){
+        double byLat = DistanceCalculator.EARTH_RADIUS_KM * Math.toRadians(latGap);
+        double lon = Math.toRadians(Math.min(lonGap, 180));
+        double byLon = equirectangular
+                ? DistanceCalculator.EARTH_RADIUS_KM * lon * (cosLat + cosMinLat) * 0.5
+                : 2 * DistanceCalculator.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(cosLat * cosMinLat) * Math.sin(lon / 2)));
+        return Math.min(byLat, byLon) * BOUND_SLACK;
+    }
+
+    private void rebuild(){
+        int n = distanceMatrix.deliveryCount();
+        double maxLat = -Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE;
+        double maxAbsLat = 0;
+        minLat = Double.MAX_VALUE;
+        minLon = Double.MAX_VALUE;
+
+        for (int i = 1; i <= n; i++){
+            if(removed[i]) continue;
+            double lat = distanceMatrix.latitude(i);
+            double lon = distanceMatrix.longitude(i);
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLon = Math.min(minLon, lon);
+            maxLon = Math.max(maxLon, lon);
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(lat));
+        }
+
+        indexed = size;
+        if(size == 0){
+            rows = cols = 1;
+            minLat = minLon = 0;
+            cellLat = cellLon = 1;
+            cellStart = new int[2];
+            cellCount = new int[1];
+            items = new int[0];
+            return;
+        }
+
+        double spanLat = Math.max(maxLat - minLat, MIN_SPAN_DEGREES);
+        double spanLon = Math.max(maxLon - minLon, MIN_SPAN_DEGREES);
+        int cells = Math.max(1, size / POINTS_PER_CELL);
+        rows = Math.max(1, Math.min(cells, (int) Math.round(Math.sqrt(cells * spanLat / spanLon))));
+        cols = Math.max(1, cells / rows);
+        cellLat = spanLat / rows;
+        cellLon = spanLon / cols;
+        cosMinLat = Math.cos(Math.toRadians(Math.min(90, maxAbsLat)));
+
+        cellStart = new int[rows * cols + 1];
+        cellCount = new int[rows * cols];
+        items = new int[size];
+
+        for (int i = 1; i <= n; i++){
+            if(removed[i]) continue;
+            int cell = cellIndex(distanceMatrix.latitude(i), distanceMatrix.longitude(i));
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++){
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 1; i <= n; i++){
+            if(removed[i]) continue;
+            int cell = cellOf[i];
+            int slot = cellStart[cell] + cellCount[cell]++;
+            items[slot] = i;
+            position[i] = slot;
+        }
+    }
+
+    private int cellIndex(double lat, double lon){
+        int row = clamp((int) Math.floor((lat - minLat) / cellLat), rows);
+        int col = clamp((int) Math.floor((lon - minLon) / cellLon), cols);
+        return row * cols + col;
+    }
+
+    private static int clamp(int value, int bound){
+        return Math.max(0, Math.min(bound - 1, value));
+    }
+}
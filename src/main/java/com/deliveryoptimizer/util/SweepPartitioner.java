@@ -0,0 +1,155 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits deliveries into capacity-feasible clusters with the polar sweep: deliveries are sorted by
+ * their bearing around the warehouse and handed out in that order, filling one vehicle until the next
+ * delivery would exceed its weight, volume or delivery count, then moving on to the next vehicle.
+ * The sweep starts after the widest empty sector, so a dense sector is not cut in two.
+ * <p>
+ * Vehicles are filled largest first. Sorting dominates the cost, O(n log n) for n deliveries, which
+ * keeps planning several thousand deliveries well under a second; routing each cluster is left to
+ * the optimizers.
+ * <p>
+ * A warehouse only plans its catchment: the deliveries that are closer to it, as the crow flies, than to
+ * any other warehouse. Each delivery therefore belongs to exactly one warehouse, the one with the lowest
+ * id on a tie, and is never routed out of a distant depot because it was planned first.
+ */
+public class SweepPartitioner {
+    private static final DistanceCalculator GREAT_CIRCLE = new DistanceCalculator();
+
+    private SweepPartitioner(){}
+
+    public record Cluster(Vehicle vehicle, List<Delivery> deliveries) {}
+
+    /** Clusters in sweep order, and the deliveries that fit no vehicle or were left when the fleet ran out. */
+    public record Result(List<Cluster> clusters, List<Delivery> unassigned) {}
+
+    /** Deliveries closest to the warehouse, and those that belong to another one. */
+    public record Catchment(List<Delivery> inside, List<Delivery> outside) {}
+
+    /** {@code warehouses} are all the warehouses, with or without {@code warehouse} itself. */
+    public static Catchment catchment(Warehouse warehouse, List<Warehouse> warehouses, List<Delivery> deliveries){
+        List<Warehouse> others = warehouses.stream()
+                .filter(other -> !other.getId().equals(warehouse.getId()))
+                .toList();
+        PreparedPoint home = PreparedPoint.of(warehouse);
+        PreparedPoint[] otherPoints = others.stream().map(PreparedPoint::of).toArray(PreparedPoint[]::new);
+
+        List<Delivery> inside = new ArrayList<>();
+        List<Delivery> outside = new ArrayList<>();
+        for (Delivery delivery : deliveries){
+            PreparedPoint point = PreparedPoint.of(delivery);
+            double own = GREAT_CIRCLE.distance(home, point);
+            boolean closer = false;
+            for (int i = 0; i < otherPoints.length && !closer; i++){
+                double distance = GREAT_CIRCLE.distance(otherPoints[i], point);
+                closer = distance < own || (distance == own && others.get(i).getId() < warehouse.getId());
+            }
+            (closer ? outside : inside).add(delivery);
+        }
+        return new Catchment(inside, outside);
+    }
+
+    public static Result partition(Warehouse warehouse, List<Delivery> deliveries, List<Vehicle> vehicles){
+        List<Vehicle> fleet = new ArrayList<>(vehicles);
+        fleet.sort(Comparator.comparingInt(Vehicle::getMaxDeliveries)
+                .thenComparingDouble(Vehicle::getMaxWeight)
+                .thenComparingDouble(Vehicle::getMaxVolume)
+                .reversed());
+
+        List<Delivery> unassigned = new ArrayList<>();
+        List<Delivery> candidates = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries){
+            if(fleet.stream().anyMatch(vehicle -> fits(vehicle, 0, 0, 0, delivery))){
+                candidates.add(delivery);
+            } else {
+                unassigned.add(delivery);
+            }
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        int vehicle = 0;
+        List<Delivery> current = new ArrayList<>();
+        double weight = 0;
+        double volume = 0;
+
+        for (Delivery delivery : sweepOrder(warehouse, candidates)){
+            if(vehicle == fleet.size()){
+                unassigned.add(delivery);
+                continue;
+            }
+            if(!fits(fleet.get(vehicle), weight, volume, current.size(), delivery)){
+                if(current.isEmpty()){
+                    // Fits a vehicle that was already filled, but not this smaller one.
+                    unassigned.add(delivery);
+                    continue;
+                }
+                clusters.add(new Cluster(fleet.get(vehicle), current));
+                current = new ArrayList<>();
+                weight = 0;
+                volume = 0;
+                if(++vehicle == fleet.size() || !fits(fleet.get(vehicle), 0, 0, 0, delivery)){
+                    unassigned.add(delivery);
+                    continue;
+                }
+            }
+            current.add(delivery);
+            weight += delivery.getMaxWeight();
+            volume += delivery.getMaxVolume();
+        }
+        if(!current.isEmpty()){
+            clusters.add(new Cluster(fleet.get(vehicle), current));
+        }
+        return new Result(clusters, unassigned);
+    }
+
+    // Bearings come from an equirectangular projection around the warehouse, which preserves angles well enough at city scale.
+    static List<Delivery> sweepOrder(Warehouse warehouse, List<Delivery> deliveries){
+        int n = deliveries.size();
+        if(n < 2) return new ArrayList<>(deliveries);
+
+        double cosLat = Math.cos(Math.toRadians(warehouse.getAltitude()));
+        double[] angles = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++){
+            Delivery d = deliveries.get(i);
+            double dLon = d.getLongitude() - warehouse.getLongitude();
+            if(dLon > 180) dLon -= 360;
+            else if(dLon < -180) dLon += 360;
+            angles[i] = Math.atan2(d.getAltitude() - warehouse.getAltitude(), dLon * cosLat);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> angles[i]));
+
+        int start = 0;
+        double widestGap = angles[order[0]] + 2 * Math.PI - angles[order[n - 1]];
+        for (int i = 1; i < n; i++){
+            double gap = angles[order[i]] - angles[order[i - 1]];
+            if(gap > widestGap){
+                widestGap = gap;
+                start = i;
+            }
+        }
+
+        List<Delivery> swept = new ArrayList<>(n);
+        for (int i = 0; i < n; i++){
+            swept.add(deliveries.get(order[(start + i) % n]));
+        }
+        return swept;
+    }
+
+    private static boolean fits(Vehicle vehicle, double weight, double volume, int count, Delivery delivery){
+        return weight + delivery.getMaxWeight() <= vehicle.getMaxWeight()
+                && volume + delivery.getMaxVolume() <= vehicle.getMaxVolume()
+                && count + 1 <= vehicle.getMaxDeliveries();
+    }
+}
@@ -0,0 +1,55 @@
+package com.deliveryoptimizer.util;
+
+import java.time.LocalTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A time window as minutes of the day, {@code start} inclusive and {@code end} the latest minute service
+ * may begin. Delivery time slots are free-form strings, so {@link #parse} accepts the common shapes
+ * ({@code 09:00-10:00}, {@code 9h-10h30}, {@code 9 - 10}) and falls back to {@link #ALL_DAY} for anything
+ * it cannot read, including windows that run past midnight.
+ */
+public record TimeWindow(int start, int end) {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final TimeWindow ALL_DAY = new TimeWindow(0, MINUTES_PER_DAY);
+
+    private static final Pattern SLOT = Pattern.compile(
+            "\\s*(\\d{1,2})(?:\\s*[:hH.]\\s*(\\d{2})?)?\\s*[-–à]\\s*(\\d{1,2})(?:\\s*[:hH.]\\s*(\\d{2})?)?\\s*");
+
+    public static TimeWindow parse(String slot){
+        if(slot == null) return ALL_DAY;
+        Matcher matcher = SLOT.matcher(slot);
+        if(!matcher.matches()) return ALL_DAY;
+
+        int start = minutes(matcher.group(1), matcher.group(2));
+        int end = minutes(matcher.group(3), matcher.group(4));
+        if(start < 0 || end < 0 || end <= start) return ALL_DAY;
+        return new TimeWindow(start, end);
+    }
+
+    /** The window between two times, with a missing bound left open. */
+    public static TimeWindow of(LocalTime open, LocalTime close){
+        int start = open != null ? open.toSecondOfDay() / 60 : 0;
+        int end = close != null ? close.toSecondOfDay() / 60 : MINUTES_PER_DAY;
+        return end > start ? new TimeWindow(start, end) : ALL_DAY;
+    }
+
+    public boolean isAllDay(){
+        return start == 0 && end == MINUTES_PER_DAY;
+    }
+
+    /** Converts minutes of the day, possibly past midnight, to a wall-clock time. */
+    public static LocalTime toLocalTime(double minutes){
+        long seconds = Math.round(minutes * 60) % (MINUTES_PER_DAY * 60L);
+        return LocalTime.ofSecondOfDay(seconds < 0 ? seconds + MINUTES_PER_DAY * 60L : seconds);
+    }
+
+    // -1 for an hour or minute out of range; 24:00 is accepted as the end of the day.
+    private static int minutes(String hours, String minutes){
+        int h = Integer.parseInt(hours);
+        int m = minutes != null ? Integer.parseInt(minutes) : 0;
+        if(m > 59 || h > 24 || (h == 24 && m > 0)) return -1;
+        return h * 60 + m;
+    }
+}
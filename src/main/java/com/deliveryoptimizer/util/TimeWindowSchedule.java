@@ -0,0 +1,145 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+
+/**
+ * Timing of a route under time windows. Times are minutes of the day: the vehicle leaves the warehouse
+ * when it opens, drives at a constant speed, waits when it arrives before a window and spends a fixed
+ * service time at each stop. Windows are parsed once per matrix index into two int arrays.
+ * <p>
+ * After {@link #load} the route is held as arrays of service start times and forward time slacks, the
+ * slack of a position being how long its service may be pushed back without any later stop, or the
+ * return to the warehouse, missing its window. With those, {@link #insertionFits} decides in O(1)
+ * whether a stop can be inserted between two neighbours; loading a route costs O(n).
+ */
+public class TimeWindowSchedule {
+    private final DistanceMatrix distanceMatrix;
+    private final double minutesPerKm;
+    private final double serviceMinutes;
+    private final int[] earliest;
+    private final int[] latest;
+
+    private int[] nodes;
+    private double[] arrival;
+    private double[] start;
+    private double[] slack;
+    private int length;
+    private boolean feasible;
+
+    public TimeWindowSchedule(DistanceMatrix distanceMatrix, double speedKmh, double serviceMinutes){
+        if(speedKmh <= 0 || serviceMinutes < 0){
+            throw new IllegalArgumentException("Speed must be positive and service time not negative");
+        }
+        this.distanceMatrix = distanceMatrix;
+        this.minutesPerKm = 60 / speedKmh;
+        this.serviceMinutes = serviceMinutes;
+
+        int size = distanceMatrix.size();
+        this.earliest = new int[size];
+        this.latest = new int[size];
+        TimeWindow depot = TimeWindow.of(distanceMatrix.getWarehouse().getOpenTime(), distanceMatrix.getWarehouse().getCloseTime());
+        earliest[DistanceMatrix.WAREHOUSE] = depot.start();
+        latest[DistanceMatrix.WAREHOUSE] = depot.end();
+        for (int i = 1; i < size; i++){
+            TimeWindow window = window(distanceMatrix.delivery(i));
+            earliest[i] = window.start();
+            latest[i] = window.end();
+        }
+    }
+
+    public static TimeWindow window(Delivery delivery){
+        return TimeWindow.parse(delivery.getTimeSlot());
+    }
+
+    public double travelMinutes(int from, int to){
+        return distanceMatrix.distance(from, to) * minutesPerKm;
+    }
+
+    public int earliest(int index){
+        return earliest[index];
+    }
+
+    public int latest(int index){
+        return latest[index];
+    }
+
+    /** Times the route {@code route[0..length)} (delivery indexes, warehouse excluded) for the O(1) checks. */
+    public void load(int[] route, int length){
+        int positions = length + 2;
+        if(nodes == null || nodes.length < positions){
+            nodes = new int[positions];
+            arrival = new double[positions];
+            start = new double[positions];
+            slack = new double[positions];
+        }
+        this.length = length;
+
+        nodes[0] = DistanceMatrix.WAREHOUSE;
+        System.arraycopy(route, 0, nodes, 1, length);
+        nodes[length + 1] = DistanceMatrix.WAREHOUSE;
+
+        arrival[0] = earliest[DistanceMatrix.WAREHOUSE];
+        start[0] = arrival[0];
+        feasible = true;
+        for (int p = 1; p < positions; p++){
+            arrival[p] = departure(p - 1) + travelMinutes(nodes[p - 1], nodes[p]);
+            start[p] = Math.max(arrival[p], earliest[nodes[p]]);
+            if(start[p] > latest[nodes[p]]) feasible = false;
+        }
+
+        slack[positions - 1] = latest[DistanceMatrix.WAREHOUSE] - start[positions - 1];
+        for (int p = positions - 2; p >= 0; p--){
+            double waitAfter = start[p + 1] - arrival[p + 1];
+            slack[p] = Math.min(latest[nodes[p]] - start[p], waitAfter + slack[p + 1]);
+        }
+    }
+
+    /** True when the loaded route meets every window and returns before the warehouse closes. */
+    public boolean isFeasible(){
+        return feasible;
+    }
+
+    /**
+     * Whether {@code stop} fits between positions {@code position} and {@code position + 1} of the loaded
+     * route (0 is the warehouse). Only meaningful when the loaded route is itself feasible.
+     */
+    public boolean insertionFits(int stop, int position){
+        double startAtStop = Math.max(departure(position) + travelMinutes(nodes[position], stop), earliest[stop]);
+        if(startAtStop > latest[stop]) return false;
+
+        int next = position + 1;
+        double arrivalAtNext = startAtStop + serviceMinutes + travelMinutes(stop, nodes[next]);
+        double pushBack = Math.max(arrivalAtNext, earliest[nodes[next]]) - start[next];
+        return pushBack <= slack[next];
+    }
+
+    /** Extra distance of inserting {@code stop} after position {@code position} of the loaded route. */
+    public double insertionCost(int stop, int position){
+        int previous = nodes[position];
+        int next = nodes[position + 1];
+        return distanceMatrix.distance(previous, stop) + distanceMatrix.distance(stop, next) - distanceMatrix.distance(previous, next);
+    }
+
+    public int length(){
+        return length;
+    }
+
+    /** Service start at a position of the loaded route; position {@code length + 1} is the return to the warehouse. */
+    public double start(int position){
+        return start[position];
+    }
+
+    /** Arrival at a position of the loaded route, before any waiting. */
+    public double arrival(int position){
+        return arrival[position];
+    }
+
+    /** Minutes past the window at a position of the loaded route, 0 when on time. */
+    public double lateness(int position){
+        return Math.max(0, start[position] - latest[nodes[position]]);
+    }
+
+    private double departure(int position){
+        return position == 0 ? start[0] : start[position] + serviceMinutes;
+    }
+}
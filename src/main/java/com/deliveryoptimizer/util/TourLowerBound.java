@@ -0,0 +1,141 @@
+package com.deliveryoptimizer.util;
+
+import java.util.Arrays;
+
+/**
+ * Lower bounds on the shortest closed tour through the warehouse and every delivery of a
+ * {@link DistanceMatrix}, to tell how far a route can still be from optimal.
+ * <p>
+ * The minimum spanning tree (Prim, O(n²) over the matrix) is the weakest bound. The 1-tree adds the two
+ * cheapest warehouse edges to the spanning tree of the deliveries; Held–Karp subgradient ascent then
+ * adds node penalties that push every degree towards 2, which usually closes the gap to the optimum to a
+ * few percent. Any penalties give a valid bound, so stopping after a few iterations only weakens it.
+ */
+public class TourLowerBound {
+    public static final int DEFAULT_ITERATIONS = 30;
+    private static final int STALL_LIMIT = 5;
+
+    private TourLowerBound(){}
+
+    /** Weight of the minimum spanning tree over the warehouse and all deliveries. */
+    public static double minimumSpanningTree(DistanceMatrix distanceMatrix){
+        int size = distanceMatrix.size();
+        return spanningTree(distanceMatrix, new double[size], 0, new int[size]);
+    }
+
+    /**
+     * Best 1-tree bound over {@code iterations} subgradient steps. {@code upperBound}, the length of any
+     * known route, sets the step size; with 0 iterations this is the plain 1-tree.
+     */
+    public static double oneTree(DistanceMatrix distanceMatrix, double upperBound, int iterations){
+        int size = distanceMatrix.size();
+        if(size == 1) return 0;
+        if(size == 2) return 2 * distanceMatrix.distance(DistanceMatrix.WAREHOUSE, 1);
+
+        double[] penalties = new double[size];
+        int[] degrees = new int[size];
+        double best = Double.NEGATIVE_INFINITY;
+        double lambda = 2;
+        int stalled = 0;
+
+        for (int iteration = 0; ; iteration++){
+            double bound = penalizedOneTree(distanceMatrix, penalties, degrees);
+            if(bound > best + 1e-9){
+                best = bound;
+                stalled = 0;
+            } else if(++stalled >= STALL_LIMIT){
+                lambda /= 2;
+                stalled = 0;
+            }
+            if(iteration >= iterations) break;
+
+            int squaredNorm = 0;
+            for (int v = 0; v < size; v++){
+                int excess = degrees[v] - 2;
+                squaredNorm += excess * excess;
+            }
+            // Every degree is 2: the 1-tree is a tour, hence an optimal one.
+            if(squaredNorm == 0 || upperBound <= bound) break;
+
+            double step = lambda * (upperBound - bound) / squaredNorm;
+            for (int v = 0; v < size; v++){
+                penalties[v] += step * (degrees[v] - 2);
+            }
+        }
+        return Math.min(best, upperBound);
+    }
+
+    /** How much longer {@code distance} is than {@code lowerBound}, in percent of the bound. */
+    public static double gapPercent(double distance, double lowerBound){
+        if(lowerBound <= 0) return 0;
+        return Math.max(0, (distance - lowerBound) / lowerBound * 100);
+    }
+
+    // 1-tree under the penalties: spanning tree of the deliveries plus the two cheapest warehouse edges,
+    // minus twice the penalty sum. Fills the degree of every node.
+    private static double penalizedOneTree(DistanceMatrix distanceMatrix, double[] penalties, int[] degrees){
+        int size = distanceMatrix.size();
+        Arrays.fill(degrees, 0);
+        double weight = spanningTree(distanceMatrix, penalties, 1, degrees);
+
+        int first = -1;
+        int second = -1;
+        double firstCost = Double.POSITIVE_INFINITY;
+        double secondCost = Double.POSITIVE_INFINITY;
+        for (int v = 1; v < size; v++){
+            double cost = distanceMatrix.distance(DistanceMatrix.WAREHOUSE, v) + penalties[DistanceMatrix.WAREHOUSE] + penalties[v];
+            if(cost < firstCost){
+                second = first;
+                secondCost = firstCost;
+                first = v;
+                firstCost = cost;
+            } else if(cost < secondCost){
+                second = v;
+                secondCost = cost;
+            }
+        }
+        degrees[DistanceMatrix.WAREHOUSE] = 2;
+        degrees[first]++;
+        degrees[second]++;
+        weight += firstCost + secondCost;
+
+        double penaltySum = 0;
+        for (double penalty : penalties){
+            penaltySum += penalty;
+        }
+        return weight - 2 * penaltySum;
+    }
+
+    // Prim over nodes [from, size) with penalized costs; adds each tree edge to the degrees of its ends.
+    private static double spanningTree(DistanceMatrix distanceMatrix, double[] penalties, int from, int[] degrees){
+        int size = distanceMatrix.size();
+        if(size - from <= 1) return 0;
+
+        double[] cheapest = new double[size];
+        int[] parent = new int[size];
+        boolean[] inTree = new boolean[size];
+        Arrays.fill(cheapest, Double.POSITIVE_INFINITY);
+
+        double weight = 0;
+        int current = from;
+        inTree[current] = true;
+        for (int added = 1; added < size - from; added++){
+            int next = -1;
+            for (int v = from; v < size; v++){
+                if(inTree[v]) continue;
+                double cost = distanceMatrix.distance(current, v) + penalties[current] + penalties[v];
+                if(cost < cheapest[v]){
+                    cheapest[v] = cost;
+                    parent[v] = current;
+                }
+                if(next == -1 || cheapest[v] < cheapest[next]) next = v;
+            }
+            inTree[next] = true;
+            weight += cheapest[next];
+            degrees[next]++;
+            degrees[parent[next]]++;
+            current = next;
+        }
+        return weight;
+    }
+}
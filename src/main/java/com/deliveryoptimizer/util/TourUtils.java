@@ -8,20 +8,53 @@ import java.util.List;
 public class TourUtils {
     private TourUtils(){}
 
-    public static double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries, DistanceCalculator distanceCalculator){
+    public static double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries, DistanceProvider distanceProvider){
         if(warehouse == null || deliveries == null || deliveries.isEmpty()) return 0;
 
         double totalDistance = 0;
-        double currentLat = warehouse.getAltitude();
-        double currentLon = warehouse.getLongitude();
+        PreparedPoint depot = PreparedPoint.of(warehouse);
+        PreparedPoint current = depot;
 
         for (Delivery d : deliveries){
-            totalDistance += distanceCalculator.distance(currentLat, currentLon, d.getAltitude(), d.getLongitude());
-            currentLat = d.getAltitude();
-            currentLon = d.getLongitude();
+            PreparedPoint next = PreparedPoint.of(d);
+            totalDistance += distanceProvider.distance(current, next);
+            current = next;
         }
 
-        totalDistance += distanceCalculator.distance(currentLat, currentLon, warehouse.getAltitude(), warehouse.getLongitude());
+        totalDistance += distanceProvider.distance(current, depot);
+
+        return totalDistance;
+    }
+
+    public static double calculateTotalDistance(List<Delivery> deliveries, DistanceMatrix distanceMatrix){
+        if(deliveries == null || deliveries.isEmpty()) return 0;
+
+        double totalDistance = 0;
+        int current = DistanceMatrix.WAREHOUSE;
+
+        for (Delivery d : deliveries){
+            int next = distanceMatrix.indexOf(d);
+            totalDistance += distanceMatrix.routeDistance(current, next);
+            current = next;
+        }
+
+        totalDistance += distanceMatrix.routeDistance(current, DistanceMatrix.WAREHOUSE);
+
+        return totalDistance;
+    }
+
+    public static double calculateTotalDistance(int[] order, DistanceMatrix distanceMatrix){
+        if(order == null || order.length == 0) return 0;
+
+        double totalDistance = 0;
+        int current = DistanceMatrix.WAREHOUSE;
+
+        for (int next : order){
+            totalDistance += distanceMatrix.routeDistance(current, next);
+            current = next;
+        }
+
+        totalDistance += distanceMatrix.routeDistance(current, DistanceMatrix.WAREHOUSE);
 
         return totalDistance;
     }
@@ -0,0 +1,51 @@
+package com.deliveryoptimizer;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Entities shared by the tests: bare warehouses, deliveries and tours, and seeded deliveries spread over a 0.4° square around Casablanca. */
+public final class TourFixtures {
+    private TourFixtures(){}
+
+    public static Warehouse createWarehouse(double altitude, double longitude){
+        return createWarehouse(1L, altitude, longitude);
+    }
+
+    public static Warehouse createWarehouse(Long id, double altitude, double longitude){
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(id);
+        warehouse.setAltitude(altitude);
+        warehouse.setLongitude(longitude);
+        return warehouse;
+    }
+
+    public static Delivery createDelivery(Long id, double altitude, double longitude){
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        return delivery;
+    }
+
+    /** Deliveries 1 to {@code count}; the same seed always gives the same points. */
+    public static List<Delivery> randomDeliveries(int count, long seed){
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= count; id++){
+            deliveries.add(createDelivery(id, 33.4 + random.nextDouble() * 0.4, -7.8 + random.nextDouble() * 0.4));
+        }
+        return deliveries;
+    }
+
+    public static Tour createTour(Warehouse warehouse, List<Delivery> deliveries){
+        Tour tour = new Tour();
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(new ArrayList<>(deliveries));
+        return tour;
+    }
+}
@@ -0,0 +1,179 @@
+package com.deliveryoptimizer.repository;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
+import com.deliveryoptimizer.model.enums.TourStatus;
+import com.deliveryoptimizer.model.enums.VehicleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("TourRepository Tests")
+class TourRepositoryTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate TUESDAY = LocalDate.of(2026, 10, 20);
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    // Only the JPA slice: the application class would also import the services from applicationContext.xml.
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Tour.class)
+    @EnableJpaRepositories(basePackageClasses = TourRepository.class)
+    static class JpaConfiguration {
+    }
+
+    private final List<Tour> tours = new ArrayList<>();
+    private final List<Delivery> deliveries = new ArrayList<>();
+    private Warehouse north;
+    private Warehouse south;
+
+    @BeforeEach
+    void setUp() {
+        north = warehouseRepository.save(createWarehouse("North depot"));
+        south = warehouseRepository.save(createWarehouse("South depot"));
+        Vehicle vehicle = vehicleRepository.save(createVehicle());
+        TourStatus[] statuses = TourStatus.values();
+        for (int i = 0; i < 30; i++) {
+            Tour tour = tourRepository.save(Tour.builder()
+                    .date(i % 2 == 0 ? MONDAY : TUESDAY)
+                    .warehouse(i % 3 == 0 ? south : north)
+                    .vehicle(i % 5 == 0 ? null : vehicle)
+                    .status(statuses[i % statuses.length])
+                    .totalDistance(i)
+                    .build());
+            tours.add(tour);
+        }
+        DeliveryStatus[] deliveryStatuses = DeliveryStatus.values();
+        for (int i = 0; i < 30; i++) {
+            deliveries.add(deliveryRepository.save(Delivery.builder()
+                    .status(deliveryStatuses[i % deliveryStatuses.length])
+                    .tour(i % 2 == 0 ? tours.get(0) : tours.get(1))
+                    .build()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through every combination of tour filters without skipping or repeating a tour")
+    void findSummaryPage_WithCombinedFilters_PagesStably() {
+        for (LocalDate date : new LocalDate[]{null, MONDAY}) {
+            for (Long warehouseId : new Long[]{null, north.getId()}) {
+                for (TourStatus status : new TourStatus[]{null, TourStatus.PLANNED}) {
+                    // Given
+                    List<Long> expected = tours.stream()
+                            .filter(t -> date == null || t.getDate().equals(date))
+                            .filter(t -> warehouseId == null || t.getWarehouse().getId().equals(warehouseId))
+                            .filter(t -> status == null || t.getStatus() == status)
+                            .map(Tour::getId)
+                            .toList();
+
+                    // When
+                    List<TourSummary> paged = new ArrayList<>();
+                    long after = 0;
+                    List<TourSummary> page;
+                    do {
+                        page = tourRepository.findSummaryPage(after, date, warehouseId, status, Limit.of(4));
+                        paged.addAll(page);
+                        if (!page.isEmpty()) after = page.get(page.size() - 1).getId();
+                    } while (page.size() == 4);
+
+                    // Then
+                    assertThat(paged).extracting(TourSummary::getId).containsExactlyElementsOf(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should read the summary columns of a tour, including one without a vehicle")
+    void findSummaryPage_ReadsSummaryColumns() {
+        // When
+        List<TourSummary> page = tourRepository.findSummaryPage(0, null, null, null, Limit.of(2));
+
+        // Then
+        Tour withoutVehicle = tours.get(0);
+        Tour withVehicle = tours.get(1);
+        assertThat(page).hasSize(2);
+        assertThat(page.get(0).getVehicleId()).isNull();
+        assertThat(page.get(0).getWarehouseId()).isEqualTo(withoutVehicle.getWarehouse().getId());
+        assertThat(page.get(1).getId()).isEqualTo(withVehicle.getId());
+        assertThat(page.get(1).getVehicleId()).isEqualTo(withVehicle.getVehicle().getId());
+        assertThat(page.get(1).getDate()).isEqualTo(withVehicle.getDate());
+        assertThat(page.get(1).getStatus()).isEqualTo(withVehicle.getStatus());
+        assertThat(page.get(1).getTotalDistance()).isEqualTo(withVehicle.getTotalDistance());
+    }
+
+    @Test
+    @DisplayName("Should page through deliveries filtered by status and tour together")
+    void deliveryFindPage_WithCombinedFilters_PagesStably() {
+        for (DeliveryStatus status : new DeliveryStatus[]{null, DeliveryStatus.PENDING}) {
+            for (Long tourId : new Long[]{null, tours.get(0).getId()}) {
+                // Given
+                List<Long> expected = deliveries.stream()
+                        .filter(d -> status == null || d.getStatus() == status)
+                        .filter(d -> tourId == null || Objects.equals(d.getTour().getId(), tourId))
+                        .map(Delivery::getId)
+                        .toList();
+
+                // When
+                List<Long> paged = new ArrayList<>();
+                long after = 0;
+                List<Delivery> page;
+                do {
+                    page = deliveryRepository.findPage(after, status, tourId, Limit.of(3));
+                    page.forEach(d -> paged.add(d.getId()));
+                    if (!page.isEmpty()) after = page.get(page.size() - 1).getId();
+                } while (page.size() == 3);
+
+                // Then
+                assertThat(paged).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    // Helper methods
+    private Warehouse createWarehouse(String address) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setAddress(address);
+        warehouse.setAltitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        return warehouse;
+    }
+
+    private Vehicle createVehicle() {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setName("Van 1");
+        vehicle.setType(VehicleType.values()[0]);
+        vehicle.setMaxWeight(100);
+        vehicle.setMaxVolume(10);
+        vehicle.setMaxDeliveries(20);
+        return vehicle;
+    }
+}
@@ -0,0 +1,238 @@
+package com.deliveryoptimizer.routing;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.PreparedPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ContractionHierarchy Tests")
+class ContractionHierarchyTest {
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    @DisplayName("Should match plain Dijkstra on every pair of a grid with one-way streets and missing links")
+    void distances_MatchDijkstra() {
+        // Given
+        RoadGraph graph = createGrid(12, 12, new Random(17L));
+        ContractionHierarchy hierarchy = ContractionHierarchyBuilder.build(graph);
+        int[] nodes = IntStream.range(0, graph.nodeCount()).toArray();
+
+        // When
+        double[] distances = hierarchy.distances(nodes, nodes);
+
+        // Then
+        int n = graph.nodeCount();
+        for (int source = 0; source < n; source++) {
+            double[] expected = dijkstra(graph, source);
+            for (int target = 0; target < n; target++) {
+                if (Double.isInfinite(expected[target])) {
+                    assertThat(distances[source * n + target]).isInfinite();
+                } else {
+                    assertThat(distances[source * n + target]).isCloseTo(expected[target], within(1e-9));
+                }
+            }
+        }
+        assertThat(hierarchy.distance(0, n - 1)).isCloseTo(distances[n - 1], within(1e-12));
+    }
+
+    @Test
+    @DisplayName("Should answer the same distances from the memory-mapped file as from the built hierarchy")
+    void map_RoundTripsThroughFile(@TempDir Path directory) throws IOException {
+        // Given
+        RoadGraph graph = createGrid(9, 7, new Random(5L));
+        ContractionHierarchy built = ContractionHierarchyBuilder.build(graph);
+        Path file = directory.resolve("city.ch");
+        int[] nodes = IntStream.range(0, graph.nodeCount()).toArray();
+
+        // When
+        built.write(file);
+        ContractionHierarchy mapped = ContractionHierarchy.map(file);
+
+        // Then
+        assertThat(mapped.nodeCount()).isEqualTo(built.nodeCount());
+        assertThat(mapped.edgeCount()).isEqualTo(built.edgeCount());
+        assertThat(mapped.latitude(10)).isEqualTo(graph.latitude(10));
+        assertThat(mapped.distances(nodes, nodes)).containsExactly(built.distances(nodes, nodes));
+    }
+
+    @Test
+    @DisplayName("Should read an edge list, snap points to the road and fill a symmetric matrix in one call")
+    void roadProvider_FromEdgeList_RoutesAlongRoads(@TempDir Path directory) throws IOException {
+        // Given: an L-shaped road 0 -> 1 -> 2, no road along the diagonal
+        Path graphFile = directory.resolve("roads.txt");
+        Files.writeString(graphFile, """
+                # nodes: id lat lon
+                v a 33.00 -7.00
+                v b 33.00 -6.98
+                v c 33.02 -6.98
+                e a b
+                e b c -
+                """);
+        Path hierarchyFile = directory.resolve("roads.ch");
+        RoadDistanceProvider provider = RoadDistanceProvider.load(graphFile, hierarchyFile, distanceCalculator);
+        double ab = distanceCalculator.distance(33.00, -7.00, 33.00, -6.98);
+        double bc = distanceCalculator.distance(33.00, -6.98, 33.02, -6.98);
+
+        // When
+        double road = provider.distance(PreparedPoint.of(33.00, -7.00), PreparedPoint.of(33.02, -6.98));
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.00, -7.00),
+                List.of(createDelivery(1L, 33.0001, -6.98), createDelivery(2L, 33.02, -6.98)), provider);
+
+        // Then
+        assertThat(Files.exists(hierarchyFile)).isTrue();
+        assertThat(road).isCloseTo(ab + bc, within(1e-9));
+        assertThat(road).isGreaterThan(distanceCalculator.distance(33.00, -7.00, 33.02, -6.98));
+        assertThat(matrix.distance(0, 2)).isCloseTo(ab + bc, within(1e-9));
+        assertThat(matrix.distance(2, 0)).isEqualTo(matrix.distance(0, 2));
+        assertThat(matrix.distance(1, 2)).isCloseTo(bc + distanceCalculator.distance(33.0001, -6.98, 33.00, -6.98), within(1e-9));
+        assertThat(matrix.getProvider()).isSameAs(provider);
+    }
+
+    @Test
+    @DisplayName("Should give every thread the same distances while they query one hierarchy at once")
+    void distances_FromConcurrentThreads_MatchSingleThread() throws Exception {
+        // Given
+        ContractionHierarchy hierarchy = ContractionHierarchyBuilder.build(createGrid(10, 10, new Random(3L)));
+        int[] nodes = IntStream.range(0, hierarchy.nodeCount()).toArray();
+        double[] expected = hierarchy.distances(nodes, nodes);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<double[]>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> hierarchy.distances(nodes, nodes)));
+            }
+
+            // Then
+            for (Future<double[]> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).containsExactly(expected);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fill a road matrix in place with the same values as the pairwise queries")
+    void roadProvider_Matrix_MatchesPairwiseDistances() {
+        // Given
+        RoadDistanceProvider provider = new RoadDistanceProvider(ContractionHierarchyBuilder.build(createGrid(12, 12, new Random(11L))), distanceCalculator);
+        Random random = new Random(2L);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            deliveries.add(createDelivery((long) i + 1, 33.5 + random.nextDouble() * 0.055, -7.6 + random.nextDouble() * 0.055));
+        }
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.52, -7.58), deliveries, provider);
+
+        // When
+        matrix.fill();
+
+        // Then
+        for (int i = 0; i < matrix.size(); i++) {
+            for (int j = i + 1; j < matrix.size(); j++) {
+                assertThat(matrix.distance(i, j)).isCloseTo(provider.distance(matrix.point(i), matrix.point(j)), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should measure a tour above the cache cap with straight-line distances instead of road queries")
+    void roadProvider_AboveCacheCap_FallsBackToGeometric() {
+        // Given
+        RoadDistanceProvider provider = new RoadDistanceProvider(ContractionHierarchyBuilder.build(createGrid(4, 4, new Random(1L))), distanceCalculator);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < DistanceMatrix.MAX_CACHED_POINTS; i++) {
+            deliveries.add(createDelivery((long) i + 1, 33.5 + (i % 50) * 0.001, -7.6 + (i / 50) * 0.001));
+        }
+
+        // When
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.52, -7.58), deliveries, provider);
+
+        // Then
+        assertThat(matrix.getProvider()).isSameAs(distanceCalculator);
+        assertThat(matrix.distance(0, 5)).isEqualTo(distanceCalculator.distance(matrix.point(0), matrix.point(5)));
+    }
+
+    // Helper methods
+    private RoadGraph createGrid(int columns, int rows, Random random) {
+        int n = columns * rows;
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                latitudes[r * columns + c] = 33.5 + r * 0.005 + random.nextDouble() * 0.001;
+                longitudes[r * columns + c] = -7.6 + c * 0.005 + random.nextDouble() * 0.001;
+            }
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        List<Double> lengths = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            int c = v % columns;
+            int r = v / columns;
+            for (int w : new int[]{c + 1 < columns ? v + 1 : -1, r + 1 < rows ? v + columns : -1}) {
+                if (w < 0 || random.nextDouble() < 0.1) continue;
+                double length = distanceCalculator.distance(latitudes[v], longitudes[v], latitudes[w], longitudes[w]) * (1 + random.nextDouble());
+                double kind = random.nextDouble();
+                if (kind >= 0.1) {
+                    edges.add(new int[]{v, w});
+                    lengths.add(length);
+                }
+                if (kind < 0.8) {
+                    edges.add(new int[]{w, v});
+                    lengths.add(length);
+                }
+            }
+        }
+
+        int[] from = edges.stream().mapToInt(e -> e[0]).toArray();
+        int[] to = edges.stream().mapToInt(e -> e[1]).toArray();
+        double[] weights = lengths.stream().mapToDouble(Double::doubleValue).toArray();
+        return RoadGraph.of(latitudes, longitudes, from, to, weights);
+    }
+
+    private double[] dijkstra(RoadGraph graph, int source) {
+        double[] dist = new double[graph.nodeCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > dist[node]) continue;
+            for (int e = graph.firstEdge(node); e < graph.firstEdge(node + 1); e++) {
+                double candidate = entry[0] + graph.edgeLength(e);
+                if (candidate < dist[graph.edgeTarget(e)]) {
+                    dist[graph.edgeTarget(e)] = candidate;
+                    queue.add(new double[]{candidate, graph.edgeTarget(e)});
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -3,8 +3,12 @@ package com.deliveryoptimizer.service;
 import com.deliveryoptimizer.model.Delivery;
 import com.deliveryoptimizer.model.Tour;
 import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.VehicleType;
 import com.deliveryoptimizer.service.impl.ClarkeWrightOptimizer;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
 import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.PreparedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,9 +18,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
 
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,7 +56,7 @@ class ClarkeWrightOptimizerTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(1L);
-        verify(distanceCalculator, never()).distance(any(Warehouse.class), any(Delivery.class));
+        verify(distanceCalculator, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
     }
 
     @Test
@@ -62,7 +71,7 @@ class ClarkeWrightOptimizerTest {
 
         // Then
         assertThat(result).isEmpty();
-        verify(distanceCalculator, never()).distance(any(Warehouse.class), any(Delivery.class));
+        verify(distanceCalculator, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
     }
 
     @Test
@@ -79,7 +88,7 @@ class ClarkeWrightOptimizerTest {
 
         // Then
         assertThat(result).hasSize(1);
-        verify(distanceCalculator, never()).distance(any(Warehouse.class), any(Delivery.class));
+        verify(distanceCalculator, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
     }
 
     @Test
@@ -94,9 +103,9 @@ class ClarkeWrightOptimizerTest {
 
         // Mock distances: warehouse to d1 = 3, warehouse to d2 = 5, d1 to d2 = 2
         // Saving = 3 + 5 - 2 = 6 (positive, so merge)
-        when(distanceCalculator.distance(warehouse, delivery1)).thenReturn(3.0);
-        when(distanceCalculator.distance(warehouse, delivery2)).thenReturn(5.0);
-        when(distanceCalculator.distance(delivery1, delivery2)).thenReturn(2.0);
+        stubDistance(warehouse, delivery1, 3.0);
+        stubDistance(warehouse, delivery2, 5.0);
+        stubDistance(delivery1, delivery2, 2.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -104,8 +113,8 @@ class ClarkeWrightOptimizerTest {
         // Then
         assertThat(result).hasSize(2);
         assertThat(result).containsExactlyInAnyOrder(delivery1, delivery2);
-        verify(distanceCalculator, times(2)).distance(eq(warehouse), any(Delivery.class));
-        verify(distanceCalculator, times(1)).distance(any(Delivery.class), any(Delivery.class));
+        verifyWarehouseDistances(warehouse, 2);
+        verifyTotalDistances(3);
     }
 
     @Test
@@ -121,13 +130,13 @@ class ClarkeWrightOptimizerTest {
 
         // Setup distances
         // d1 and d2 are close together, d3 is far
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(1.0);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(2.0);
-        when(distanceCalculator.distance(warehouse, d3)).thenReturn(10.0);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 2.0);
+        stubDistance(warehouse, d3, 10.0);
 
-        when(distanceCalculator.distance(d1, d2)).thenReturn(1.0);  // Saving: 1 + 2 - 1 = 2
-        when(distanceCalculator.distance(d1, d3)).thenReturn(9.0);  // Saving: 1 + 10 - 9 = 2
-        when(distanceCalculator.distance(d2, d3)).thenReturn(8.0);  // Saving: 2 + 10 - 8 = 4 (highest)
+        stubDistance(d1, d2, 1.0);  // Saving: 1 + 2 - 1 = 2
+        stubDistance(d1, d3, 9.0);  // Saving: 1 + 10 - 9 = 2
+        stubDistance(d2, d3, 8.0);  // Saving: 2 + 10 - 8 = 4 (highest)
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -135,9 +144,9 @@ class ClarkeWrightOptimizerTest {
         // Then
         assertThat(result).hasSize(3);
         assertThat(result).containsExactlyInAnyOrder(d1, d2, d3);
-        // Verify distances calculated: 6 warehouse-to-delivery calls (2 per pair) + 3 delivery-to-delivery calls
-        verify(distanceCalculator, times(6)).distance(eq(warehouse), any(Delivery.class));
-        verify(distanceCalculator, times(3)).distance(any(Delivery.class), any(Delivery.class));
+        // Verify each distance is calculated once: 3 warehouse-to-delivery calls + 3 delivery-to-delivery calls
+        verifyWarehouseDistances(warehouse, 3);
+        verifyTotalDistances(6);
     }
 
     @Test
@@ -153,20 +162,20 @@ class ClarkeWrightOptimizerTest {
         Tour tour = createTour(warehouse, List.of(d1, d2, d3, d4));
 
         // d1 and d2 are close (around x=5)
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(5.0);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(5.1);
-        when(distanceCalculator.distance(d1, d2)).thenReturn(1.0);  // High saving
+        stubDistance(warehouse, d1, 5.0);
+        stubDistance(warehouse, d2, 5.1);
+        stubDistance(d1, d2, 1.0);  // High saving
 
         // d3 and d4 are close (around x=10)
-        when(distanceCalculator.distance(warehouse, d3)).thenReturn(10.0);
-        when(distanceCalculator.distance(warehouse, d4)).thenReturn(10.05);
-        when(distanceCalculator.distance(d3, d4)).thenReturn(1.0);  // High saving
+        stubDistance(warehouse, d3, 10.0);
+        stubDistance(warehouse, d4, 10.05);
+        stubDistance(d3, d4, 1.0);  // High saving
 
         // Cross pairs have lower savings
-        when(distanceCalculator.distance(d1, d3)).thenReturn(5.0);
-        when(distanceCalculator.distance(d1, d4)).thenReturn(5.1);
-        when(distanceCalculator.distance(d2, d3)).thenReturn(5.1);
-        when(distanceCalculator.distance(d2, d4)).thenReturn(5.0);
+        stubDistance(d1, d3, 5.0);
+        stubDistance(d1, d4, 5.1);
+        stubDistance(d2, d3, 5.1);
+        stubDistance(d2, d4, 5.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -188,13 +197,13 @@ class ClarkeWrightOptimizerTest {
         Tour tour = createTour(warehouse, List.of(d1, d2, d3));
 
         // All deliveries in a line with equal spacing
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(1.0);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(2.0);
-        when(distanceCalculator.distance(warehouse, d3)).thenReturn(3.0);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 2.0);
+        stubDistance(warehouse, d3, 3.0);
 
-        when(distanceCalculator.distance(d1, d2)).thenReturn(1.0);
-        when(distanceCalculator.distance(d1, d3)).thenReturn(2.0);
-        when(distanceCalculator.distance(d2, d3)).thenReturn(1.0);
+        stubDistance(d1, d2, 1.0);
+        stubDistance(d1, d3, 2.0);
+        stubDistance(d2, d3, 1.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -215,10 +224,10 @@ class ClarkeWrightOptimizerTest {
         List<Delivery> originalDeliveries = new ArrayList<>(List.of(delivery1, delivery2));
         Tour tour = createTour(warehouse, originalDeliveries);
 
-        when(distanceCalculator.distance(any(Warehouse.class), any(Delivery.class)))
-                .thenReturn(5.0);
-        when(distanceCalculator.distance(any(Delivery.class), any(Delivery.class)))
+        when(distanceCalculator.distance(any(PreparedPoint.class), any(PreparedPoint.class)))
                 .thenReturn(3.0);
+        when(distanceCalculator.distance(eq(PreparedPoint.of(0.0, 0.0)), any(PreparedPoint.class)))
+                .thenReturn(5.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -243,22 +252,22 @@ class ClarkeWrightOptimizerTest {
 
         Tour tour = createTour(warehouse, List.of(anfaA, anfaB, maarif, ainDiab));
 
-        // Distances from warehouse - called twice per pair (2*6 = 12 times for 4 deliveries)
-        when(distanceCalculator.distance(warehouse, anfaA)).thenReturn(3.5);
-        when(distanceCalculator.distance(warehouse, anfaB)).thenReturn(3.7);
-        when(distanceCalculator.distance(warehouse, maarif)).thenReturn(2.1);
-        when(distanceCalculator.distance(warehouse, ainDiab)).thenReturn(4.2);
+        // Distances from warehouse - called once per delivery
+        stubDistance(warehouse, anfaA, 3.5);
+        stubDistance(warehouse, anfaB, 3.7);
+        stubDistance(warehouse, maarif, 2.1);
+        stubDistance(warehouse, ainDiab, 4.2);
 
         // Distances between deliveries - 6 pairs for 4 deliveries
         // Anfa deliveries are very close
-        when(distanceCalculator.distance(anfaA, anfaB)).thenReturn(0.2);  // High saving
-        when(distanceCalculator.distance(anfaA, maarif)).thenReturn(2.0);
-        when(distanceCalculator.distance(anfaA, ainDiab)).thenReturn(5.5);
+        stubDistance(anfaA, anfaB, 0.2);  // High saving
+        stubDistance(anfaA, maarif, 2.0);
+        stubDistance(anfaA, ainDiab, 5.5);
 
-        when(distanceCalculator.distance(anfaB, maarif)).thenReturn(2.2);
-        when(distanceCalculator.distance(anfaB, ainDiab)).thenReturn(5.7);
+        stubDistance(anfaB, maarif, 2.2);
+        stubDistance(anfaB, ainDiab, 5.7);
 
-        when(distanceCalculator.distance(maarif, ainDiab)).thenReturn(4.8);
+        stubDistance(maarif, ainDiab, 4.8);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -268,9 +277,9 @@ class ClarkeWrightOptimizerTest {
         assertThat(result).containsExactlyInAnyOrder(anfaA, anfaB, maarif, ainDiab);
 
         // Verify all distance calculations were made
-        // For 4 deliveries: 6 pairs * 2 warehouse calls = 12, plus 6 delivery-to-delivery calls
-        verify(distanceCalculator, atLeastOnce()).distance(eq(warehouse), any(Delivery.class));
-        verify(distanceCalculator, times(6)).distance(any(Delivery.class), any(Delivery.class));
+        // For 4 deliveries: 4 warehouse calls, plus 6 delivery-to-delivery calls
+        verifyWarehouseDistances(warehouse, 4);
+        verifyTotalDistances(10);
     }
 
     @Test
@@ -313,10 +322,10 @@ class ClarkeWrightOptimizerTest {
         Tour tour = createTour(warehouse, List.of(d1, d2));
 
         // Both deliveries equidistant from warehouse
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(1.0);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(1.0);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 1.0);
         // But far from each other
-        when(distanceCalculator.distance(d1, d2)).thenReturn(1.41);  // Diagonal distance
+        stubDistance(d1, d2, 1.41);  // Diagonal distance
 
         // Saving = 1 + 1 - 1.41 = 0.59 (still positive, will merge)
 
@@ -338,10 +347,10 @@ class ClarkeWrightOptimizerTest {
 
         Tour tour = createTour(warehouse, List.of(d1, d2, d3));
 
-        when(distanceCalculator.distance(any(Warehouse.class), any(Delivery.class)))
-                .thenReturn(5.0);
-        when(distanceCalculator.distance(any(Delivery.class), any(Delivery.class)))
+        when(distanceCalculator.distance(any(PreparedPoint.class), any(PreparedPoint.class)))
                 .thenReturn(1.0);
+        when(distanceCalculator.distance(eq(PreparedPoint.of(0.0, 0.0)), any(PreparedPoint.class)))
+                .thenReturn(5.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -361,40 +370,187 @@ class ClarkeWrightOptimizerTest {
 
         Tour tour = createTour(warehouse, List.of(d1, d2));
 
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(1.0);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(2.0);
-        when(distanceCalculator.distance(d1, d2)).thenReturn(1.5);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 2.0);
+        stubDistance(d1, d2, 1.5);
 
         // When
         optimizer.optimizerTour(tour);
 
         // Then
-        verify(distanceCalculator, times(2)).distance(eq(warehouse), any(Delivery.class));
-        verify(distanceCalculator, times(1)).distance(any(Delivery.class), any(Delivery.class));
+        verifyWarehouseDistances(warehouse, 2);
+        verifyTotalDistances(3);
+    }
+
+    @Test
+    @DisplayName("Should chain deliveries around the warehouse end to end")
+    void optimizeTour_WithDeliveriesOnAnArc_ReturnsRouteAlongTheArc() {
+        // Given: shuffled deliveries on an arc around the warehouse, planar distances
+        Warehouse warehouse = createWarehouse(1L, 0.0, 0.0);
+        Delivery d1 = createPolarDelivery(1L, 5.0, 0);
+        Delivery d2 = createPolarDelivery(2L, 5.0, 20);
+        Delivery d3 = createPolarDelivery(3L, 5.0, 50);
+        Delivery d4 = createPolarDelivery(4L, 6.0, 90);
+
+        Tour tour = createTour(warehouse, List.of(d3, d1, d4, d2));
+        when(distanceCalculator.distance(any(PreparedPoint.class), any(PreparedPoint.class)))
+                .thenAnswer(inv -> planarDistance(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour);
+
+        // Then: neighbours on the arc are linked and the route starts at the endpoint closest to the warehouse
+        assertThat(result).containsExactly(d1, d2, d3, d4);
+    }
+
+    @Test
+    @DisplayName("Should visit every delivery exactly once on a large tour")
+    void optimizeTour_WithTwoThousandDeliveries_ReturnsEveryDeliveryOnce() {
+        // Given
+        ClarkeWrightOptimizer realOptimizer = new ClarkeWrightOptimizer(new DistanceCalculator());
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Random random = new Random(42);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            deliveries.add(createDelivery(id, 33.5 + random.nextDouble() * 0.2, -7.7 + random.nextDouble() * 0.2));
+        }
+
+        // When
+        List<Delivery> result = realOptimizer.optimizerTour(createTour(warehouse, deliveries));
+
+        // Then
+        assertThat(result).hasSize(2000);
+        assertThat(result).containsExactlyInAnyOrderElementsOf(deliveries);
+    }
+
+    @Test
+    @DisplayName("Should report progress and stop inside the merge loop once cancelled")
+    void optimizeTour_WhenCancelledWhileMerging_Throws() {
+        // Given: cancelled as soon as the savings half is done
+        ClarkeWrightOptimizer realOptimizer = new ClarkeWrightOptimizer(new DistanceCalculator());
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Random random = new Random(42);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            deliveries.add(createDelivery(id, 33.5 + random.nextDouble() * 0.2, -7.7 + random.nextDouble() * 0.2));
+        }
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, new DistanceCalculator());
+        List<Double> reported = new ArrayList<>();
+        OptimizationProgress progress = new OptimizationProgress() {
+            @Override
+            public boolean isCancelled() {
+                return !reported.isEmpty() && reported.get(reported.size() - 1) >= 0.5;
+            }
+
+            @Override
+            public void report(double fraction) {
+                reported.add(fraction);
+            }
+        };
+
+        // Then
+        assertThatThrownBy(() -> realOptimizer.optimizerTour(createTour(warehouse, deliveries), matrix, progress))
+                .isInstanceOf(CancellationException.class);
+        assertThat(reported).isSorted();
+        assertThat(reported.get(reported.size() - 1)).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should split deliveries into routes that respect the vehicle capacity")
+    void optimizeRoutes_WithBikeCapacity_ReturnsFeasibleRoutes() {
+        // Given: 20 parcels of 5 kg, a bike carries at most 50 kg and 15 deliveries
+        ClarkeWrightOptimizer realOptimizer = new ClarkeWrightOptimizer(new DistanceCalculator());
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Random random = new Random(7);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            Delivery d = createDelivery(id, 33.5 + random.nextDouble() * 0.1, -7.65 + random.nextDouble() * 0.1);
+            d.setMaxWeight(5.0);
+            d.setMaxVolume(0.01);
+            deliveries.add(d);
+        }
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, new DistanceCalculator());
+
+        // When
+        List<List<Delivery>> routes = realOptimizer.optimizeRoutes(matrix, VehicleType.BIKE);
+
+        // Then
+        assertThat(routes).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(routes).allSatisfy(route -> {
+            assertThat(route.stream().mapToDouble(Delivery::getMaxWeight).sum()).isLessThanOrEqualTo(50.0);
+            assertThat(route).hasSizeLessThanOrEqualTo(15);
+        });
+        assertThat(routes.stream().flatMap(List::stream).toList()).containsExactlyInAnyOrderElementsOf(deliveries);
+    }
+
+    @Test
+    @DisplayName("Should keep a single route when capacity is not binding")
+    void optimizeRoutes_WithLargeCapacity_ReturnsSingleRoute() {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 0.0, 0.0);
+        Delivery d1 = createDelivery(1L, 1.0, 0.0);
+        Delivery d2 = createDelivery(2L, 2.0, 0.0);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 2.0);
+        stubDistance(d1, d2, 1.0);
+
+        // When
+        List<List<Delivery>> routes = optimizer.optimizeRoutes(
+                new DistanceMatrix(warehouse, List.of(d1, d2), distanceCalculator), VehicleType.TRUCK);
+
+        // Then
+        assertThat(routes).containsExactly(List.of(d1, d2));
+    }
+
+    @Test
+    @DisplayName("Should not merge routes once the delivery count limit is reached")
+    void optimizeRoutes_WithDeliveryLimit_StopsMerging() {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 0.0, 0.0);
+        Delivery d1 = createDelivery(1L, 1.0, 0.0);
+        Delivery d2 = createDelivery(2L, 2.0, 0.0);
+        Delivery d3 = createDelivery(3L, 3.0, 0.0);
+        stubDistance(warehouse, d1, 1.0);
+        stubDistance(warehouse, d2, 2.0);
+        stubDistance(warehouse, d3, 3.0);
+        stubDistance(d1, d2, 1.0);  // Saving: 2
+        stubDistance(d1, d3, 2.0);  // Saving: 2
+        stubDistance(d2, d3, 1.0);  // Saving: 4 (highest)
+
+        // When
+        List<List<Delivery>> routes = optimizer.optimizeRoutes(
+                new DistanceMatrix(warehouse, List.of(d1, d2, d3), distanceCalculator), 1000, 1000, 2);
+
+        // Then
+        assertThat(routes).containsExactly(List.of(d1), List.of(d2, d3));
     }
 
     // Helper methods
-    private Warehouse createWarehouse(Long id, double altitude, double longitude) {
-        Warehouse warehouse = new Warehouse();
-        warehouse.setId(id);
-        warehouse.setAltitude(altitude);
-        warehouse.setLongitude(longitude);
-        return warehouse;
+    private Delivery createPolarDelivery(Long id, double radius, double degrees) {
+        return createDelivery(id, radius * Math.cos(Math.toRadians(degrees)), radius * Math.sin(Math.toRadians(degrees)));
     }
 
-    private Delivery createDelivery(Long id, double altitude, double longitude) {
-        Delivery delivery = new Delivery();
-        delivery.setId(id);
-        delivery.setAltitude(altitude);
-        delivery.setLongitude(longitude);
-        return delivery;
+    private void stubDistance(Warehouse from, Delivery to, double distance) {
+        when(distanceCalculator.distance(PreparedPoint.of(from.getAltitude(), from.getLongitude()), PreparedPoint.of(to.getAltitude(), to.getLongitude())))
+                .thenReturn(distance);
     }
 
-    private Tour createTour(Warehouse warehouse, List<Delivery> deliveries) {
-        Tour tour = new Tour();
-        tour.setWarehouse(warehouse);
-        tour.setDeliveries(new ArrayList<>(deliveries));
-        return tour;
+    private void stubDistance(Delivery from, Delivery to, double distance) {
+        when(distanceCalculator.distance(PreparedPoint.of(from.getAltitude(), from.getLongitude()), PreparedPoint.of(to.getAltitude(), to.getLongitude())))
+                .thenReturn(distance);
+    }
+
+    private static double planarDistance(PreparedPoint from, PreparedPoint to) {
+        return Math.hypot(from.latRad() - to.latRad(), from.lonRad() - to.lonRad());
+    }
+
+    private void verifyWarehouseDistances(Warehouse warehouse, int count) {
+        verify(distanceCalculator, times(count))
+                .distance(eq(PreparedPoint.of(warehouse)), any(PreparedPoint.class));
+    }
+
+    private void verifyTotalDistances(int count) {
+        verify(distanceCalculator, times(count)).distance(any(PreparedPoint.class), any(PreparedPoint.class));
     }
 
     private void setupDistancesForFiveDeliveries(Warehouse warehouse, List<Delivery> deliveries) {
@@ -405,28 +561,28 @@ class ClarkeWrightOptimizerTest {
         Delivery d5 = deliveries.get(4);  // 5.0, 5.0
 
         // Distances from warehouse
-        when(distanceCalculator.distance(warehouse, d1)).thenReturn(1.41);
-        when(distanceCalculator.distance(warehouse, d2)).thenReturn(1.70);
-        when(distanceCalculator.distance(warehouse, d3)).thenReturn(14.14);
-        when(distanceCalculator.distance(warehouse, d4)).thenReturn(14.42);
-        when(distanceCalculator.distance(warehouse, d5)).thenReturn(7.07);
+        stubDistance(warehouse, d1, 1.41);
+        stubDistance(warehouse, d2, 1.70);
+        stubDistance(warehouse, d3, 14.14);
+        stubDistance(warehouse, d4, 14.42);
+        stubDistance(warehouse, d5, 7.07);
 
         // Distances between deliveries - cluster 1 (d1, d2)
-        when(distanceCalculator.distance(d1, d2)).thenReturn(0.28);  // Very close
+        stubDistance(d1, d2, 0.28);  // Very close
 
         // Distances between deliveries - cluster 2 (d3, d4)
-        when(distanceCalculator.distance(d3, d4)).thenReturn(0.28);  // Very close
+        stubDistance(d3, d4, 0.28);  // Very close
 
         // Cross-cluster distances
-        when(distanceCalculator.distance(d1, d3)).thenReturn(12.73);
-        when(distanceCalculator.distance(d1, d4)).thenReturn(13.01);
-        when(distanceCalculator.distance(d2, d3)).thenReturn(12.44);
-        when(distanceCalculator.distance(d2, d4)).thenReturn(12.73);
+        stubDistance(d1, d3, 12.73);
+        stubDistance(d1, d4, 13.01);
+        stubDistance(d2, d3, 12.44);
+        stubDistance(d2, d4, 12.73);
 
         // Middle delivery distances
-        when(distanceCalculator.distance(d1, d5)).thenReturn(5.66);
-        when(distanceCalculator.distance(d2, d5)).thenReturn(5.37);
-        when(distanceCalculator.distance(d3, d5)).thenReturn(7.07);
-        when(distanceCalculator.distance(d4, d5)).thenReturn(7.35);
+        stubDistance(d1, d5, 5.66);
+        stubDistance(d2, d5, 5.37);
+        stubDistance(d3, d5, 7.07);
+        stubDistance(d4, d5, 7.35);
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.dto.DeliveryDTO;
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.repository.DeliveryRepository;
+import com.deliveryoptimizer.repository.TourRepository;
+import com.deliveryoptimizer.service.impl.DeliveryServiceImpl;
+import com.deliveryoptimizer.service.impl.OptimizationResultCache;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeliveryServiceImpl Tests")
+class DeliveryServiceImplTest {
+
+    @Mock
+    private DeliveryRepository deliveryRepository;
+
+    @Mock
+    private TourRepository tourRepository;
+
+    private DistanceCalculator distanceCalculator;
+    private OptimizationResultCache resultCache;
+    private DeliveryServiceImpl deliveryService;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        resultCache = new OptimizationResultCache(100, 3600);
+        deliveryService = new DeliveryServiceImpl(deliveryRepository, tourRepository, resultCache, distanceCalculator);
+    }
+
+    @Test
+    @DisplayName("Should re-measure the tour of a delivery whose location changed and keep its stop order")
+    void updateDelivery_WhenMoved_RecalculatesTourDistance() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(1L, warehouse, List.of(
+                createDelivery(3L, 33.58, -7.60, 0),
+                createDelivery(1L, 33.59, -7.58, 1),
+                createDelivery(2L, 33.57, -7.57, 2)));
+        tour.setTotalDistance(TourUtils.calculateTotalDistance(warehouse, tour.getDeliveries(), distanceCalculator));
+        double before = tour.getTotalDistance();
+        Delivery delivery = tour.getDeliveries().get(1);
+        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery));
+        when(deliveryRepository.save(delivery)).thenReturn(delivery);
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+
+        // When
+        deliveryService.updateDelivery(1L, createDeliveryDTO(33.65, -7.50));
+
+        // Then
+        assertThat(tour.getDeliveries()).extracting(Delivery::getId).containsExactly(3L, 1L, 2L);
+        assertThat(tour.getDeliveries()).extracting(Delivery::getStopSequence).containsExactly(0, 1, 2);
+        assertThat(tour.getTotalDistance()).isGreaterThan(before);
+        assertThat(tour.getTotalDistance())
+                .isCloseTo(TourUtils.calculateTotalDistance(warehouse, tour.getDeliveries(), distanceCalculator), within(1e-9));
+        verify(tourRepository).save(tour);
+    }
+
+    @Test
+    @DisplayName("Should leave the tour alone when the delivery keeps its location")
+    void updateDelivery_WhenNotMoved_KeepsTourDistance() {
+        // Given
+        Tour tour = createTour(1L, createWarehouse(33.5731, -7.5898), List.of(createDelivery(1L, 33.59, -7.58, 0)));
+        tour.setTotalDistance(4.2);
+        Delivery delivery = tour.getDeliveries().get(0);
+        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery));
+        when(deliveryRepository.save(delivery)).thenReturn(delivery);
+
+        // When
+        deliveryService.updateDelivery(1L, createDeliveryDTO(33.59, -7.58));
+
+        // Then
+        assertThat(tour.getTotalDistance()).isEqualTo(4.2);
+        assertThat(delivery.getStopSequence()).isZero();
+        verifyNoInteractions(tourRepository);
+    }
+
+    // Helper methods
+    private Delivery createDelivery(Long id, double altitude, double longitude, int stopSequence) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        delivery.setStopSequence(stopSequence);
+        return delivery;
+    }
+
+    private DeliveryDTO createDeliveryDTO(double altitude, double longitude) {
+        return DeliveryDTO.builder()
+                .altitude(altitude)
+                .longitude(longitude)
+                .maxWeight(1)
+                .maxVolume(0.1)
+                .build();
+    }
+
+    private Tour createTour(Long id, Warehouse warehouse, List<Delivery> deliveries) {
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(new ArrayList<>(deliveries));
+        deliveries.forEach(d -> d.setTour(tour));
+        return tour;
+    }
+}
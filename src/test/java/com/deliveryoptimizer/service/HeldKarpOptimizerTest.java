@@ -0,0 +1,123 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.ClarkeWrightOptimizer;
+import com.deliveryoptimizer.service.impl.HeldKarpOptimizer;
+import com.deliveryoptimizer.service.impl.LocalSearchOptimizer;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@DisplayName("HeldKarpOptimizer Tests")
+class HeldKarpOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+    private TourOptimizer fallback;
+    private HeldKarpOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        fallback = mock(TourOptimizer.class);
+        optimizer = new HeldKarpOptimizer(fallback, distanceCalculator, 15, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        optimizer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should find the same length as trying every order of eight deliveries")
+    void solve_MatchesBruteForce() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        DistanceMatrix matrix = DistanceMatrix.of(createTour(warehouse, randomDeliveries(8, 5L)), distanceCalculator);
+
+        // When
+        int[] order = optimizer.solve(matrix);
+
+        // Then
+        int[] identity = {1, 2, 3, 4, 5, 6, 7, 8};
+        assertThat(order).containsExactlyInAnyOrder(identity);
+        assertThat(TourUtils.calculateTotalDistance(order, matrix)).isCloseTo(bruteForce(identity, 0, matrix), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should never be longer than Clarke Wright + 2-opt on a full BIKE tour")
+    void optimizeTour_WithFifteenDeliveries_BeatsHeuristic() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(warehouse, randomDeliveries(15, 9L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        LocalSearchOptimizer heuristic = new LocalSearchOptimizer(new ClarkeWrightOptimizer(distanceCalculator), distanceCalculator);
+
+        // When
+        List<Delivery> exact = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(exact).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(exact, matrix))
+                .isLessThanOrEqualTo(TourUtils.calculateTotalDistance(heuristic.optimizerTour(tour, matrix), matrix) + 1e-9);
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    @DisplayName("Should hand tours above the threshold to the fallback optimizer")
+    void optimizeTour_AboveThreshold_UsesFallback() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(16, 1L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        when(fallback.optimizerTour(tour, matrix)).thenReturn(tour.getDeliveries());
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).isSameAs(tour.getDeliveries());
+        assertThat(optimizer.isExact(16)).isFalse();
+        verify(fallback).optimizerTour(tour, matrix);
+    }
+
+    @Test
+    @DisplayName("Should refuse a threshold whose table would not fit the memory bound")
+    void constructor_WithTooLargeThreshold_Throws() {
+        assertThatThrownBy(() -> new HeldKarpOptimizer(fallback, distanceCalculator, HeldKarpOptimizer.MAX_SUPPORTED_DELIVERIES + 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Helper methods
+    private double bruteForce(int[] order, int fixed, DistanceMatrix matrix) {
+        if(fixed == order.length) return TourUtils.calculateTotalDistance(order, matrix);
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = fixed; i < order.length; i++) {
+            swap(order, fixed, i);
+            best = Math.min(best, bruteForce(order, fixed + 1, matrix));
+            swap(order, fixed, i);
+        }
+        return best;
+    }
+
+    private void swap(int[] order, int i, int j) {
+        int t = order[i];
+        order[i] = order[j];
+        order[j] = t;
+    }
+}
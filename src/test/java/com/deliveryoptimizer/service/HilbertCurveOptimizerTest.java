@@ -0,0 +1,118 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.HilbertCurveOptimizer;
+import com.deliveryoptimizer.service.impl.LocalSearchOptimizer;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.DistanceProvider;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("HilbertCurveOptimizer Tests")
+class HilbertCurveOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+    private HilbertCurveOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        optimizer = new HilbertCurveOptimizer();
+    }
+
+    @Test
+    @DisplayName("Should visit a 4x4 grid cell by cell, starting next to the warehouse")
+    void optimizeTour_WithGrid_FollowsCurve() {
+        // Given: the warehouse sits in the lower-left corner of a grid with square cells on the ground
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        double lonStep = 0.01 / Math.cos(Math.toRadians(33.015));
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 4; column++) {
+                if(row == 0 && column == 0) continue;
+                deliveries.add(createDelivery((long) deliveries.size() + 1, 33.00 + row * 0.01, -7.00 + column * lonStep));
+            }
+        }
+        Tour tour = createTour(warehouse, deliveries);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour);
+
+        // Then: every step moves to an adjacent grid point
+        assertThat(result).containsExactlyInAnyOrderElementsOf(deliveries);
+        double step = distanceCalculator.distance(33.00, -7.00, 33.01, -7.00);
+        assertThat(distanceCalculator.distance(warehouse, result.get(0))).isLessThan(step * 1.5);
+        for (int i = 1; i < result.size(); i++) {
+            assertThat(distanceCalculator.distance(result.get(i - 1), result.get(i))).isLessThan(step * 1.5);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match the route it builds through a distance matrix")
+    void optimizeTour_WithMatrix_MatchesDirectRoute() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(300, 3L));
+
+        // When
+        List<Delivery> direct = optimizer.optimizerTour(tour);
+        List<Delivery> viaMatrix = optimizer.optimizerTour(tour, DistanceMatrix.of(tour, distanceCalculator));
+
+        // Then
+        assertThat(viaMatrix).isEqualTo(direct);
+    }
+
+    @Test
+    @DisplayName("Should stay close to Nearest Neighbor on a large tour and seed the local search")
+    void optimizeTour_WithLargeTour_GivesUsableRoute() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(warehouse, randomDeliveries(2000, 11L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        List<Delivery> hilbert = optimizer.optimizerTour(tour, matrix);
+        List<Delivery> nearestNeighbor = new NearestNeighborOptimizer(distanceCalculator).optimizerTour(tour, matrix);
+        List<Delivery> improved = new LocalSearchOptimizer(optimizer, distanceCalculator).optimizerTour(tour, matrix);
+
+        // Then
+        double hilbertDistance = TourUtils.calculateTotalDistance(warehouse, hilbert, distanceCalculator);
+        double nearestNeighborDistance = TourUtils.calculateTotalDistance(warehouse, nearestNeighbor, distanceCalculator);
+        double improvedDistance = TourUtils.calculateTotalDistance(warehouse, improved, distanceCalculator);
+        assertThat(hilbert).hasSize(2000).doesNotHaveDuplicates();
+        assertThat(hilbertDistance).isLessThan(nearestNeighborDistance * 1.3);
+        assertThat(improvedDistance).isLessThan(hilbertDistance);
+    }
+
+    @Test
+    @DisplayName("Should route through a distance matrix without asking for a single distance")
+    void optimizeTour_WithMatrix_ReadsNoDistance() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(500, 5L));
+        DistanceProvider provider = mock(DistanceProvider.class);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, DistanceMatrix.of(tour, provider));
+
+        // Then
+        assertThat(result).hasSize(500);
+        verify(provider, never()).distance(any(), any());
+        verify(provider, never()).distances(any(), any(), anyInt(), anyInt(), any());
+        verify(provider, never()).matrix(any(), any());
+    }
+}
@@ -0,0 +1,128 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.ClarkeWrightOptimizer;
+import com.deliveryoptimizer.service.impl.LocalSearchOptimizer;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LocalSearchOptimizer Tests")
+class LocalSearchOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+    }
+
+    @Test
+    @DisplayName("Should return the seed route unchanged when it has fewer than three deliveries")
+    void optimizeTour_WithTwoDeliveries_ReturnsSeed() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Delivery d1 = createDelivery(1L, 33.5800, -7.5850);
+        Delivery d2 = createDelivery(2L, 33.5850, -7.5750);
+        Tour tour = createTour(warehouse, List.of(d1, d2));
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(new NearestNeighborOptimizer(distanceCalculator), distanceCalculator);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour);
+
+        // Then
+        assertThat(result).containsExactly(d1, d2);
+    }
+
+    @Test
+    @DisplayName("Should uncross a route that zig-zags across a square")
+    void improve_WithCrossedSquare_RemovesCrossing() {
+        // Given: warehouse at one corner, seed order visits the other corners crosswise
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        Delivery a = createDelivery(1L, 33.00, -6.99);
+        Delivery b = createDelivery(2L, 33.01, -6.99);
+        Delivery c = createDelivery(3L, 33.01, -7.00);
+        Tour tour = createTour(warehouse, List.of(a, b, c));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(new NearestNeighborOptimizer(distanceCalculator), distanceCalculator);
+
+        // When: a -> c -> b crosses itself
+        int[] improved = optimizer.improve(new int[]{1, 3, 2}, matrix);
+
+        // Then
+        List<Delivery> route = matrix.toDeliveries(improved);
+        assertThat(route).isIn(List.of(a, b, c), List.of(c, b, a));
+    }
+
+    @Test
+    @DisplayName("Should keep every delivery and never lengthen the Nearest Neighbor route")
+    void optimizeTour_WithNearestNeighborSeed_ImprovesRoute() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(warehouse, randomDeliveries(400, 7L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer(distanceCalculator);
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(nearestNeighbor, distanceCalculator);
+
+        // When
+        double seedDistance = TourUtils.calculateTotalDistance(nearestNeighbor.optimizerTour(tour, matrix), matrix);
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).hasSize(400).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(result, matrix)).isLessThan(seedDistance);
+    }
+
+    @Test
+    @DisplayName("Should never lengthen the Clarke Wright route")
+    void optimizeTour_WithClarkeWrightSeed_NeverWorse() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(warehouse, randomDeliveries(300, 11L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        TourOptimizer clarkeWright = new ClarkeWrightOptimizer(distanceCalculator);
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(clarkeWright, distanceCalculator);
+
+        // When
+        double seedDistance = TourUtils.calculateTotalDistance(clarkeWright.optimizerTour(tour, matrix), matrix);
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(result, matrix)).isLessThanOrEqualTo(seedDistance + 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should improve a tour too large to cache, with grid-built candidates and in-place moves")
+    void optimizeTour_AboveMatrixCap_ImprovesRoute() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Tour tour = createTour(warehouse, randomDeliveries(DistanceMatrix.MAX_CACHED_POINTS + 500, 5L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer(distanceCalculator);
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(nearestNeighbor, distanceCalculator);
+
+        // When
+        double seedDistance = TourUtils.calculateTotalDistance(nearestNeighbor.optimizerTour(tour, matrix), matrix);
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).hasSameSizeAs(tour.getDeliveries()).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(result, matrix)).isLessThan(seedDistance * 0.95);
+    }
+}
@@ -0,0 +1,101 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.impl.MultiStartNearestNeighborOptimizer;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MultiStartNearestNeighborOptimizer Tests")
+class MultiStartNearestNeighborOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+    private NearestNeighborOptimizer nearestNeighbor;
+    private MultiStartNearestNeighborOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        nearestNeighbor = new NearestNeighborOptimizer(distanceCalculator);
+        optimizer = new MultiStartNearestNeighborOptimizer(nearestNeighbor, distanceCalculator, 4, 32);
+    }
+
+    @AfterEach
+    void tearDown() {
+        optimizer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep every delivery and never be longer than single-start NN")
+    void optimizeTour_NeverWorseThanNearestNeighbor() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(300, 3L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        double single = TourUtils.calculateTotalDistance(nearestNeighbor.optimizerTour(tour, matrix), matrix);
+        assertThat(result).hasSize(300).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(result, matrix)).isLessThanOrEqualTo(single);
+    }
+
+    @Test
+    @DisplayName("Should return the same route whatever the degree of parallelism")
+    void optimizeTour_IsDeterministicAcrossParallelism() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(200, 5L));
+        MultiStartNearestNeighborOptimizer sequential = new MultiStartNearestNeighborOptimizer(nearestNeighbor, distanceCalculator, 1, 32);
+
+        try {
+            // When
+            List<Delivery> parallelResult = optimizer.optimizerTour(tour);
+            List<Delivery> sequentialResult = sequential.optimizerTour(tour);
+
+            // Then
+            assertThat(optimizer.getParallelism()).isEqualTo(4);
+            assertThat(sequential.getParallelism()).isEqualTo(1);
+            assertThat(parallelResult).containsExactlyElementsOf(sequentialResult);
+        } finally {
+            sequential.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should start the route at the forced first delivery")
+    void route_WithForcedFirstStop_StartsThere() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(50, 9L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        int[] route = nearestNeighbor.route(matrix, 17);
+
+        // Then
+        assertThat(route).hasSize(50);
+        assertThat(route[0]).isEqualTo(17);
+        assertThat(matrix.toDeliveries(route)).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+    }
+
+    @Test
+    @DisplayName("Should reject a configuration without starts")
+    void constructor_WithoutStarts_Throws() {
+        assertThatThrownBy(() -> new MultiStartNearestNeighborOptimizer(nearestNeighbor, distanceCalculator, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
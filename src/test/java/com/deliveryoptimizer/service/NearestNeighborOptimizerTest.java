@@ -5,6 +5,7 @@ import com.deliveryoptimizer.model.Tour;
 import com.deliveryoptimizer.model.Warehouse;
 import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
 import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.PreparedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,8 +16,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +45,7 @@ class NearestNeighborOptimizerTest {
         Delivery delivery = createDelivery(1L, 10.0, 10.0);
         Tour tour = createTour(warehouse, List.of(delivery));
 
-        when(distanceCalculator.distance(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        when(distanceCalculator.distance(any(PreparedPoint.class), any(PreparedPoint.class)))
                 .thenReturn(14.14);
 
         // When
@@ -50,7 +54,7 @@ class NearestNeighborOptimizerTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(1L);
-        verify(distanceCalculator, times(1)).distance(0.0, 0.0, 10.0, 10.0);
+        verify(distanceCalculator, times(1)).distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(10.0, 10.0));
     }
 
     @Test
@@ -65,16 +69,16 @@ class NearestNeighborOptimizerTest {
         Tour tour = createTour(warehouse, List.of(delivery1, delivery2, delivery3));
 
         // Mock distances from warehouse (0,0)
-        when(distanceCalculator.distance(0.0, 0.0, 10.0, 10.0)).thenReturn(14.14);
-        when(distanceCalculator.distance(0.0, 0.0, 5.0, 5.0)).thenReturn(7.07);  // Nearest
-        when(distanceCalculator.distance(0.0, 0.0, 15.0, 15.0)).thenReturn(21.21);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(10.0, 10.0))).thenReturn(14.14);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(5.0, 5.0))).thenReturn(7.07);  // Nearest
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(15.0, 15.0))).thenReturn(21.21);
 
         // Mock distances from delivery2 (5,5)
-        when(distanceCalculator.distance(5.0, 5.0, 10.0, 10.0)).thenReturn(7.07);  // Nearest
-        when(distanceCalculator.distance(5.0, 5.0, 15.0, 15.0)).thenReturn(14.14);
+        when(distanceCalculator.distance(PreparedPoint.of(5.0, 5.0), PreparedPoint.of(10.0, 10.0))).thenReturn(7.07);  // Nearest
+        when(distanceCalculator.distance(PreparedPoint.of(5.0, 5.0), PreparedPoint.of(15.0, 15.0))).thenReturn(14.14);
 
         // Mock distances from delivery1 (10,10)
-        when(distanceCalculator.distance(10.0, 10.0, 15.0, 15.0)).thenReturn(7.07);
+        when(distanceCalculator.distance(PreparedPoint.of(10.0, 10.0), PreparedPoint.of(15.0, 15.0))).thenReturn(7.07);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -98,7 +102,7 @@ class NearestNeighborOptimizerTest {
 
         // Then
         assertThat(result).isEmpty();
-        verify(distanceCalculator, never()).distance(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+        verify(distanceCalculator, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
     }
 
     @Test
@@ -111,9 +115,9 @@ class NearestNeighborOptimizerTest {
 
         Tour tour = createTour(warehouse, List.of(nearDelivery, farDelivery));
 
-        when(distanceCalculator.distance(0.0, 0.0, 2.0, 2.0)).thenReturn(2.83);
-        when(distanceCalculator.distance(0.0, 0.0, 20.0, 20.0)).thenReturn(28.28);
-        when(distanceCalculator.distance(2.0, 2.0, 20.0, 20.0)).thenReturn(25.46);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(2.0, 2.0))).thenReturn(2.83);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(20.0, 20.0))).thenReturn(28.28);
+        when(distanceCalculator.distance(PreparedPoint.of(2.0, 2.0), PreparedPoint.of(20.0, 20.0))).thenReturn(25.46);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -135,9 +139,9 @@ class NearestNeighborOptimizerTest {
         Tour tour = createTour(warehouse, List.of(delivery1, delivery2));
 
         // Both deliveries are equidistant from warehouse
-        when(distanceCalculator.distance(0.0, 0.0, 5.0, 0.0)).thenReturn(5.0);
-        when(distanceCalculator.distance(0.0, 0.0, 0.0, 5.0)).thenReturn(5.0);
-        when(distanceCalculator.distance(5.0, 0.0, 0.0, 5.0)).thenReturn(7.07);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(5.0, 0.0))).thenReturn(5.0);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(0.0, 5.0))).thenReturn(5.0);
+        when(distanceCalculator.distance(PreparedPoint.of(5.0, 0.0), PreparedPoint.of(0.0, 5.0))).thenReturn(7.07);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -156,13 +160,13 @@ class NearestNeighborOptimizerTest {
         Delivery delivery = createDelivery(1L, 34.0, -7.0);
         Tour tour = createTour(warehouse, List.of(delivery));
 
-        when(distanceCalculator.distance(33.5, -7.6, 34.0, -7.0)).thenReturn(0.7);
+        when(distanceCalculator.distance(PreparedPoint.of(33.5, -7.6), PreparedPoint.of(34.0, -7.0))).thenReturn(0.7);
 
         // When
         optimizer.optimizerTour(tour);
 
         // Then
-        verify(distanceCalculator).distance(33.5, -7.6, 34.0, -7.0);
+        verify(distanceCalculator).distance(PreparedPoint.of(33.5, -7.6), PreparedPoint.of(34.0, -7.0));
     }
 
     @Test
@@ -203,7 +207,7 @@ class NearestNeighborOptimizerTest {
         List<Delivery> originalDeliveries = new ArrayList<>(List.of(delivery1, delivery2));
         Tour tour = createTour(warehouse, originalDeliveries);
 
-        when(distanceCalculator.distance(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        when(distanceCalculator.distance(any(PreparedPoint.class), any(PreparedPoint.class)))
                 .thenReturn(1.0);
 
         // When
@@ -227,14 +231,14 @@ class NearestNeighborOptimizerTest {
         Tour tour = createTour(warehouse, List.of(delivery1, delivery2, delivery3));
 
         // Mock realistic distances (in km)
-        when(distanceCalculator.distance(33.5731, -7.5898, 33.5950, -7.6187)).thenReturn(3.5);
-        when(distanceCalculator.distance(33.5731, -7.5898, 33.5892, -7.6039)).thenReturn(2.1);  // Nearest
-        when(distanceCalculator.distance(33.5731, -7.5898, 33.5500, -7.6200)).thenReturn(4.2);
+        when(distanceCalculator.distance(PreparedPoint.of(33.5731, -7.5898), PreparedPoint.of(33.5950, -7.6187))).thenReturn(3.5);
+        when(distanceCalculator.distance(PreparedPoint.of(33.5731, -7.5898), PreparedPoint.of(33.5892, -7.6039))).thenReturn(2.1);  // Nearest
+        when(distanceCalculator.distance(PreparedPoint.of(33.5731, -7.5898), PreparedPoint.of(33.5500, -7.6200))).thenReturn(4.2);
 
-        when(distanceCalculator.distance(33.5892, -7.6039, 33.5950, -7.6187)).thenReturn(1.8);  // Nearest
-        when(distanceCalculator.distance(33.5892, -7.6039, 33.5500, -7.6200)).thenReturn(4.8);
+        when(distanceCalculator.distance(PreparedPoint.of(33.5892, -7.6039), PreparedPoint.of(33.5950, -7.6187))).thenReturn(1.8);  // Nearest
+        when(distanceCalculator.distance(PreparedPoint.of(33.5892, -7.6039), PreparedPoint.of(33.5500, -7.6200))).thenReturn(4.8);
 
-        when(distanceCalculator.distance(33.5950, -7.6187, 33.5500, -7.6200)).thenReturn(5.0);
+        when(distanceCalculator.distance(PreparedPoint.of(33.5950, -7.6187), PreparedPoint.of(33.5500, -7.6200))).thenReturn(5.0);
 
         // When
         List<Delivery> result = optimizer.optimizerTour(tour);
@@ -246,54 +250,64 @@ class NearestNeighborOptimizerTest {
         assertThat(result.get(2).getId()).isEqualTo(3L); // Ain Diab (last)
     }
 
-    // Helper methods
-    private Warehouse createWarehouse(Long id, double altitude, double longitude) {
-        Warehouse warehouse = new Warehouse();
-        warehouse.setId(id);
-        warehouse.setAltitude(altitude);
-        warehouse.setLongitude(longitude);
-        return warehouse;
-    }
+    @Test
+    @DisplayName("Should give the same route with and without the spatial index")
+    void optimizeTour_WithSpatialIndex_MatchesMatrixScan() {
+        // Given
+        DistanceCalculator realCalculator = new DistanceCalculator();
+        NearestNeighborOptimizer scanning = new NearestNeighborOptimizer(realCalculator, Integer.MAX_VALUE);
+        NearestNeighborOptimizer indexed = new NearestNeighborOptimizer(realCalculator, 0);
+        Tour tour = createTour(createWarehouse(1L, 33.5731, -7.5898), randomDeliveries(2000, 5));
 
-    private Delivery createDelivery(Long id, double altitude, double longitude) {
-        Delivery delivery = new Delivery();
-        delivery.setId(id);
-        delivery.setAltitude(altitude);
-        delivery.setLongitude(longitude);
-        return delivery;
+        // When
+        List<Delivery> expected = scanning.optimizerTour(tour);
+        List<Delivery> actual = indexed.optimizerTour(tour);
+
+        // Then
+        assertThat(actual).containsExactlyElementsOf(expected);
     }
 
-    private Tour createTour(Warehouse warehouse, List<Delivery> deliveries) {
-        Tour tour = new Tour();
-        tour.setWarehouse(warehouse);
-        tour.setDeliveries(new ArrayList<>(deliveries));
-        return tour;
+    @Test
+    @DisplayName("Should route ten thousand deliveries through the spatial index")
+    void optimizeTour_WithTenThousandDeliveries_VisitsEveryDeliveryOnce() {
+        // Given
+        NearestNeighborOptimizer realOptimizer = new NearestNeighborOptimizer(new DistanceCalculator());
+        List<Delivery> deliveries = randomDeliveries(10_000, 9);
+        Tour tour = createTour(createWarehouse(1L, 33.5731, -7.5898), deliveries);
+
+        // When
+        List<Delivery> result = realOptimizer.optimizerTour(tour);
+
+        // Then
+        assertThat(result).hasSize(10_000);
+        assertThat(result).containsExactlyInAnyOrderElementsOf(deliveries);
     }
 
+    // Helper methods
     private void setupDistancesForFiveDeliveries() {
         // From warehouse (0,0)
-        when(distanceCalculator.distance(0.0, 0.0, 1.0, 1.0)).thenReturn(1.41);
-        when(distanceCalculator.distance(0.0, 0.0, 2.0, 2.0)).thenReturn(2.83);
-        when(distanceCalculator.distance(0.0, 0.0, 10.0, 10.0)).thenReturn(14.14);
-        when(distanceCalculator.distance(0.0, 0.0, 11.0, 11.0)).thenReturn(15.56);
-        when(distanceCalculator.distance(0.0, 0.0, 1.5, 1.5)).thenReturn(2.12);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(1.0, 1.0))).thenReturn(1.41);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(2.0, 2.0))).thenReturn(2.83);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(10.0, 10.0))).thenReturn(14.14);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(11.0, 11.0))).thenReturn(15.56);
+        when(distanceCalculator.distance(PreparedPoint.of(0.0, 0.0), PreparedPoint.of(1.5, 1.5))).thenReturn(2.12);
 
         // From delivery 1 (1,1)
-        when(distanceCalculator.distance(1.0, 1.0, 2.0, 2.0)).thenReturn(1.41);
-        when(distanceCalculator.distance(1.0, 1.0, 10.0, 10.0)).thenReturn(12.73);
-        when(distanceCalculator.distance(1.0, 1.0, 11.0, 11.0)).thenReturn(14.14);
-        when(distanceCalculator.distance(1.0, 1.0, 1.5, 1.5)).thenReturn(0.71);
+        when(distanceCalculator.distance(PreparedPoint.of(1.0, 1.0), PreparedPoint.of(2.0, 2.0))).thenReturn(1.41);
+        when(distanceCalculator.distance(PreparedPoint.of(1.0, 1.0), PreparedPoint.of(10.0, 10.0))).thenReturn(12.73);
+        when(distanceCalculator.distance(PreparedPoint.of(1.0, 1.0), PreparedPoint.of(11.0, 11.0))).thenReturn(14.14);
+        when(distanceCalculator.distance(PreparedPoint.of(1.0, 1.0), PreparedPoint.of(1.5, 1.5))).thenReturn(0.71);
 
         // From delivery 5 (1.5, 1.5)
-        when(distanceCalculator.distance(1.5, 1.5, 2.0, 2.0)).thenReturn(0.71);
-        when(distanceCalculator.distance(1.5, 1.5, 10.0, 10.0)).thenReturn(12.02);
-        when(distanceCalculator.distance(1.5, 1.5, 11.0, 11.0)).thenReturn(13.44);
+        when(distanceCalculator.distance(PreparedPoint.of(1.5, 1.5), PreparedPoint.of(2.0, 2.0))).thenReturn(0.71);
+        when(distanceCalculator.distance(PreparedPoint.of(1.5, 1.5), PreparedPoint.of(10.0, 10.0))).thenReturn(12.02);
+        when(distanceCalculator.distance(PreparedPoint.of(1.5, 1.5), PreparedPoint.of(11.0, 11.0))).thenReturn(13.44);
 
         // From delivery 2 (2,2)
-        when(distanceCalculator.distance(2.0, 2.0, 10.0, 10.0)).thenReturn(11.31);
-        when(distanceCalculator.distance(2.0, 2.0, 11.0, 11.0)).thenReturn(12.73);
+        when(distanceCalculator.distance(PreparedPoint.of(2.0, 2.0), PreparedPoint.of(10.0, 10.0))).thenReturn(11.31);
+        when(distanceCalculator.distance(PreparedPoint.of(2.0, 2.0), PreparedPoint.of(11.0, 11.0))).thenReturn(12.73);
 
         // From delivery 3 (10,10)
-        when(distanceCalculator.distance(10.0, 10.0, 11.0, 11.0)).thenReturn(1.41);
+        when(distanceCalculator.distance(PreparedPoint.of(10.0, 10.0), PreparedPoint.of(11.0, 11.0))).thenReturn(1.41);
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.dto.OptimizationJobDTO;
+import com.deliveryoptimizer.model.enums.JobStatus;
+import com.deliveryoptimizer.service.impl.OptimizationJobServiceImpl;
+import com.deliveryoptimizer.service.impl.OptimizerRegistry;
+import com.deliveryoptimizer.service.impl.SimulatedAnnealingOptimizer;
+import com.deliveryoptimizer.service.interfaces.OptimizationProgress;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.service.interfaces.TourService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OptimizationJobService Tests")
+class OptimizationJobServiceImplTest {
+
+    @Mock
+    private TourService tourService;
+
+    @Mock
+    private TourOptimizer tourOptimizer;
+
+    private OptimizerRegistry optimizerRegistry;
+    private OptimizationJobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        optimizerRegistry = new OptimizerRegistry(Map.of("nn", tourOptimizer, "cw", tourOptimizer), Map.of(), 1);
+        jobService = new OptimizationJobServiceImpl(tourService, optimizerRegistry, new SimulatedAnnealingOptimizer(10_000, 42L), 1, 1, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        optimizerRegistry.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run the optimization in the background and expose its result")
+    void submit_CompletesWithResult() throws InterruptedException {
+        // Given
+        when(tourService.optimizeTour(eq(1L), eq("cw"), isNull(), any())).thenReturn(List.of(3L, 1L, 2L));
+
+        // When
+        OptimizationJobDTO submitted = jobService.submit(1L, "CW", null);
+        OptimizationJobDTO finished = awaitStatus(1L, submitted.getJobId(), JobStatus.COMPLETED);
+
+        // Then
+        assertThat(submitted.getStatus()).isIn(JobStatus.QUEUED, JobStatus.RUNNING, JobStatus.COMPLETED);
+        assertThat(finished.getResult()).containsExactly(3L, 1L, 2L);
+        assertThat(finished.getProgress()).isEqualTo(1.0);
+        assertThat(finished.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should stop a running job cooperatively when it is cancelled")
+    void cancel_RunningJob_BecomesCancelled() throws InterruptedException {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        when(tourService.optimizeTour(eq(1L), eq("nn"), eq(5_000L), any())).thenAnswer(invocation -> {
+            OptimizationProgress progress = invocation.getArgument(3);
+            progress.report(0.25);
+            started.countDown();
+            while (!progress.isCancelled()) {
+                Thread.sleep(5);
+            }
+            throw new CancellationException("Optimization cancelled");
+        });
+        OptimizationJobDTO submitted = jobService.submit(1L, "nn", 5_000L);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(jobService.getJob(1L, submitted.getJobId()).getProgress()).isEqualTo(0.25);
+
+        // When
+        jobService.cancel(1L, submitted.getJobId());
+
+        // Then
+        OptimizationJobDTO cancelled = awaitStatus(1L, submitted.getJobId(), JobStatus.CANCELLED);
+        assertThat(cancelled.getResult()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject submissions once the worker and the queue are busy, and cancel queued jobs at once")
+    void submit_WhenQueueIsFull_Throws() throws InterruptedException {
+        // Given: one worker blocked, one job waiting in the single queue slot
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(tourService.optimizeTour(eq(1L), any(), isNull(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return List.of();
+        });
+        jobService.submit(1L, "nn", null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        OptimizationJobDTO queued = jobService.submit(1L, "nn", null);
+
+        // Then
+        assertThatThrownBy(() -> jobService.submit(1L, "nn", null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("queue is full");
+        assertThat(jobService.cancel(1L, queued.getJobId()).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should reject a method that is not registered before queueing anything")
+    void submit_WithUnknownMethod_Throws() {
+        // Then
+        assertThatThrownBy(() -> jobService.submit(1L, "genetic", null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Method Not Found!");
+        verifyNoInteractions(tourService);
+    }
+
+    @Test
+    @DisplayName("Should reject a time budget out of range before queueing anything")
+    void submit_WithBudgetOutOfRange_Throws() {
+        // Then
+        assertThatThrownBy(() -> jobService.submit(1L, "nn", 60_000L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Time budget must be between 1 and 10000 ms");
+        assertThatThrownBy(() -> jobService.submit(1L, "nn", 0L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Time budget must be between 1 and 10000 ms");
+        verifyNoInteractions(tourService);
+    }
+
+    @Test
+    @DisplayName("Should not find a job through another tour")
+    void getJob_WithOtherTour_Throws() throws InterruptedException {
+        // Given
+        when(tourService.optimizeTour(any(), any(), any(), any())).thenReturn(List.of());
+        OptimizationJobDTO submitted = jobService.submit(1L, "nn", null);
+        awaitStatus(1L, submitted.getJobId(), JobStatus.COMPLETED);
+
+        // Then
+        assertThatThrownBy(() -> jobService.getJob(2L, submitted.getJobId()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Job Not Found!");
+        assertThatThrownBy(() -> jobService.getJob(1L, "missing"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Job Not Found!");
+    }
+
+    // Helper methods
+    private OptimizationJobDTO awaitStatus(Long tourId, String jobId, JobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OptimizationJobDTO job = jobService.getJob(tourId, jobId);
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = jobService.getJob(tourId, jobId);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+        return job;
+    }
+}
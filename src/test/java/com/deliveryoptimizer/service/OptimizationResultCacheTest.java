@@ -0,0 +1,155 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.OptimizationResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OptimizationResultCache Tests")
+class OptimizationResultCacheTest {
+
+    private AtomicLong now;
+    private OptimizationResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        cache = new OptimizationResultCache(2, 60, now::get);
+    }
+
+    @Test
+    @DisplayName("Should give the same fingerprint whatever the delivery order, and a new one when coordinates change")
+    void fingerprint_DependsOnContentNotOrder() {
+        // Given
+        Delivery d1 = createDelivery(1L, 33.58, -7.58);
+        Delivery d2 = createDelivery(2L, 33.59, -7.57);
+        Tour tour = createTour(1L, List.of(d1, d2));
+        Tour reversed = createTour(1L, List.of(d2, d1));
+
+        // When
+        OptimizationResultCache.Key key = OptimizationResultCache.fingerprint(tour, "NN");
+
+        // Then
+        assertThat(OptimizationResultCache.fingerprint(reversed, "NN")).isEqualTo(key);
+        assertThat(OptimizationResultCache.fingerprint(tour, "CW")).isNotEqualTo(key);
+        d2.setLongitude(-7.56);
+        assertThat(OptimizationResultCache.fingerprint(tour, "NN")).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should give a new fingerprint when the warehouse hours or a delivery time slot change")
+    void fingerprint_DependsOnOpeningHoursAndTimeSlots() {
+        // Given
+        Delivery delivery = createDelivery(1L, 33.58, -7.58);
+        Tour tour = createTour(1L, List.of(delivery));
+        OptimizationResultCache.Key key = OptimizationResultCache.fingerprint(tour, "tw");
+
+        // When
+        tour.getWarehouse().setCloseTime(LocalTime.of(17, 0));
+        OptimizationResultCache.Key closing = OptimizationResultCache.fingerprint(tour, "tw");
+        delivery.setTimeSlot("09:00-11:00");
+        OptimizationResultCache.Key slotted = OptimizationResultCache.fingerprint(tour, "tw");
+
+        // Then
+        assertThat(closing).isNotEqualTo(key);
+        assertThat(closing.digest()).isNotEqualTo(key.digest());
+        assertThat(slotted).isNotEqualTo(closing);
+        assertThat(slotted.digest()).isNotEqualTo(closing.digest());
+    }
+
+    @Test
+    @DisplayName("Should count hits and misses and expire entries after their time to live")
+    void get_CountsHitsAndExpires() {
+        // Given
+        Tour tour = createTour(1L, List.of(createDelivery(1L, 33.58, -7.58)));
+        OptimizationResultCache.Key key = OptimizationResultCache.fingerprint(tour, "NN");
+
+        // When
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, 1L, List.of(1L), 2.5);
+        OptimizationResultCache.CachedRoute hit = cache.get(key);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        OptimizationResultCache.CachedRoute expired = cache.get(key);
+
+        // Then
+        assertThat(hit.order()).containsExactly(1L);
+        assertThat(hit.distance()).isEqualTo(2.5);
+        assertThat(expired).isNull();
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void put_WhenFull_EvictsLeastRecentlyUsed() {
+        // Given
+        OptimizationResultCache.Key nn = OptimizationResultCache.fingerprint(createTour(1L, List.of(createDelivery(1L, 1.0, 1.0))), "NN");
+        OptimizationResultCache.Key cw = OptimizationResultCache.fingerprint(createTour(1L, List.of(createDelivery(1L, 1.0, 1.0))), "CW");
+        OptimizationResultCache.Key other = OptimizationResultCache.fingerprint(createTour(2L, List.of(createDelivery(2L, 2.0, 2.0))), "NN");
+
+        // When
+        cache.put(nn, 1L, List.of(1L), 1);
+        cache.put(cw, 1L, List.of(1L), 1);
+        cache.get(nn);
+        cache.put(other, 2L, List.of(2L), 1);
+
+        // Then
+        assertThat(cache.get(nn)).isNotNull();
+        assertThat(cache.get(cw)).isNull();
+        assertThat(cache.get(other)).isNotNull();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop the entries of a modified tour or delivery")
+    void invalidate_RemovesMatchingEntries() {
+        // Given
+        OptimizationResultCache.Key first = OptimizationResultCache.fingerprint(
+                createTour(1L, List.of(createDelivery(1L, 1.0, 1.0), createDelivery(5L, 1.5, 1.5))), "NN");
+        OptimizationResultCache.Key second = OptimizationResultCache.fingerprint(
+                createTour(2L, List.of(createDelivery(7L, 2.0, 2.0))), "NN");
+        cache.put(first, 1L, List.of(1L, 5L), 1);
+        cache.put(second, 2L, List.of(7L), 1);
+
+        // When
+        cache.invalidateDelivery(5L);
+
+        // Then
+        assertThat(cache.get(first)).isNull();
+        assertThat(cache.get(second)).isNotNull();
+
+        // When
+        cache.invalidateTour(2L);
+
+        // Then
+        assertThat(cache.get(second)).isNull();
+    }
+
+    // Helper methods
+    private Tour createTour(Long id, List<Delivery> deliveries) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setAltitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(new ArrayList<>(deliveries));
+        return tour;
+    }
+}
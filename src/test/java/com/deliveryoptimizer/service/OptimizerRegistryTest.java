@@ -0,0 +1,66 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.service.impl.OptimizerRegistry;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("OptimizerRegistry Tests")
+class OptimizerRegistryTest {
+
+    private final TourOptimizer nearestNeighbor = mock(TourOptimizer.class);
+    private final TourOptimizer localSearch = mock(TourOptimizer.class);
+    private OptimizerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, TourOptimizer> optimizers = new LinkedHashMap<>();
+        optimizers.put("nn", nearestNeighbor);
+        optimizers.put("NN_2OPT", localSearch);
+        registry = new OptimizerRegistry(optimizers, Map.of("nn", "Nearest Neighbor"), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should resolve names case-insensitively with either separator, in registration order")
+    void get_NormalizesNames() {
+        // Then
+        assertThat(registry.names()).containsExactly("nn", "nn-2opt");
+        assertThat(registry.get("NN")).isSameAs(nearestNeighbor);
+        assertThat(registry.get("nn-2opt")).isSameAs(localSearch);
+        assertThat(registry.get(" Nn_2Opt ")).isSameAs(localSearch);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the method name when no label is registered")
+    void label_DefaultsToName() {
+        // Then
+        assertThat(registry.label("nn")).isEqualTo("Nearest Neighbor");
+        assertThat(registry.label("NN_2OPT")).isEqualTo("nn-2opt");
+    }
+
+    @Test
+    @DisplayName("Should reject a method that is not registered")
+    void resolve_WithUnknownMethod_Throws() {
+        // Then
+        assertThatThrownBy(() -> registry.resolve("genetic"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Method Not Found!");
+        assertThatThrownBy(() -> registry.get(null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Method Not Found!");
+    }
+}
@@ -0,0 +1,87 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.service.impl.SimulatedAnnealingOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createTour;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SimulatedAnnealingOptimizer Tests")
+class SimulatedAnnealingOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+    private SimulatedAnnealingOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        optimizer = new SimulatedAnnealingOptimizer(1_000, 42L);
+    }
+
+    @Test
+    @DisplayName("Should keep every delivery and improve on the Nearest Neighbor route")
+    void improve_WithNearestNeighborStart_ShortensRoute() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(200, 13L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        List<Delivery> start = new NearestNeighborOptimizer(distanceCalculator).optimizerTour(tour, matrix);
+
+        // When
+        List<Delivery> result = optimizer.improve(start, matrix, 300);
+
+        // Then
+        assertThat(result).hasSize(200).containsExactlyInAnyOrderElementsOf(tour.getDeliveries());
+        assertThat(TourUtils.calculateTotalDistance(result, matrix))
+                .isLessThan(TourUtils.calculateTotalDistance(start, matrix));
+    }
+
+    @Test
+    @DisplayName("Should stop close to the time budget")
+    void improve_RespectsBudget() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(500, 17L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator).fill();
+        int[] order = new int[500];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i + 1;
+        }
+
+        // When
+        long started = System.nanoTime();
+        int[] result = optimizer.improve(order, matrix, 100);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // Then
+        assertThat(elapsedMs).isBetween(100L, 1_000L);
+        assertThat(TourUtils.calculateTotalDistance(result, matrix))
+                .isLessThan(TourUtils.calculateTotalDistance(order, matrix));
+    }
+
+    @Test
+    @DisplayName("Should reject budgets outside the configured range")
+    void improve_WithInvalidBudget_Throws() {
+        // Given
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), randomDeliveries(5, 19L));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+        int[] order = {1, 2, 3, 4, 5};
+
+        // Then
+        assertThatThrownBy(() -> optimizer.improve(order, matrix, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> optimizer.improve(order, matrix, 1_001))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.service.impl.TimeWindowOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.DistanceMatrix;
+import com.deliveryoptimizer.util.TimeWindowSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeWindowOptimizer Tests")
+class TimeWindowOptimizerTest {
+
+    private DistanceCalculator distanceCalculator;
+    private TimeWindowOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        optimizer = new TimeWindowOptimizer(distanceCalculator, 30, 5);
+    }
+
+    @Test
+    @DisplayName("Should visit the far stop first when its window closes early, unlike nearest neighbour")
+    void optimizeTour_FollowsWindowsBeforeDistance() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        Delivery near = createDelivery(1L, 33.01, -7.00, "08:00-12:00");
+        Delivery far = createDelivery(2L, 33.05, -7.00, "08:00-08:13");
+        Tour tour = createTour(warehouse, List.of(near, far));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+        List<Delivery> nearest = new NearestNeighborOptimizer(distanceCalculator).optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).containsExactly(far, near);
+        assertThat(nearest).containsExactly(near, far);
+        assertThat(optimizer.schedule(matrix, new int[]{2, 1}).isFeasible()).isTrue();
+        assertThat(optimizer.schedule(matrix, new int[]{1, 2}).isFeasible()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep every window on a feasible random instance and visit each stop once")
+    void optimizeTour_RandomInstance_IsFeasible() {
+        // Given: windows wide enough for a single vehicle to serve everyone
+        Random random = new Random(17L);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            int from = 8 + random.nextInt(6);
+            deliveries.add(createDelivery(id, 33.55 + random.nextDouble() * 0.05, -7.61 + random.nextDouble() * 0.05,
+                    String.format("%02d:00-%02d:00", from, from + 3)));
+        }
+        Tour tour = createTour(createWarehouse(33.5731, -7.5898), deliveries);
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).hasSize(60).doesNotHaveDuplicates();
+        TimeWindowSchedule schedule = optimizer.schedule(matrix, result.stream().mapToInt(matrix::indexOf).toArray());
+        assertThat(schedule.isFeasible()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should still route a stop whose window cannot be met, and the schedule should flag it late")
+    void optimizeTour_WithImpossibleWindow_KeepsStopAndFlagsIt() {
+        // Given: the warehouse opens at 08:00, the stop closes at 07:00
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        Delivery ok = createDelivery(1L, 33.01, -7.00, "08:00-12:00");
+        Delivery impossible = createDelivery(2L, 33.02, -7.00, "06:00-07:00");
+        Tour tour = createTour(warehouse, List.of(ok, impossible));
+        DistanceMatrix matrix = DistanceMatrix.of(tour, distanceCalculator);
+
+        // When
+        List<Delivery> result = optimizer.optimizerTour(tour, matrix);
+
+        // Then
+        assertThat(result).containsExactlyInAnyOrder(ok, impossible);
+        int[] route = result.stream().mapToInt(matrix::indexOf).toArray();
+        TimeWindowSchedule schedule = optimizer.schedule(matrix, route);
+        int position = result.indexOf(impossible) + 1;
+        assertThat(schedule.lateness(position)).isGreaterThan(60);
+        assertThat(schedule.isFeasible()).isFalse();
+    }
+
+    // Helper methods
+    private Warehouse createWarehouse(double altitude, double longitude) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setAltitude(altitude);
+        warehouse.setLongitude(longitude);
+        warehouse.setOpenTime(LocalTime.of(8, 0));
+        warehouse.setCloseTime(LocalTime.of(18, 0));
+        return warehouse;
+    }
+
+    private Delivery createDelivery(Long id, double altitude, double longitude, String timeSlot) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        delivery.setTimeSlot(timeSlot);
+        return delivery;
+    }
+
+    private Tour createTour(Warehouse warehouse, List<Delivery> deliveries) {
+        Tour tour = new Tour();
+        tour.setId(1L);
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(new ArrayList<>(deliveries));
+        return tour;
+    }
+}
@@ -0,0 +1,433 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.dto.AutoPlanResultDTO;
+import com.deliveryoptimizer.dto.BatchOptimizationResultDTO;
+import com.deliveryoptimizer.dto.TourDTO;
+import com.deliveryoptimizer.dto.TourOptimizationResultDTO;
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.repository.DeliveryRepository;
+import com.deliveryoptimizer.repository.TourRepository;
+import com.deliveryoptimizer.repository.VehicleRepository;
+import com.deliveryoptimizer.repository.WarehouseRepository;
+import com.deliveryoptimizer.service.impl.ClarkeWrightOptimizer;
+import com.deliveryoptimizer.service.impl.NearestNeighborOptimizer;
+import com.deliveryoptimizer.service.impl.OptimizationResultCache;
+import com.deliveryoptimizer.service.impl.OptimizerRegistry;
+import com.deliveryoptimizer.service.impl.SimulatedAnnealingOptimizer;
+import com.deliveryoptimizer.service.impl.TimeWindowOptimizer;
+import com.deliveryoptimizer.service.impl.TourServiceImpl;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import com.deliveryoptimizer.util.DistanceCalculator;
+import com.deliveryoptimizer.util.TourUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TourServiceImpl Tests")
+class TourServiceImplTest {
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Mock
+    private DeliveryRepository deliveryRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private TourOptimizer slowOptimizer;
+
+    @Captor
+    private ArgumentCaptor<List<Tour>> toursCaptor;
+
+    private DistanceCalculator distanceCalculator;
+    private OptimizerRegistry optimizerRegistry;
+    private OptimizationResultCache resultCache;
+    private TourServiceImpl tourService;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = new DistanceCalculator();
+        Map<String, TourOptimizer> optimizers = new LinkedHashMap<>();
+        optimizers.put("nn", new NearestNeighborOptimizer(distanceCalculator));
+        optimizers.put("cw", new ClarkeWrightOptimizer(distanceCalculator));
+        optimizers.put("tw", slowOptimizer);
+        optimizerRegistry = new OptimizerRegistry(optimizers,
+                Map.of("nn", "Nearest Neighbor", "cw", "Clarke Wright", "tw", "Time windows"), 2);
+        resultCache = new OptimizationResultCache(100, 3600);
+        tourService = new TourServiceImpl(tourRepository, deliveryRepository, warehouseRepository, vehicleRepository,
+                optimizerRegistry, new ClarkeWrightOptimizer(distanceCalculator), new SimulatedAnnealingOptimizer(),
+                new TimeWindowOptimizer(distanceCalculator, 30, 5), resultCache, distanceCalculator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        optimizerRegistry.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should only run NN and CW for distances and list other methods once they are cached")
+    void getTourDistances_RunsOnlyBaselineMethods() {
+        // Given
+        Tour tour = createTour(1L, createWarehouse(1L, 33.5731, -7.5898), createDeliveries(6, 0));
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+
+        // When
+        Map<String, String> first = tourService.getTourDistances(1L);
+        resultCache.put(OptimizationResultCache.fingerprint(tour, "tw"), 1L, List.of(1L, 2L, 3L, 4L, 5L, 6L), 12.5);
+        Map<String, String> second = tourService.getTourDistances(1L);
+
+        // Then
+        assertThat(first).containsOnlyKeys(TourServiceImpl.LOWER_BOUND_LABEL, "Nearest Neighbor", "Clarke Wright");
+        assertThat(second).containsKeys("Time windows");
+        verifyNoInteractions(slowOptimizer);
+    }
+
+    @Test
+    @DisplayName("Should serve the saved route's length without running its method, until the deliveries change")
+    void getTourDistances_ServesSavedRoute() {
+        // Given: the tour was saved in a time-window route and the cache has since been emptied
+        Tour tour = createTour(1L, createWarehouse(1L, 33.5731, -7.5898), createDeliveries(6, 0));
+        tour.setTotalDistance(99.0);
+        tour.setRouteFingerprint(OptimizationResultCache.fingerprint(tour, "tw").digest());
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+
+        // When
+        Map<String, String> saved = tourService.getTourDistances(1L);
+        tour.getDeliveries().get(0).setLongitude(-7.58);
+        Map<String, String> moved = tourService.getTourDistances(1L);
+
+        // Then
+        assertThat(saved.get("Time windows")).startsWith(TourUtils.formatDistance(99.0));
+        assertThat(moved).doesNotContainKey("Time windows");
+        verifyNoInteractions(slowOptimizer);
+    }
+
+    @Test
+    @DisplayName("Should read the lower bound cached with the routes instead of rebuilding it on every call")
+    void getTourDistances_ReusesCachedLowerBound() {
+        // Given
+        Tour tour = createTour(1L, createWarehouse(1L, 33.5731, -7.5898), createDeliveries(6, 0));
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+        Map<String, String> first = tourService.getTourDistances(1L);
+        resultCache.put(OptimizationResultCache.fingerprint(tour, OptimizationResultCache.LOWER_BOUND), 1L, List.of(), 0.5);
+
+        // When
+        Map<String, String> second = tourService.getTourDistances(1L);
+
+        // Then
+        assertThat(first.get(TourServiceImpl.LOWER_BOUND_LABEL)).isNotEqualTo(TourUtils.formatDistance(0.5));
+        assertThat(second.get(TourServiceImpl.LOWER_BOUND_LABEL)).isEqualTo(TourUtils.formatDistance(0.5));
+    }
+
+    @Test
+    @DisplayName("Should save only the tours whose route changed, in one saveAll, and resolve method aliases")
+    void optimizeTours_SavesOnlyChangedTours() {
+        // Given: tour 2 is already saved in the route cached for it
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Tour first = createTour(1L, warehouse, createDeliveries(5, 0));
+        Tour unchanged = createTour(2L, warehouse, createDeliveries(5, 10));
+        Tour third = createTour(3L, warehouse, createDeliveries(5, 20));
+        List<Long> savedOrder = unchanged.getDeliveries().stream().map(Delivery::getId).toList();
+        unchanged.setTotalDistance(9.0);
+        unchanged.setRouteFingerprint(OptimizationResultCache.fingerprint(unchanged, "nn").digest());
+        resultCache.put(OptimizationResultCache.fingerprint(unchanged, "nn"), 2L, savedOrder, 9.0);
+        when(tourRepository.findAllByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(first, unchanged, third));
+
+        // When
+        BatchOptimizationResultDTO result = tourService.optimizeTours(null, List.of(1L, 2L, 3L), " NN ");
+
+        // Then
+        assertThat(result.getMethod()).isEqualTo("nn");
+        assertThat(result.getOptimizedCount()).isEqualTo(3);
+        assertThat(result.getResults()).extracting(TourOptimizationResultDTO::isCached).containsExactly(false, true, false);
+        verify(tourRepository).saveAll(toursCaptor.capture());
+        assertThat(toursCaptor.getValue()).containsExactly(first, third);
+        assertThat(resultCache.get(OptimizationResultCache.fingerprint(first, "nn"))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown batch method before loading any tour")
+    void optimizeTours_WithUnknownMethod_Throws() {
+        // Then
+        assertThatThrownBy(() -> tourService.optimizeTours(LocalDate.of(2026, 10, 18), null, "genetic"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Optimization Method Not Found!");
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    @DisplayName("Should report a tour id that does not exist instead of optimizing the others")
+    void optimizeTours_WithMissingTour_Throws() {
+        // Given
+        Tour tour = createTour(1L, createWarehouse(1L, 33.5731, -7.5898), createDeliveries(3, 0));
+        when(tourRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(tour));
+
+        // Then
+        assertThatThrownBy(() -> tourService.optimizeTours(null, List.of(1L, 2L), "cw"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("One or More Tours Not found!");
+        verify(tourRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should plan with the vehicles free on the plan date, even if they drive tours on other days")
+    void autoPlanTours_UsesVehiclesFreeOnPlanDate() {
+        // Given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Vehicle vehicle = createVehicle(7L);
+        vehicle.setTours(List.of(Tour.builder().id(3L).date(date.minusDays(1)).build()));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(vehicleRepository.findAllFreeOn(date)).thenReturn(List.of(vehicle));
+        when(deliveryRepository.findAllByTourIsNull()).thenReturn(createDeliveries(4, 0));
+        when(tourRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        AutoPlanResultDTO result = tourService.autoPlanTours(1L, date, "nn");
+
+        // Then
+        assertThat(result.getTours()).singleElement().satisfies(tour -> {
+            assertThat(tour.getVehicleId()).isEqualTo(7L);
+            assertThat(tour.getDate()).isEqualTo(date);
+        });
+        assertThat(result.getPlannedDeliveryCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should only plan the deliveries closest to the warehouse and report the others as skipped")
+    void autoPlanTours_WithCloserWarehouse_SkipsItsDeliveries() {
+        // Given: deliveries 1-4 around warehouse 1, 11-12 around warehouse 2 in Rabat
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> pending = new ArrayList<>(createDeliveries(4, 0));
+        pending.add(createDelivery(11L, 34.02, -6.84));
+        pending.add(createDelivery(12L, 34.01, -6.83));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse, createWarehouse(2L, 34.0209, -6.8416)));
+        when(vehicleRepository.findAllFreeOn(date)).thenReturn(List.of(createVehicle(7L)));
+        when(deliveryRepository.findAllByTourIsNull()).thenReturn(pending);
+        when(tourRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        AutoPlanResultDTO result = tourService.autoPlanTours(1L, date, "nn");
+
+        // Then
+        assertThat(result.getPlannedDeliveryCount()).isEqualTo(4);
+        assertThat(result.getTours().get(0).getDeliveryIds()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(result.getSkippedDeliveryIds()).containsExactly(11L, 12L);
+        assertThat(result.getUnassignedDeliveryIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject auto-plan when every vehicle already has a tour on the plan date")
+    void autoPlanTours_WithNoVehicleFreeOnDate_Throws() {
+        // Given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(createWarehouse(1L, 33.5731, -7.5898)));
+        when(vehicleRepository.findAllFreeOn(date)).thenReturn(List.of());
+
+        // Then
+        assertThatThrownBy(() -> tourService.autoPlanTours(1L, date, "nn"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("No vehicle is free on 2026-10-19");
+    }
+
+    @Test
+    @DisplayName("Should create a second tour from the same warehouse when its vehicle is free that day")
+    void createTour_WithWarehouseAlreadyDispatching_CreatesTour() {
+        // Given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> deliveries = createDeliveries(3, 0);
+        when(vehicleRepository.findById(7L)).thenReturn(Optional.of(createVehicle(7L)));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(tourRepository.existsByVehicleIdAndDate(7L, date)).thenReturn(false);
+        when(deliveryRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(deliveries);
+        when(tourRepository.save(any(Tour.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TourDTO result = tourService.createTour(createTourDTO(7L, date));
+
+        // Then
+        assertThat(result.getWarehouseId()).isEqualTo(1L);
+        assertThat(result.getDeliveryIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reject a tour for a vehicle that already drives one on that date")
+    void createTour_WithVehicleBusyOnDate_Throws() {
+        // Given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        when(vehicleRepository.findById(7L)).thenReturn(Optional.of(createVehicle(7L)));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(createWarehouse(1L, 33.5731, -7.5898)));
+        when(tourRepository.existsByVehicleIdAndDate(7L, date)).thenReturn(true);
+
+        // Then
+        assertThatThrownBy(() -> tourService.createTour(createTourDTO(7L, date)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("This vehicle already has a tour on this date");
+        verify(tourRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should number the stops in the optimized order and store that route's length")
+    void optimizeTour_SetsStopSequenceAndTotalDistance() {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        Tour tour = createTour(1L, warehouse, createDeliveries(6, 0));
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+
+        // When
+        List<Long> order = tourService.optimizeTour(1L, "nn");
+
+        // Then
+        assertThat(tour.getDeliveries()).extracting(Delivery::getId).containsExactlyElementsOf(order);
+        assertStopsNumberedInOrder(tour);
+        assertThat(tour.getTotalDistance())
+                .isCloseTo(TourUtils.calculateTotalDistance(warehouse, tour.getDeliveries(), distanceCalculator), within(1e-9));
+        assertThat(tour.getRouteFingerprint()).isEqualTo(OptimizationResultCache.fingerprint(tour, "nn").digest());
+        verify(tourRepository).save(tour);
+    }
+
+    @Test
+    @DisplayName("Should apply a cached route's order and length to the tour, and save it only when it changes")
+    void optimizeTour_WithCachedRoute_AppliesOrderAndDistance() {
+        // Given: the tour is stored in id order with stale stop numbers
+        Tour tour = createTour(1L, createWarehouse(1L, 33.5731, -7.5898), createDeliveries(4, 0));
+        tour.getDeliveries().forEach(d -> d.setStopSequence(9));
+        List<Long> cachedOrder = List.of(3L, 1L, 4L, 2L);
+        resultCache.put(OptimizationResultCache.fingerprint(tour, "nn"), 1L, cachedOrder, 12.5);
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(tour));
+
+        // When
+        List<Long> first = tourService.optimizeTour(1L, "nn");
+        List<Long> second = tourService.optimizeTour(1L, "nn");
+
+        // Then
+        assertThat(first).isEqualTo(cachedOrder);
+        assertThat(second).isEqualTo(cachedOrder);
+        assertThat(tour.getDeliveries()).extracting(Delivery::getId).containsExactlyElementsOf(cachedOrder);
+        assertStopsNumberedInOrder(tour);
+        assertThat(tour.getTotalDistance()).isEqualTo(12.5);
+        verify(tourRepository, times(1)).save(tour);
+    }
+
+    @Test
+    @DisplayName("Should renumber and re-measure both tours when a delivery moves from one to the other")
+    void deliveryMovedBetweenTours_KeepsStopSequenceAndTotalDistance() {
+        // Given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> firstDeliveries = createDeliveries(4, 0);
+        Tour first = createTour(1L, warehouse, firstDeliveries);
+        Tour second = createTour(2L, warehouse, createDeliveries(3, 10));
+        second.setVehicle(createVehicle(8L));
+        Delivery moved = firstDeliveries.get(1);
+        List<Delivery> kept = List.of(firstDeliveries.get(0), firstDeliveries.get(2), firstDeliveries.get(3));
+        when(tourRepository.findWithDeliveriesById(1L)).thenReturn(Optional.of(first));
+        when(tourRepository.findWithDeliveriesById(2L)).thenReturn(Optional.of(second));
+        when(vehicleRepository.findById(7L)).thenReturn(Optional.of(createVehicle(7L)));
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(deliveryRepository.findAllById(List.of(1L, 3L, 4L))).thenReturn(kept);
+        when(deliveryRepository.findAllById(List.of(2L))).thenReturn(List.of(moved));
+        when(tourRepository.save(first)).thenReturn(first);
+
+        // When
+        tourService.updateTour(1L, TourDTO.builder().vehicleId(7L).warehouseId(1L).deliveryIds(List.of(1L, 3L, 4L)).date(date).build());
+        tourService.addDeliveriesToTour(2L, List.of(2L));
+
+        // Then
+        assertThat(first.getDeliveries()).extracting(Delivery::getId).containsExactly(1L, 3L, 4L);
+        assertStopsNumberedInOrder(first);
+        assertThat(first.getTotalDistance())
+                .isCloseTo(TourUtils.calculateTotalDistance(warehouse, kept, distanceCalculator), within(1e-9));
+
+        assertThat(moved.getTour()).isSameAs(second);
+        assertThat(second.getDeliveries()).extracting(Delivery::getId).containsExactly(11L, 12L, 13L, 2L);
+        assertStopsNumberedInOrder(second);
+        assertThat(second.getTotalDistance())
+                .isCloseTo(TourUtils.calculateTotalDistance(warehouse, second.getDeliveries(), distanceCalculator), within(1e-9));
+    }
+
+    // Helper methods
+    private void assertStopsNumberedInOrder(Tour tour) {
+        for (int i = 0; i < tour.getDeliveries().size(); i++) {
+            assertThat(tour.getDeliveries().get(i).getStopSequence()).isEqualTo(i);
+        }
+    }
+
+    private Vehicle createVehicle(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setMaxWeight(100);
+        vehicle.setMaxVolume(10);
+        vehicle.setMaxDeliveries(20);
+        return vehicle;
+    }
+
+    private TourDTO createTourDTO(Long vehicleId, LocalDate date) {
+        return TourDTO.builder()
+                .vehicleId(vehicleId)
+                .warehouseId(1L)
+                .deliveryIds(List.of(1L, 2L, 3L))
+                .date(date)
+                .build();
+    }
+
+    private Delivery createDelivery(Long id, double altitude, double longitude) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        delivery.setMaxWeight(1);
+        delivery.setMaxVolume(0.1);
+        return delivery;
+    }
+
+    // Deliveries idOffset+1..idOffset+count on a small ring around Casablanca, listed in id order.
+    private List<Delivery> createDeliveries(int count, long idOffset) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * ((i * 7) % count) / count;
+            deliveries.add(createDelivery(idOffset + i + 1, 33.5731 + 0.03 * Math.sin(angle), -7.5898 + 0.03 * Math.cos(angle)));
+        }
+        return deliveries;
+    }
+
+    private Tour createTour(Long id, Warehouse warehouse, List<Delivery> deliveries) {
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setWarehouse(warehouse);
+        tour.setDeliveries(new ArrayList<>(deliveries));
+        deliveries.forEach(d -> d.setTour(tour));
+        return tour;
+    }
+}
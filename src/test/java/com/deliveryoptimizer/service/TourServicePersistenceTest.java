@@ -0,0 +1,211 @@
+package com.deliveryoptimizer.service;
+
+import com.deliveryoptimizer.dto.AutoPlanResultDTO;
+import com.deliveryoptimizer.dto.BatchOptimizationResultDTO;
+import com.deliveryoptimizer.dto.OptimizationJobDTO;
+import com.deliveryoptimizer.dto.TourDTO;
+import com.deliveryoptimizer.dto.TourOptimizationResultDTO;
+import com.deliveryoptimizer.mapper.TourMapper;
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Tour;
+import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.DeliveryStatus;
+import com.deliveryoptimizer.model.enums.JobStatus;
+import com.deliveryoptimizer.model.enums.TourStatus;
+import com.deliveryoptimizer.model.enums.VehicleType;
+import com.deliveryoptimizer.repository.DeliveryRepository;
+import com.deliveryoptimizer.repository.TourRepository;
+import com.deliveryoptimizer.repository.VehicleRepository;
+import com.deliveryoptimizer.repository.WarehouseRepository;
+import com.deliveryoptimizer.service.interfaces.OptimizationJobService;
+import com.deliveryoptimizer.service.interfaces.TourService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the services against the database without a surrounding transaction, as job and batch threads
+ * do: any lazy association read outside the entity graphs fails here instead of in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:tour-persistence;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@DisplayName("TourService Persistence Tests")
+class TourServicePersistenceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 19);
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private OptimizationJobService optimizationJobService;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private Warehouse warehouse;
+    private final List<Tour> tours = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        warehouse = warehouseRepository.save(createWarehouse());
+        for (int i = 0; i < 3; i++) {
+            Vehicle vehicle = i == 2 ? null : vehicleRepository.save(createVehicle("Van " + (i + 1)));
+            Tour tour = tourRepository.save(Tour.builder()
+                    .date(DATE)
+                    .status(i == 1 ? TourStatus.IN_PROGRESS : TourStatus.PLANNED)
+                    .vehicle(vehicle)
+                    .warehouse(warehouse)
+                    .totalDistance(10 + i)
+                    .build());
+            // Stop order deliberately differs from id order.
+            for (int stop = 0; stop < 6; stop++) {
+                Delivery delivery = createDelivery(i * 6 + stop);
+                delivery.setTour(tour);
+                delivery.setStopSequence(5 - stop);
+                deliveryRepository.save(delivery);
+            }
+            tours.add(tour);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAll();
+        tourRepository.deleteAll();
+        vehicleRepository.deleteAll();
+        warehouseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should list and get tours from the projection exactly as the entity mapper would")
+    void getAllTours_MatchesEntityMapping() {
+        // Given
+        List<TourDTO> expected = tours.stream().map(tour -> entityDTO(tour.getId())).toList();
+
+        // When
+        List<TourDTO> all = tourService.getAllTours(null, null, null, null, null);
+        List<TourDTO> filtered = tourService.getAllTours(null, 10, DATE, warehouse.getId(), TourStatus.PLANNED);
+        TourDTO single = tourService.getTourById(tours.get(2).getId());
+
+        // Then
+        assertThat(all).containsExactlyElementsOf(expected);
+        assertThat(filtered).containsExactly(expected.get(0), expected.get(2));
+        assertThat(single).isEqualTo(expected.get(2));
+        assertThat(single.getVehicleId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should optimize a tour on a job thread and persist the stop order it reports")
+    void optimizationJob_OnJobThread_PersistsRoute() throws InterruptedException {
+        // Given
+        Long tourId = tours.get(0).getId();
+
+        // When
+        OptimizationJobDTO job = optimizationJobService.submit(tourId, "nn", null);
+        for (int i = 0; i < 300 && !isFinished(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = optimizationJobService.getJob(tourId, job.getJobId());
+        }
+
+        // Then
+        assertThat(job.getError()).isNull();
+        assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(entityDTO(tourId).getDeliveryIds()).containsExactlyElementsOf(job.getResult());
+    }
+
+    @Test
+    @DisplayName("Should optimize every tour of a date on the batch pool and persist each stop order")
+    void optimizeTours_OnBatchThreads_PersistsRoutes() {
+        // When
+        BatchOptimizationResultDTO result = tourService.optimizeTours(DATE, null, "cw");
+
+        // Then
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getOptimizedCount()).isEqualTo(3);
+        for (TourOptimizationResultDTO tour : result.getResults()) {
+            assertThat(tour.getError()).isNull();
+            assertThat(tourService.getTourById(tour.getTourId()).getDeliveryIds()).containsExactlyElementsOf(tour.getDeliveryIds());
+        }
+    }
+
+    @Test
+    @DisplayName("Should auto-plan on the batch pool and read back the planned tours unchanged")
+    void autoPlanTours_OnBatchThreads_PersistsTours() {
+        // Given
+        vehicleRepository.save(createVehicle("Spare van"));
+        for (int i = 0; i < 8; i++) {
+            deliveryRepository.save(createDelivery(100 + i));
+        }
+
+        // When
+        AutoPlanResultDTO result = tourService.autoPlanTours(warehouse.getId(), DATE, "nn");
+
+        // Then
+        assertThat(result.getTours()).hasSize(1);
+        assertThat(result.getPlannedDeliveryCount()).isEqualTo(8);
+        TourDTO planned = result.getTours().get(0);
+        assertThat(tourService.getTourById(planned.getId())).isEqualTo(planned);
+    }
+
+    // Helper methods
+    private TourDTO entityDTO(Long tourId) {
+        return TourMapper.toDTO(tourRepository.findWithDeliveriesById(tourId).orElseThrow());
+    }
+
+    private boolean isFinished(JobStatus status) {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    private Warehouse createWarehouse() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setAddress("Casablanca depot");
+        warehouse.setAltitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        return warehouse;
+    }
+
+    private Vehicle createVehicle(String name) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setName(name);
+        vehicle.setType(VehicleType.values()[0]);
+        vehicle.setMaxWeight(100);
+        vehicle.setMaxVolume(10);
+        vehicle.setMaxDeliveries(20);
+        return vehicle;
+    }
+
+    private Delivery createDelivery(int index) {
+        double angle = 2 * Math.PI * ((index * 7) % 23) / 23;
+        Delivery delivery = new Delivery();
+        delivery.setAltitude(33.5731 + 0.03 * Math.sin(angle));
+        delivery.setLongitude(-7.5898 + 0.03 * Math.cos(angle));
+        delivery.setMaxWeight(1);
+        delivery.setMaxVolume(0.1);
+        delivery.setStatus(DeliveryStatus.PENDING);
+        return delivery;
+    }
+}
@@ -0,0 +1,87 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("CheapestInsertion Tests")
+class CheapestInsertionTest {
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    @DisplayName("Should place a stop between the two stops it lies between")
+    void insert_PlacesStopOnTheWay() {
+        // Given: warehouse -> 1 -> 2 along a line, new stop 3 halfway between 1 and 2
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.01, -7.00),
+                createDelivery(2L, 33.03, -7.00),
+                createDelivery(3L, 33.02, -7.00)
+        );
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+
+        // When
+        int[] route = CheapestInsertion.insert(new int[]{1, 2}, new int[]{3}, matrix);
+
+        // Then
+        assertThat(route).containsExactly(1, 3, 2);
+        assertThat(TourUtils.calculateTotalDistance(route, matrix))
+                .isCloseTo(TourUtils.calculateTotalDistance(new int[]{1, 2}, matrix), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should keep the existing order and never do worse than appending")
+    void insert_KeepsExistingOrderAndBeatsAppending() {
+        // Given
+        Random random = new Random(21L);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            deliveries.add(createDelivery(id, 33.4 + random.nextDouble() * 0.4, -7.8 + random.nextDouble() * 0.4));
+        }
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.5731, -7.5898), deliveries, distanceCalculator);
+        int[] route = new int[50];
+        for (int i = 0; i < route.length; i++) {
+            route[i] = i + 1;
+        }
+        int[] stops = {51, 52, 53, 54, 55, 56, 57, 58, 59, 60};
+        int[] appended = new int[60];
+        for (int i = 0; i < appended.length; i++) {
+            appended[i] = i + 1;
+        }
+
+        // When
+        int[] result = CheapestInsertion.insert(route, stops, matrix);
+
+        // Then
+        assertThat(result).hasSize(60).containsExactlyInAnyOrder(appended);
+        assertThat(Arrays.stream(result).filter(i -> i <= 50).toArray()).containsExactly(route);
+        assertThat(TourUtils.calculateTotalDistance(result, matrix))
+                .isLessThanOrEqualTo(TourUtils.calculateTotalDistance(appended, matrix));
+    }
+
+    @Test
+    @DisplayName("Should build a route from scratch when the current route is empty")
+    void insert_IntoEmptyRoute() {
+        // Given
+        List<Delivery> deliveries = List.of(createDelivery(1L, 1.0, 1.0), createDelivery(2L, 2.0, 2.0));
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(0.0, 0.0), deliveries, distanceCalculator);
+
+        // When
+        int[] route = CheapestInsertion.insert(new int[0], new int[]{2, 1}, matrix);
+
+        // Then
+        assertThat(route).containsExactlyInAnyOrder(1, 2);
+    }
+}
@@ -1,4 +1,111 @@
 package com.deliveryoptimizer.util;
 
-public class DistanceCalculatorTest {
+import com.deliveryoptimizer.model.enums.DistanceMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("DistanceCalculator Tests")
+class DistanceCalculatorTest {
+
+    private final DistanceCalculator haversine = new DistanceCalculator();
+    private final DistanceCalculator equirectangular = new DistanceCalculator(DistanceMode.EQUIRECTANGULAR);
+
+    @Test
+    @DisplayName("Should match the textbook haversine formula with prepared points")
+    void distance_PreparedPoints_MatchHaversine() {
+        // Given
+        Random random = new Random(12L);
+
+        for (int i = 0; i < 1000; i++) {
+            double lat1 = random.nextDouble() * 170 - 85;
+            double lon1 = random.nextDouble() * 360 - 180;
+            double lat2 = random.nextDouble() * 170 - 85;
+            double lon2 = random.nextDouble() * 360 - 180;
+
+            // When
+            double prepared = haversine.distance(PreparedPoint.of(lat1, lon1), PreparedPoint.of(lat2, lon2));
+
+            // Then
+            assertThat(prepared).isCloseTo(referenceHaversine(lat1, lon1, lat2, lon2), within(1e-9));
+            assertThat(haversine.distance(lat1, lon1, lat2, lon2)).isEqualTo(prepared);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay within the documented error bound in equirectangular mode up to 50 km")
+    void distance_Equirectangular_StaysWithinCityScaleBound() {
+        // Given: pairs up to 50 km apart at latitudes within ±60°
+        Random random = new Random(34L);
+
+        for (int i = 0; i < 10_000; i++) {
+            double lat = random.nextDouble() * 120 - 60;
+            double lon = random.nextDouble() * 358 - 179;
+            double km = random.nextDouble() * 50;
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double lat2 = lat + km / 111.2 * Math.cos(bearing);
+            double lon2 = lon + km / 111.2 * Math.sin(bearing) / Math.cos(Math.toRadians(lat));
+
+            // When
+            double exact = haversine.distance(lat, lon, lat2, lon2);
+            double approximate = equirectangular.distance(lat, lon, lat2, lon2);
+
+            // Then: below 0.001%
+            assertThat(approximate).isCloseTo(exact, within(exact * 1e-5 + 1e-12));
+        }
+    }
+
+    @Test
+    @DisplayName("Should take the short way across the antimeridian in equirectangular mode")
+    void distance_Equirectangular_WrapsLongitude() {
+        // When
+        double across = equirectangular.distance(10.0, 179.9, 10.0, -179.9);
+
+        // Then
+        assertThat(across).isCloseTo(haversine.distance(10.0, 179.9, 10.0, -179.9), within(1e-3));
+        assertThat(across).isLessThan(25);
+    }
+
+    @Test
+    @DisplayName("Should compute a batched row equal to the pairwise distances, vectorized or not")
+    void distances_MatchPairwiseDistances() {
+        // Given: a length that is not a multiple of any vector width
+        Random random = new Random(56L);
+        PreparedPoints targets = new PreparedPoints(1003);
+        for (int i = 0; i < targets.size(); i++) {
+            targets.set(i, 33.4 + random.nextDouble() * 0.4, -7.8 + random.nextDouble() * 0.4);
+        }
+        PreparedPoint origin = PreparedPoint.of(33.5731, -7.5898);
+
+        for (DistanceMode mode : DistanceMode.values()) {
+            DistanceCalculator scalar = new DistanceCalculator(mode, null);
+            DistanceCalculator batched = new DistanceCalculator(mode);
+            double[] scalarRow = new double[targets.size()];
+            double[] batchedRow = new double[targets.size()];
+
+            // When
+            scalar.distances(origin, targets, 3, targets.size(), scalarRow);
+            batched.distances(origin, targets, 3, targets.size(), batchedRow);
+
+            // Then
+            for (int i = 0; i < targets.size(); i++) {
+                double expected = i < 3 ? 0 : scalar.distance(origin, targets.get(i));
+                assertThat(scalarRow[i]).isEqualTo(expected);
+                assertThat(batchedRow[i]).isCloseTo(expected, within(1e-9));
+            }
+        }
+    }
+
+    // Helper methods
+    private double referenceHaversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return DistanceCalculator.EARTH_RADIUS_KM * 2 * Math.asin(Math.sqrt(a));
+    }
 }
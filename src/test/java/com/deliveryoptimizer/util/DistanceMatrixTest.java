@@ -0,0 +1,166 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DistanceMatrix Tests")
+class DistanceMatrixTest {
+
+    private DistanceCalculator distanceCalculator;
+
+    @BeforeEach
+    void setUp() {
+        distanceCalculator = spy(new DistanceCalculator());
+    }
+
+    @Test
+    @DisplayName("Should compute each pair only once and reuse it in both directions")
+    void distance_ComputesEachPairOnce() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        Delivery d1 = createDelivery(1L, 33.5950, -7.6187);
+        Delivery d2 = createDelivery(2L, 33.5892, -7.6039);
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, List.of(d1, d2), distanceCalculator);
+
+        // When
+        double forward = matrix.distance(1, 2);
+        double backward = matrix.distance(2, 1);
+        matrix.distance(1, 2);
+
+        // Then
+        assertThat(backward).isEqualTo(forward);
+        assertThat(forward).isCloseTo(new DistanceCalculator().distance(d1, d2), within(1e-12));
+        verify(distanceCalculator, times(1)).distance(PreparedPoint.of(33.5950, -7.6187), PreparedPoint.of(33.5892, -7.6039));
+    }
+
+    @Test
+    @DisplayName("Should not compute anything before a distance is requested")
+    void constructor_IsLazy() {
+        // Given
+        Warehouse warehouse = createWarehouse(0.0, 0.0);
+
+        // When
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, List.of(createDelivery(1L, 1.0, 1.0)), distanceCalculator);
+
+        // Then
+        assertThat(matrix.size()).isEqualTo(2);
+        assertThat(matrix.distance(1, 1)).isZero();
+        verify(distanceCalculator, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
+    }
+
+    @Test
+    @DisplayName("Should fill all pairs one row at a time")
+    void fill_ComputesUpperTriangle() {
+        // Given
+        Warehouse warehouse = createWarehouse(0.0, 0.0);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 1.0, 1.0),
+                createDelivery(2L, 2.0, 2.0),
+                createDelivery(3L, 3.0, 3.0)
+        );
+
+        // When
+        new DistanceMatrix(warehouse, deliveries, distanceCalculator).fill();
+
+        // Then: 4 points -> rows 0..2 of the upper triangle
+        verify(distanceCalculator).distances(any(PreparedPoint.class), any(PreparedPoints.class), eq(1), eq(4), any(double[].class));
+        verify(distanceCalculator).distances(any(PreparedPoint.class), any(PreparedPoints.class), eq(2), eq(4), any(double[].class));
+        verify(distanceCalculator).distances(any(PreparedPoint.class), any(PreparedPoints.class), eq(3), eq(4), any(double[].class));
+        verify(distanceCalculator, times(3)).distances(any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should map deliveries to dense indexes and back")
+    void indexOf_MapsDeliveriesToIndexes() {
+        // Given
+        Delivery d1 = createDelivery(1L, 1.0, 1.0);
+        Delivery d2 = createDelivery(2L, 2.0, 2.0);
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(0.0, 0.0), List.of(d1, d2), distanceCalculator);
+
+        // Then
+        assertThat(matrix.indexOf(d1)).isEqualTo(1);
+        assertThat(matrix.indexOf(d2)).isEqualTo(2);
+        assertThat(matrix.toDeliveries(new int[]{2, 1})).containsExactly(d2, d1);
+        assertThatThrownBy(() -> matrix.indexOf(createDelivery(3L, 3.0, 3.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should give the same total distance as the calculator based TourUtils")
+    void calculateTotalDistance_MatchesCalculator() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.5950, -7.6187),
+                createDelivery(2L, 33.5892, -7.6039),
+                createDelivery(3L, 33.5500, -7.6200)
+        );
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+
+        // When
+        double expected = TourUtils.calculateTotalDistance(warehouse, deliveries, distanceCalculator);
+        double actual = TourUtils.calculateTotalDistance(deliveries, matrix);
+
+        // Then
+        assertThat(actual).isCloseTo(expected, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should ask a matrix provider for the whole matrix on the first miss only")
+    void distance_WithMatrixProvider_FillsOnFirstMiss() {
+        // Given
+        DistanceProvider provider = mock(DistanceProvider.class);
+        when(provider.prefersMatrix()).thenReturn(true);
+        doAnswer(invocation -> {
+            double[][] rows = invocation.getArgument(1);
+            rows[0][0] = 1;
+            rows[0][1] = 2;
+            rows[1][0] = 3;
+            return null;
+        }).when(provider).matrix(any(PreparedPoints.class), any());
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(0.0, 0.0),
+                List.of(createDelivery(1L, 1.0, 1.0), createDelivery(2L, 2.0, 2.0)), provider);
+        verify(provider, never()).matrix(any(), any());
+
+        // When
+        double first = matrix.distance(2, 1);
+        double second = matrix.distance(0, 2);
+
+        // Then
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isEqualTo(2);
+        verify(provider, times(1)).matrix(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should walk a route without filling the cache")
+    void routeDistance_DoesNotCache() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898);
+        List<Delivery> deliveries = List.of(createDelivery(1L, 33.5950, -7.6187), createDelivery(2L, 33.5892, -7.6039));
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+
+        // When
+        double walked = TourUtils.calculateTotalDistance(deliveries, matrix);
+        TourUtils.calculateTotalDistance(deliveries, matrix);
+        double cached = matrix.distance(0, 1) + matrix.distance(1, 2) + matrix.distance(2, 0);
+
+        // Then: two uncached walks of three legs, then three cached lookups
+        assertThat(cached).isCloseTo(walked, within(1e-12));
+        verify(distanceCalculator, times(9)).distance(any(PreparedPoint.class), any(PreparedPoint.class));
+        assertThat(TourUtils.calculateTotalDistance(deliveries, matrix)).isEqualTo(cached);
+        verify(distanceCalculator, times(9)).distance(any(PreparedPoint.class), any(PreparedPoint.class));
+    }
+}
@@ -0,0 +1,270 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PersistentDistanceCache Tests")
+class PersistentDistanceCacheTest {
+
+    @Test
+    @DisplayName("Should answer from disk after a restart without asking the provider again")
+    void forWarehouse_SurvivesReopen(@TempDir Path directory) {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> deliveries = createDeliveries(20);
+        DistanceCalculator first = spy(new DistanceCalculator());
+        double[] expected = new double[deliveries.size() + 1];
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(first, directory, "great-circle", 1000)){
+            DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, cache).fill();
+            for (int i = 1; i < matrix.size(); i++){
+                expected[i] = matrix.distance(0, i);
+            }
+        }
+
+        // When
+        DistanceCalculator second = spy(new DistanceCalculator());
+        DistanceMatrix reopened;
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(second, directory, "great-circle", 1000)){
+            reopened = new DistanceMatrix(warehouse, deliveries, cache).fill();
+            assertThat(cache.file(1L).size()).isEqualTo(21 * 20 / 2);
+        }
+
+        // Then
+        for (int i = 1; i < reopened.size(); i++){
+            assertThat(reopened.distance(0, i)).isCloseTo(expected[i], within(1e-4));
+        }
+        verify(second, never()).distances(any(), any(), anyInt(), anyInt(), any());
+        verify(second, never()).distance(any(PreparedPoint.class), any(PreparedPoint.class));
+    }
+
+    @Test
+    @DisplayName("Should keep separate tables per warehouse and drop a table written by another source")
+    void file_IsScopedByWarehouseAndSource(@TempDir Path directory) {
+        // Given
+        DistanceCalculator distanceCalculator = new DistanceCalculator();
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(distanceCalculator, directory, "great-circle", 1000)){
+            new DistanceMatrix(createWarehouse(1L, 33.5731, -7.5898), createDeliveries(5), cache).fill();
+            new DistanceMatrix(createWarehouse(2L, 34.0209, -6.8416), createDeliveries(3), cache).fill();
+        }
+
+        // When
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(distanceCalculator, directory, "road", 1000)){
+
+            // Then
+            assertThat(cache.file(1L).size()).isZero();
+        }
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(distanceCalculator, directory, "great-circle", 1000)){
+            assertThat(cache.file(2L).size()).isEqualTo(4 * 3 / 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow the table and compact it down once the entry limit is reached")
+    void put_GrowsThenCompacts(@TempDir Path directory) throws IOException {
+        // Given
+        try (DistanceCacheFile file = new DistanceCacheFile(directory.resolve("cache.dist"), "test", 5000)){
+
+            // When
+            for (long i = 1; i <= 4000; i++){
+                file.put(i, i + 1, i);
+            }
+            int grownCapacity = file.capacity();
+            for (long i = 4001; i <= 6000; i++){
+                file.put(i, i + 1, i);
+            }
+
+            // Then
+            assertThat(grownCapacity).isGreaterThanOrEqualTo(4000 * 10 / 7);
+            assertThat(file.size()).isLessThanOrEqualTo(5000);
+            assertThat(file.get(6001, 6000)).isEqualTo(6000.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the pairs read most recently when compacting, to the minute")
+    void compact_KeepsRecentlyReadPairs(@TempDir Path directory) throws IOException {
+        // Given
+        AtomicInteger minute = new AtomicInteger(100);
+        try (DistanceCacheFile file = new DistanceCacheFile(directory.resolve("cache.dist"), "test", 8, minute::get)){
+            for (long i = 1; i <= 8; i++){
+                file.put(i, i + 100, i);
+            }
+            minute.incrementAndGet();
+            for (long i = 5; i <= 8; i++){
+                file.get(i + 100, i);
+            }
+
+            // When
+            minute.incrementAndGet();
+            file.put(9, 109, 9);
+
+            // Then
+            assertThat(file.size()).isEqualTo(5);
+            for (long i = 1; i <= 4; i++){
+                assertThat(file.get(i, i + 100)).isNaN();
+            }
+            for (long i = 5; i <= 9; i++){
+                assertThat(file.get(i, i + 100)).isEqualTo((double) i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should read a half-written slot as a miss and overwrite it on the next put")
+    void get_WithTornSlot_ReturnsMiss(@TempDir Path directory) throws IOException {
+        // Given
+        Path path = directory.resolve("cache.dist");
+        try (DistanceCacheFile file = new DistanceCacheFile(path, "test", 100)){
+            file.put(1, 2, 5.0);
+            file.put(3, 4, 7.0);
+        }
+        overwriteDistance(path, 1, 2, 6.0f);
+
+        // When
+        try (DistanceCacheFile file = new DistanceCacheFile(path, "test", 100)){
+            double torn = file.get(2, 1);
+            file.put(1, 2, 5.0);
+
+            // Then
+            assertThat(torn).isNaN();
+            assertThat(file.get(3, 4)).isEqualTo(7.0);
+            assertThat(file.get(1, 2)).isEqualTo(5.0);
+            assertThat(file.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should store a matrix filled by a matrix provider and answer it from disk the next time")
+    void forWarehouse_WithMatrixProvider_StoresWholeMatrix(@TempDir Path directory) {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> deliveries = createDeliveries(12);
+        DistanceProvider first = spy(new MatrixCalculator());
+        DistanceMatrix expected;
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(first, directory, "matrix", 1000)){
+            expected = new DistanceMatrix(warehouse, deliveries, cache).fill();
+            assertThat(cache.file(1L).size()).isEqualTo(13 * 12 / 2);
+        }
+
+        // When
+        DistanceProvider second = spy(new MatrixCalculator());
+        DistanceMatrix reopened;
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(second, directory, "matrix", 1000)){
+            reopened = new DistanceMatrix(warehouse, deliveries, cache).fill();
+        }
+
+        // Then
+        for (int i = 0; i < reopened.size(); i++){
+            for (int j = i + 1; j < reopened.size(); j++){
+                assertThat(reopened.distance(i, j)).isCloseTo(expected.distance(i, j), within(1e-4));
+            }
+        }
+        verify(first, times(1)).matrix(any(), any());
+        verify(second, never()).matrix(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer a matrix at the point cap entirely from disk on the second read")
+    void forWarehouse_AtMatrixCap_HitsOnSecondRead(@TempDir Path directory) {
+        // Given
+        Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+        List<Delivery> deliveries = createDeliveries(DistanceMatrix.MAX_CACHED_POINTS - 1);
+        MatrixCalculator provider = new MatrixCalculator();
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(provider, directory, "matrix", 4_200_000)){
+            DistanceMatrix first = new DistanceMatrix(warehouse, deliveries, cache).fill();
+
+            // When
+            DistanceMatrix second = new DistanceMatrix(warehouse, deliveries, cache).fill();
+
+            // Then
+            int pairs = DistanceMatrix.MAX_CACHED_POINTS * (DistanceMatrix.MAX_CACHED_POINTS - 1) / 2;
+            assertThat(cache.file(1L).size()).isEqualTo(pairs);
+            assertThat(provider.matrices.get()).isEqualTo(1);
+            for (int i = 1; i < second.size(); i += 97){
+                assertThat(second.distance(0, i)).isCloseTo(first.distance(0, i), within(1e-4));
+                assertThat(second.distance(i, second.size() - i)).isCloseTo(first.distance(i, first.size() - i), within(1e-4));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave the table alone for a matrix with more pairs than half of it")
+    void forWarehouse_WithOversizedMatrix_PassesThrough(@TempDir Path directory) {
+        // Given
+        DistanceCalculator distanceCalculator = spy(new DistanceCalculator());
+        try (PersistentDistanceCache cache = new PersistentDistanceCache(distanceCalculator, directory, "great-circle", 100)){
+
+            // When
+            new DistanceMatrix(createWarehouse(1L, 33.5731, -7.5898), createDeliveries(20), cache).fill();
+            new DistanceMatrix(createWarehouse(1L, 33.5731, -7.5898), createDeliveries(5), cache).fill();
+
+            // Then
+            assertThat(cache.file(1L).size()).isEqualTo(6 * 5 / 2);
+            verify(distanceCalculator, times(20 + 5)).distances(any(), any(), anyInt(), anyInt(), any());
+        }
+    }
+
+    // Helper methods
+    // Rewrites the distance of a pair straight in the file, leaving its checksum as it was.
+    private void overwriteDistance(Path path, long first, long second, float distance) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(buffer, 0);
+            for (int offset = 32; offset < buffer.capacity(); offset += 32){
+                if(buffer.getLong(offset) == first && buffer.getLong(offset + 8) == second){
+                    ByteBuffer value = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(0, distance);
+                    channel.write(value, offset + 16);
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("Pair not found in " + path);
+    }
+
+    // Great-circle distances from a provider that asks for whole matrices, like the road network; counts them
+    // without a spy, which would record every pair of a large one.
+    private static class MatrixCalculator extends DistanceCalculator {
+        private final AtomicInteger matrices = new AtomicInteger();
+
+        @Override
+        public boolean prefersMatrix() {
+            return true;
+        }
+
+        @Override
+        public void matrix(PreparedPoints points, double[][] rows) {
+            matrices.incrementAndGet();
+            super.matrix(points, rows);
+        }
+    }
+
+    private List<Delivery> createDeliveries(int count) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++){
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setAltitude(33.50 + i * 0.01);
+            delivery.setLongitude(-7.60 + (i % 5) * 0.02);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
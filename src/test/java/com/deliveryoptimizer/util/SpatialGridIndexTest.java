@@ -0,0 +1,153 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.model.enums.DistanceMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SpatialGridIndex Tests")
+class SpatialGridIndexTest {
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    @DisplayName("Should return the same nearest delivery as a brute force scan while deliveries are removed")
+    void nearest_MatchesBruteForceAfterRemovals() {
+        // Given
+        DistanceMatrix matrix = randomMatrix(1500, 11);
+        SpatialGridIndex index = new SpatialGridIndex(matrix, distanceCalculator);
+        boolean[] removed = new boolean[matrix.size()];
+        Random random = new Random(3);
+
+        // When / Then
+        while (index.size() > 0) {
+            double lat = 33.4 + random.nextDouble() * 0.4;
+            double lon = -7.8 + random.nextDouble() * 0.4;
+
+            int expected = bruteForceNearest(matrix, removed, lat, lon);
+            int actual = index.nearest(lat, lon);
+
+            assertThat(actual).isEqualTo(expected);
+            removed[actual] = true;
+            index.remove(actual);
+        }
+        assertThat(index.nearest(33.5, -7.6)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should return the k nearest deliveries in the order of a brute force sort, skipping the excluded one")
+    void nearestK_MatchesBruteForce() {
+        // Given
+        DistanceMatrix matrix = randomMatrix(1500, 13);
+        SpatialGridIndex index = new SpatialGridIndex(matrix, distanceCalculator);
+        int[] nearest = new int[8];
+
+        for (int query = 1; query < matrix.size(); query += 37) {
+            // When
+            int found = index.nearest(matrix.latitude(query), matrix.longitude(query), query, nearest);
+
+            // Then
+            final int from = query;
+            int[] expected = IntStream.range(1, matrix.size()).boxed()
+                    .filter(i -> i != from)
+                    .sorted(Comparator.comparingDouble(i -> distanceCalculator.distance(
+                            matrix.latitude(from), matrix.longitude(from), matrix.latitude(i), matrix.longitude(i))))
+                    .limit(8)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertThat(found).isEqualTo(8);
+            assertThat(nearest).containsExactly(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle deliveries sharing the same coordinates")
+    void nearest_WithDuplicatePoints_ReturnsLowestIndexFirst() {
+        // Given
+        Warehouse warehouse = createWarehouse(0.0, 0.0);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 1.0, 1.0),
+                createDelivery(2L, 1.0, 1.0),
+                createDelivery(3L, 1.0, 1.0)
+        );
+        SpatialGridIndex index = new SpatialGridIndex(new DistanceMatrix(warehouse, deliveries, distanceCalculator), distanceCalculator);
+
+        // When / Then
+        assertThat(index.nearest(0.0, 0.0)).isEqualTo(1);
+        index.remove(1);
+        assertThat(index.nearest(0.0, 0.0)).isEqualTo(2);
+        index.remove(2);
+        assertThat(index.nearest(0.0, 0.0)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should match a brute force scan on continent-wide deliveries in both distance modes")
+    void nearest_WithWideArea_MatchesBruteForceInEveryMode() {
+        for (DistanceMode mode : DistanceMode.values()) {
+            // Given: deliveries from the tropics to the Arctic, plus a dense cluster far north
+            DistanceCalculator calculator = new DistanceCalculator(mode);
+            Random random = new Random(17);
+            List<Delivery> deliveries = new ArrayList<>();
+            for (long id = 1; id <= 1200; id++) {
+                deliveries.add(id % 4 == 0
+                        ? createDelivery(id, 69.0 + random.nextDouble() * 2, 18.0 + random.nextDouble() * 6)
+                        : createDelivery(id, -40 + random.nextDouble() * 120, -120 + random.nextDouble() * 150));
+            }
+            DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.5731, -7.5898), deliveries, calculator);
+            SpatialGridIndex index = new SpatialGridIndex(matrix, calculator);
+            boolean[] removed = new boolean[matrix.size()];
+
+            // When / Then
+            while (index.size() > 0) {
+                double lat = -50 + random.nextDouble() * 130;
+                double lon = -130 + random.nextDouble() * 170;
+
+                int expected = bruteForceNearest(matrix, removed, lat, lon, calculator);
+                int actual = index.nearest(lat, lon);
+
+                assertThat(actual).as("%s nearest to (%f, %f)", mode, lat, lon).isEqualTo(expected);
+                removed[actual] = true;
+                index.remove(actual);
+            }
+        }
+    }
+
+    // Helper methods
+    private int bruteForceNearest(DistanceMatrix matrix, boolean[] removed, double lat, double lon) {
+        return bruteForceNearest(matrix, removed, lat, lon, distanceCalculator);
+    }
+
+    private int bruteForceNearest(DistanceMatrix matrix, boolean[] removed, double lat, double lon, DistanceCalculator calculator) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 1; i < matrix.size(); i++) {
+            if (removed[i]) continue;
+            double d = calculator.distance(lat, lon, matrix.latitude(i), matrix.longitude(i));
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private DistanceMatrix randomMatrix(int size, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            deliveries.add(createDelivery(id, 33.5 + random.nextDouble() * 0.2, -7.7 + random.nextDouble() * 0.2));
+        }
+        return new DistanceMatrix(createWarehouse(33.5731, -7.5898), deliveries, distanceCalculator);
+    }
+}
@@ -0,0 +1,136 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Vehicle;
+import com.deliveryoptimizer.model.Warehouse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SweepPartitioner Tests")
+class SweepPartitionerTest {
+
+    private final Warehouse warehouse = createWarehouse(1L, 33.5731, -7.5898);
+
+    @Test
+    @DisplayName("Should keep neighbouring sectors together instead of cutting a dense sector")
+    void partition_GroupsDeliveriesBySector() {
+        // Given: two deliveries north-east and two south-west of the warehouse, two vehicles of two stops
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.60, -7.56, 1),
+                createDelivery(2L, 33.55, -7.62, 1),
+                createDelivery(3L, 33.61, -7.57, 1),
+                createDelivery(4L, 33.54, -7.61, 1)
+        );
+        List<Vehicle> vehicles = List.of(createVehicle(1L, 100, 2), createVehicle(2L, 100, 2));
+
+        // When
+        SweepPartitioner.Result result = SweepPartitioner.partition(warehouse, deliveries, vehicles);
+
+        // Then
+        assertThat(result.unassigned()).isEmpty();
+        assertThat(result.clusters()).hasSize(2);
+        assertThat(result.clusters())
+                .extracting(cluster -> cluster.deliveries().stream().map(Delivery::getId).sorted().toList())
+                .containsExactlyInAnyOrder(List.of(1L, 3L), List.of(2L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should never exceed a vehicle's weight, volume or delivery count")
+    void partition_RespectsCapacities() {
+        // Given
+        Random random = new Random(16L);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            deliveries.add(createDelivery(id, 33.4 + random.nextDouble() * 0.4, -7.8 + random.nextDouble() * 0.4, 1 + random.nextInt(20)));
+        }
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            vehicles.add(createVehicle(id, id % 2 == 0 ? 1000 : 500, id % 2 == 0 ? 100 : 60));
+        }
+
+        // When
+        SweepPartitioner.Result result = SweepPartitioner.partition(warehouse, deliveries, vehicles);
+
+        // Then
+        int planned = 0;
+        for (SweepPartitioner.Cluster cluster : result.clusters()) {
+            Vehicle vehicle = cluster.vehicle();
+            assertThat(cluster.deliveries().size()).isLessThanOrEqualTo(vehicle.getMaxDeliveries());
+            assertThat(cluster.deliveries().stream().mapToDouble(Delivery::getMaxWeight).sum()).isLessThanOrEqualTo(vehicle.getMaxWeight());
+            assertThat(cluster.deliveries().stream().mapToDouble(Delivery::getMaxVolume).sum()).isLessThanOrEqualTo(vehicle.getMaxVolume());
+            planned += cluster.deliveries().size();
+        }
+        assertThat(result.clusters()).extracting(SweepPartitioner.Cluster::vehicle).doesNotHaveDuplicates();
+        assertThat(planned + result.unassigned().size()).isEqualTo(deliveries.size());
+    }
+
+    @Test
+    @DisplayName("Should leave out deliveries that fit no vehicle and those left when the fleet runs out")
+    void partition_ReportsUnassignedDeliveries() {
+        // Given
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.60, -7.56, 10),
+                createDelivery(2L, 33.61, -7.57, 10),
+                createDelivery(3L, 33.62, -7.58, 10),
+                createDelivery(4L, 33.55, -7.62, 500)
+        );
+        List<Vehicle> vehicles = List.of(createVehicle(1L, 25, 10));
+
+        // When
+        SweepPartitioner.Result result = SweepPartitioner.partition(warehouse, deliveries, vehicles);
+
+        // Then
+        assertThat(result.clusters()).hasSize(1);
+        assertThat(result.clusters().get(0).deliveries()).hasSize(2);
+        assertThat(result.unassigned()).extracting(Delivery::getId).contains(4L).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should give each delivery to its closest warehouse only, the lowest id on a tie")
+    void catchment_SplitsDeliveriesByClosestWarehouse() {
+        // Given: warehouse 2 due east of warehouse 1, delivery 3 halfway between them
+        Warehouse east = createWarehouse(2L, 33.5731, -7.4898);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.58, -7.58, 1),
+                createDelivery(2L, 33.57, -7.50, 1),
+                createDelivery(3L, 33.5731, -7.5398, 1)
+        );
+
+        // When
+        SweepPartitioner.Catchment west = SweepPartitioner.catchment(warehouse, List.of(warehouse, east), deliveries);
+        SweepPartitioner.Catchment eastern = SweepPartitioner.catchment(east, List.of(warehouse, east), deliveries);
+
+        // Then
+        assertThat(west.inside()).extracting(Delivery::getId).containsExactly(1L, 3L);
+        assertThat(west.outside()).extracting(Delivery::getId).containsExactly(2L);
+        assertThat(eastern.inside()).extracting(Delivery::getId).containsExactly(2L);
+        assertThat(eastern.outside()).extracting(Delivery::getId).containsExactly(1L, 3L);
+    }
+
+    // Helper methods
+    private Vehicle createVehicle(Long id, double maxWeight, int maxDeliveries) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setMaxWeight(maxWeight);
+        vehicle.setMaxVolume(maxWeight);
+        vehicle.setMaxDeliveries(maxDeliveries);
+        return vehicle;
+    }
+
+    private Delivery createDelivery(Long id, double altitude, double longitude, double weight) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        delivery.setMaxWeight(weight);
+        delivery.setMaxVolume(weight / 10);
+        return delivery;
+    }
+}
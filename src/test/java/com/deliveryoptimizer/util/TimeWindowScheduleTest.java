@@ -0,0 +1,111 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeWindowSchedule Tests")
+class TimeWindowScheduleTest {
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    @DisplayName("Should parse the usual time slot shapes and leave unreadable ones open all day")
+    void parse_ReadsCommonShapes() {
+        // Then
+        assertThat(TimeWindow.parse("09:00-10:00")).isEqualTo(new TimeWindow(540, 600));
+        assertThat(TimeWindow.parse(" 9h - 10h30 ")).isEqualTo(new TimeWindow(540, 630));
+        assertThat(TimeWindow.parse("14-18")).isEqualTo(new TimeWindow(840, 1080));
+        assertThat(TimeWindow.parse("22:00-24:00")).isEqualTo(new TimeWindow(1320, 1440));
+        assertThat(TimeWindow.parse("morning")).isEqualTo(TimeWindow.ALL_DAY);
+        assertThat(TimeWindow.parse("23:00-01:00")).isEqualTo(TimeWindow.ALL_DAY);
+        assertThat(TimeWindow.parse(null)).isEqualTo(TimeWindow.ALL_DAY);
+    }
+
+    @Test
+    @DisplayName("Should wait for a window to open and flag a stop reached after it closes")
+    void load_WaitsAndFlagsLateStops() {
+        // Given: about 1.1 km between stops, 60 km/h, 5 minutes of service
+        Warehouse warehouse = createWarehouse(33.00, -7.00, LocalTime.of(8, 0), LocalTime.of(18, 0));
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.01, -7.00, "08:30-09:00"),
+                createDelivery(2L, 33.02, -7.00, "08:00-08:10")
+        );
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+        TimeWindowSchedule schedule = new TimeWindowSchedule(matrix, 60, 5);
+
+        // When
+        schedule.load(new int[]{1, 2}, 2);
+
+        // Then
+        assertThat(schedule.start(1)).isEqualTo(510);
+        assertThat(schedule.arrival(1)).isLessThan(510);
+        assertThat(schedule.lateness(1)).isZero();
+        assertThat(schedule.lateness(2)).isGreaterThan(0);
+        assertThat(schedule.isFeasible()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should agree with a full re-timing of the route on every O(1) insertion check")
+    void insertionFits_MatchesFullReload() {
+        // Given
+        Random random = new Random(17L);
+        Warehouse warehouse = createWarehouse(33.5731, -7.5898, LocalTime.of(8, 0), LocalTime.of(13, 0));
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            int from = 8 + random.nextInt(4);
+            String slot = id <= 7 ? "08:00-13:00" : String.format("%02d:00-%02d:%02d", from, from + 1, random.nextInt(2) * 30);
+            deliveries.add(createDelivery(id, 33.55 + random.nextDouble() * 0.05, -7.61 + random.nextDouble() * 0.05, slot));
+        }
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+        TimeWindowSchedule schedule = new TimeWindowSchedule(matrix, 25, 4);
+        TimeWindowSchedule reference = new TimeWindowSchedule(matrix, 25, 4);
+        int[] route = {3, 7, 5, 1, 2, 6, 4};
+        schedule.load(route, route.length);
+
+        // Then
+        assertThat(schedule.isFeasible()).isTrue();
+        int fitting = 0;
+        for (int stop = 8; stop <= 30; stop++) {
+            for (int position = 0; position <= route.length; position++) {
+                int[] inserted = new int[route.length + 1];
+                System.arraycopy(route, 0, inserted, 0, position);
+                inserted[position] = stop;
+                System.arraycopy(route, position, inserted, position + 1, route.length - position);
+                reference.load(inserted, inserted.length);
+
+                assertThat(schedule.insertionFits(stop, position)).isEqualTo(reference.isFeasible());
+                if (reference.isFeasible()) fitting++;
+            }
+        }
+        assertThat(fitting).isPositive().isLessThan(23 * (route.length + 1));
+    }
+
+    // Helper methods
+    private Warehouse createWarehouse(double altitude, double longitude, LocalTime open, LocalTime close) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setAltitude(altitude);
+        warehouse.setLongitude(longitude);
+        warehouse.setOpenTime(open);
+        warehouse.setCloseTime(close);
+        return warehouse;
+    }
+
+    private Delivery createDelivery(Long id, double altitude, double longitude, String timeSlot) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAltitude(altitude);
+        delivery.setLongitude(longitude);
+        delivery.setTimeSlot(timeSlot);
+        return delivery;
+    }
+}
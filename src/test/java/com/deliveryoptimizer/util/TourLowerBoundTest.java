@@ -0,0 +1,79 @@
+package com.deliveryoptimizer.util;
+
+import com.deliveryoptimizer.model.Delivery;
+import com.deliveryoptimizer.model.Warehouse;
+import com.deliveryoptimizer.service.impl.HeldKarpOptimizer;
+import com.deliveryoptimizer.service.interfaces.TourOptimizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.deliveryoptimizer.TourFixtures.createDelivery;
+import static com.deliveryoptimizer.TourFixtures.createWarehouse;
+import static com.deliveryoptimizer.TourFixtures.randomDeliveries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("TourLowerBound Tests")
+class TourLowerBoundTest {
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    @DisplayName("Should order MST, plain 1-tree and penalized 1-tree below the optimal tour")
+    void oneTree_StaysBelowOptimum() {
+        // Given
+        DistanceMatrix matrix = new DistanceMatrix(createWarehouse(33.5731, -7.5898), randomDeliveries(12, 21L), distanceCalculator);
+        HeldKarpOptimizer exact = new HeldKarpOptimizer(mock(TourOptimizer.class), distanceCalculator, 12, 1);
+        double optimum = TourUtils.calculateTotalDistance(exact.solve(matrix), matrix);
+        exact.shutdown();
+
+        // When
+        double spanningTree = TourLowerBound.minimumSpanningTree(matrix);
+        double plain = TourLowerBound.oneTree(matrix, optimum * 1.2, 0);
+        double penalized = TourLowerBound.oneTree(matrix, optimum * 1.2, TourLowerBound.DEFAULT_ITERATIONS);
+
+        // Then
+        assertThat(spanningTree).isLessThanOrEqualTo(plain);
+        assertThat(plain).isLessThanOrEqualTo(penalized);
+        assertThat(penalized).isLessThanOrEqualTo(optimum + 1e-9);
+        assertThat(TourLowerBound.gapPercent(optimum, penalized)).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("Should equal the tour length when the 1-tree is already a tour")
+    void oneTree_OnSquare_IsExact() {
+        // Given: warehouse and three deliveries on the corners of a square
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        List<Delivery> deliveries = List.of(
+                createDelivery(1L, 33.00, -6.99),
+                createDelivery(2L, 33.01, -6.99),
+                createDelivery(3L, 33.01, -7.00));
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, deliveries, distanceCalculator);
+        double perimeter = TourUtils.calculateTotalDistance(warehouse, deliveries, distanceCalculator);
+
+        // When
+        double bound = TourLowerBound.oneTree(matrix, perimeter, TourLowerBound.DEFAULT_ITERATIONS);
+
+        // Then
+        assertThat(bound).isCloseTo(perimeter, within(1e-9));
+        assertThat(TourLowerBound.gapPercent(perimeter, bound)).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should bound a single delivery by the round trip")
+    void oneTree_WithSingleDelivery_IsRoundTrip() {
+        // Given
+        Warehouse warehouse = createWarehouse(33.00, -7.00);
+        Delivery delivery = createDelivery(1L, 33.02, -7.01);
+        DistanceMatrix matrix = new DistanceMatrix(warehouse, List.of(delivery), distanceCalculator);
+
+        // When
+        double bound = TourLowerBound.oneTree(matrix, Double.POSITIVE_INFINITY, TourLowerBound.DEFAULT_ITERATIONS);
+
+        // Then
+        assertThat(bound).isCloseTo(2 * distanceCalculator.distance(warehouse, delivery), within(1e-12));
+    }
+}
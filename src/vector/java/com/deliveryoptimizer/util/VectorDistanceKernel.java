@@ -0,0 +1,58 @@
+package com.deliveryoptimizer.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DistanceRowKernel} on the incubating Vector API, one SIMD lane per destination. Only compiled
+ * with the {@code vector} profile, and only loaded reflectively by {@link DistanceCalculator} when the JVM
+ * was started with {@code --add-modules jdk.incubator.vector}; the tail that does not fill a whole vector
+ * is left to the scalar code.
+ */
+final class VectorDistanceKernel implements DistanceRowKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DIAMETER_KM = 2 * DistanceCalculator.EARTH_RADIUS_KM;
+
+    static boolean isUseful(){
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public int haversine(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out){
+        double[] latRads = targets.latRads();
+        double[] lonRads = targets.lonRads();
+        double[] cosLats = targets.cosLats();
+        int bound = start + SPECIES.loopBound(end - start);
+
+        for (int i = start; i < bound; i += SPECIES.length()){
+            DoubleVector sinLat = DoubleVector.fromArray(SPECIES, latRads, i).sub(origin.latRad())
+                    .mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinLon = DoubleVector.fromArray(SPECIES, lonRads, i).sub(origin.lonRad())
+                    .mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = DoubleVector.fromArray(SPECIES, cosLats, i).mul(origin.cosLat())
+                    .mul(sinLon).mul(sinLon)
+                    .add(sinLat.mul(sinLat));
+            a.min(1.0).sqrt().lanewise(VectorOperators.ASIN).mul(DIAMETER_KM).intoArray(out, i);
+        }
+        return bound;
+    }
+
+    @Override
+    public int equirectangular(PreparedPoint origin, PreparedPoints targets, int start, int end, double[] out){
+        double[] latRads = targets.latRads();
+        double[] lonRads = targets.lonRads();
+        double[] cosLats = targets.cosLats();
+        int bound = start + SPECIES.loopBound(end - start);
+
+        for (int i = start; i < bound; i += SPECIES.length()){
+            DoubleVector dLat = DoubleVector.fromArray(SPECIES, latRads, i).sub(origin.latRad());
+            DoubleVector dLon = DoubleVector.fromArray(SPECIES, lonRads, i).sub(origin.lonRad());
+            dLon = dLon.sub(2 * Math.PI, dLon.compare(VectorOperators.GT, Math.PI))
+                    .add(2 * Math.PI, dLon.compare(VectorOperators.LT, -Math.PI));
+            DoubleVector x = DoubleVector.fromArray(SPECIES, cosLats, i).add(origin.cosLat()).mul(0.5).mul(dLon);
+            x.mul(x).add(dLat.mul(dLat)).sqrt().mul(DistanceCalculator.EARTH_RADIUS_KM).intoArray(out, i);
+        }
+        return bound;
+    }
+}